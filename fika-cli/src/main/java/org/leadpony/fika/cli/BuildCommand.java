@@ -16,7 +16,11 @@
 
 package org.leadpony.fika.cli;
 
+import java.util.Iterator;
+import java.util.List;
+
 import org.leadpony.fika.publication.builder.PublicationBuilder;
+import org.leadpony.fika.publication.builder.SiteBuilder;
 import org.leadpony.fika.publication.builder.spi.PublicationBuilderFactory;
 import org.leadpony.fika.publication.project.Project;
 
@@ -28,11 +32,26 @@ public class BuildCommand extends AbstractProjectCommand {
     private static final String DEFAULT_TYPE = "site";
     
     private String type;
+    private String workers;
+    private boolean clean;
     
     public BuildCommand() {
         this.type = DEFAULT_TYPE;
     }
 
+    @Override
+    public void setOptions(List<String> options) {
+        Iterator<String> it = options.iterator();
+        while (it.hasNext()) {
+            String option = it.next();
+            if ((option.equals("-j") || option.equals("--workers")) && it.hasNext()) {
+                this.workers = it.next();
+            } else if (option.equals("--clean")) {
+                this.clean = true;
+            }
+        }
+    }
+
     @Override
     public void execute(Project project) throws Exception {
         PublicationBuilderFactory factory = PublicationBuilderFactory.factoryFor(type);
@@ -40,6 +59,12 @@ public class BuildCommand extends AbstractProjectCommand {
         if (builder == null) {
             // TODO:
         }
+        if (workers != null) {
+            builder.setProperty(SiteBuilder.WORKERS, workers);
+        }
+        if (clean) {
+            builder.setProperty(PublicationBuilder.CLEAN, Boolean.TRUE);
+        }
         builder.build();
     }
 }
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.cli;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+
+/**
+ * Handler which notifies the browsers to reload the pages.
+ * 
+ * <p>
+ * The browsers receive the notifications as server-sent events
+ * from {@link #EVENT_PATH}. The HTML pages served by this handler
+ * include the script listening to the events.
+ * Any other requests are left to the subsequent handlers.
+ * </p>
+ * <p>
+ * The pages are read through {@link PageReader}, 
+ * which reads them either from the target directory or from memory.
+ * </p>
+ * 
+ * @author leadpony
+ */
+class LiveReloadHandler extends AbstractHandler {
+    
+    static final String EVENT_PATH = "/.fika/livereload";
+    static final String WELCOME_FILE = "index.html";
+    
+    private static final String SCRIPT = 
+            "<script>new EventSource(\"" + EVENT_PATH + "\")"
+            + ".onmessage = function() { location.reload(); };</script>\n";
+    
+    private static final byte[] RELOAD_EVENT = "data: reload\n\n".getBytes(StandardCharsets.UTF_8);
+    
+    private final PageReader reader;
+    private final List<AsyncContext> clients = new CopyOnWriteArrayList<>();
+    
+    /**
+     * Constructs this handler.
+     * 
+     * @param reader the reader of the pages.
+     */
+    LiveReloadHandler(PageReader reader) {
+        this.reader = reader;
+    }
+    
+    /**
+     * Creates a reader of the pages in the directory.
+     * 
+     * @param directory the directory containing the pages.
+     * @return newly created reader.
+     */
+    static PageReader directoryReader(Path directory) {
+        Path root = directory.toAbsolutePath().normalize();
+        return name -> {
+            Path path = root.resolve(name).normalize();
+            if (!path.startsWith(root) || !Files.isRegularFile(path)) {
+                return null;
+            }
+            return Files.readAllBytes(path);
+        };
+    }
+
+    @Override
+    public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        if (!"GET".equals(request.getMethod())) {
+            return;
+        }
+        if (target.equals(EVENT_PATH)) {
+            openEventStream(request, response);
+            baseRequest.setHandled(true);
+        } else {
+            String name = pageName(target);
+            byte[] page = (name != null) ? this.reader.read(name) : null;
+            if (page != null) {
+                sendPage(page, response);
+                baseRequest.setHandled(true);
+            }
+        }
+    }
+    
+    /**
+     * Notifies all connected browsers to reload the pages.
+     */
+    void reload() {
+        for (AsyncContext client : this.clients) {
+            try {
+                sendEvent(client, RELOAD_EVENT);
+            } catch (IOException | RuntimeException e) {
+                this.clients.remove(client);
+                client.complete();
+            }
+        }
+    }
+    
+    private void openEventStream(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType("text/event-stream");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Cache-Control", "no-store");
+        response.flushBuffer();
+        AsyncContext client = request.startAsync();
+        client.setTimeout(0);
+        client.addListener(new ClientListener());
+        this.clients.add(client);
+    }
+    
+    private static void sendEvent(AsyncContext client, byte[] event) throws IOException {
+        synchronized (client) {
+            ServletOutputStream out = client.getResponse().getOutputStream();
+            out.write(event);
+            out.flush();
+        }
+    }
+    
+    /**
+     * Returns the name of the HTML page for the request target.
+     * 
+     * @param target the target of the request.
+     * @return the name of the page, or {@code null} if the target is not an HTML page.
+     */
+    static String pageName(String target) {
+        String name = target.substring(1);
+        if (name.isEmpty() || name.endsWith("/")) {
+            return name + WELCOME_FILE;
+        }
+        return name.endsWith(".html") ? name : null;
+    }
+    
+    private static void sendPage(byte[] page, HttpServletResponse response) throws IOException {
+        String html = new String(page, StandardCharsets.UTF_8);
+        int index = html.lastIndexOf("</body>");
+        if (index < 0) {
+            index = html.length();
+        }
+        byte[] content = new StringBuilder(html.length() + SCRIPT.length())
+                .append(html, 0, index)
+                .append(SCRIPT)
+                .append(html, index, html.length())
+                .toString()
+                .getBytes(StandardCharsets.UTF_8);
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType("text/html");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Cache-Control", "no-store");
+        response.setContentLength(content.length);
+        response.getOutputStream().write(content);
+    }
+    
+    /**
+     * Reader of the pages to serve.
+     * 
+     * @author leadpony
+     */
+    @FunctionalInterface
+    interface PageReader {
+        
+        /**
+         * Reads the page.
+         * 
+         * @param name the name of the page relative to the root.
+         * @return the bytes of the page, or {@code null} if the page does not exist.
+         * @throws IOException if an I/O error occurred.
+         */
+        byte[] read(String name) throws IOException;
+    }
+    
+    /**
+     * Listener which forgets the client disconnected.
+     */
+    private class ClientListener implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            clients.remove(event.getAsyncContext());
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            clients.remove(event.getAsyncContext());
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            clients.remove(event.getAsyncContext());
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
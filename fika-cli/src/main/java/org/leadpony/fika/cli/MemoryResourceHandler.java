@@ -0,0 +1,73 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.cli;
+
+import java.io.IOException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jetty.http.MimeTypes;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.leadpony.fika.publication.builder.MemorySink;
+
+/**
+ * Handler serving the outputs held in memory.
+ * 
+ * @author leadpony
+ */
+class MemoryResourceHandler extends AbstractHandler {
+    
+    private final MemorySink sink;
+    
+    /**
+     * Constructs this handler.
+     * 
+     * @param sink the sink holding the outputs.
+     */
+    MemoryResourceHandler(MemorySink sink) {
+        this.sink = sink;
+    }
+
+    @Override
+    public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return;
+        }
+        String name = target.substring(1);
+        if (name.isEmpty() || name.endsWith("/")) {
+            name += LiveReloadHandler.WELCOME_FILE;
+        }
+        byte[] content = this.sink.read(name);
+        if (content == null) {
+            return;
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        String mimeType = MimeTypes.getDefaultMimeByExtension(name);
+        if (mimeType != null) {
+            response.setContentType(mimeType);
+        }
+        response.setHeader("Cache-Control", "no-store");
+        response.setContentLength(content.length);
+        if ("GET".equals(method)) {
+            response.getOutputStream().write(content);
+        }
+        baseRequest.setHandled(true);
+    }
+}
@@ -15,25 +15,204 @@
  */
 package org.leadpony.fika.cli;
 
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import org.eclipse.jetty.server.Handler;
 import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.HandlerList;
+import org.eclipse.jetty.server.handler.ResourceHandler;
 import org.eclipse.jetty.util.log.JavaUtilLog;
 import org.eclipse.jetty.util.log.Log;
+import org.leadpony.fika.publication.builder.MemorySink;
+import org.leadpony.fika.publication.builder.PublicationBuilder;
+import org.leadpony.fika.publication.builder.SiteBuilder;
+import org.leadpony.fika.publication.builder.spi.PublicationBuilderFactory;
 import org.leadpony.fika.publication.project.Project;
 
 /**
+ * Command which serves the site built from the project
+ * and rebuilds it whenever the sources or the templates are modified.
+ * 
+ * <p>
+ * By default the site is held in memory and nothing is written to the target directory.
+ * Each page is rendered when it is requested for the first time after the build.
+ * The option {@code --write} writes the site to the target directory instead.
+ * </p>
+ * 
  * @author leadpony
  */
 public class PreviewCommand extends AbstractProjectCommand {
 
+    private static final Logger log = Logger.getLogger(PreviewCommand.class.getName());
+    
+    private static final String TYPE = "site";
+    private static final String DEFAULT_HOST = "localhost";
+    private static final int DEFAULT_PORT = 8080;
+    
+    /*
+     * Maximum number of the parsed sources kept in memory while previewing.
+     */
+    private static final int PARSE_CACHE_SIZE = 1000;
+    
+    private String host = DEFAULT_HOST;
+    private int port = DEFAULT_PORT;
+    private String workers;
+    private boolean write;
+    
+    private final MemorySink memorySink = new MemorySink();
+    private Project project;
+    private PublicationBuilder builder;
+    private LiveReloadHandler liveReloadHandler;
+
+    @Override
+    public void setOptions(List<String> options) {
+        Iterator<String> it = options.iterator();
+        while (it.hasNext()) {
+            String option = it.next();
+            if ((option.equals("-p") || option.equals("--port")) && it.hasNext()) {
+                this.port = parsePort(it.next());
+            } else if (option.equals("--host") && it.hasNext()) {
+                this.host = it.next();
+            } else if ((option.equals("-j") || option.equals("--workers")) && it.hasNext()) {
+                this.workers = it.next();
+            } else if (option.equals("--write")) {
+                this.write = true;
+            }
+        }
+    }
+    
     @Override
     public void execute(Project project) throws Exception {
+        this.project = project;
+        this.builder = createBuilder(project);
+        this.builder.build();
         runServer();
     }
     
     private void runServer() throws Exception {
         Log.setLog(new JavaUtilLog());
+        Path targetDirectory = this.project.targetDirectory();
+        Handler resourceHandler;
+        if (this.write) {
+            this.liveReloadHandler = new LiveReloadHandler(LiveReloadHandler.directoryReader(targetDirectory));
+            resourceHandler = createResourceHandler(targetDirectory);
+        } else {
+            this.liveReloadHandler = new LiveReloadHandler(this.memorySink::read);
+            resourceHandler = new MemoryResourceHandler(this.memorySink);
+        }
+        
         Server server = new Server();
+        ServerConnector connector = new ServerConnector(server);
+        connector.setHost(this.host);
+        connector.setPort(this.port);
+        server.addConnector(connector);
+        server.setHandler(new HandlerList(this.liveReloadHandler, resourceHandler));
         server.start();
+        
+        SourceWatcher watcher = new SourceWatcher(this.project, this::rebuild);
+        Thread thread = new Thread(watcher, "fika-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        
+        log.info("Serving the site at " + serverUrl());
         server.join();
     }
+    
+    /**
+     * Rebuilds the site and reloads the pages opened in the browsers.
+     * The builder is reused between the builds, 
+     * so that only the pages and the resources affected by the changes are regenerated.
+     * 
+     * @param changes the paths of the files modified.
+     */
+    private void rebuild(Set<Path> changes) {
+        long start = System.nanoTime();
+        if (!changes.contains(this.project.path().toAbsolutePath().normalize()) || !reloadProject()) {
+            this.builder.rebuild(changes);
+        }
+        long elapsed = (System.nanoTime() - start) / 1000000;
+        log.info("Rebuilt the site in " + elapsed + " ms.");
+        this.liveReloadHandler.reload();
+    }
+    
+    /**
+     * Reloads the project and builds the whole site with a new builder.
+     * The outputs left in memory by the previous builder 
+     * are deleted unless written again by the new one.
+     * 
+     * @return {@code true} if the project was reloaded, 
+     *         {@code false} if the previous project is kept.
+     */
+    private boolean reloadProject() {
+        try {
+            this.project = Project.loadFrom(this.project.path());
+        } catch (Exception e) {
+            log.severe("Failed to reload the project: " + e.getMessage());
+            return false;
+        }
+        this.builder = createBuilder(this.project);
+        if (this.write) {
+            // The manifest in the target directory is passed to the new builder.
+            this.builder.build();
+        } else {
+            this.memorySink.mark();
+            this.builder.build();
+            int count = this.memorySink.sweep();
+            if (count > 0) {
+                log.fine("Deleted " + count + " file(s) of the previous project.");
+            }
+        }
+        return true;
+    }
+    
+    private PublicationBuilder createBuilder(Project project) {
+        PublicationBuilderFactory factory = PublicationBuilderFactory.factoryFor(TYPE);
+        PublicationBuilder builder = factory.newBuilder(TYPE, project);
+        builder.setProperty(PublicationBuilder.INCREMENTAL, Boolean.TRUE);
+        builder.setProperty(SiteBuilder.PARSE_CACHE, PARSE_CACHE_SIZE);
+        builder.setProperty(SiteBuilder.TEMPLATE_CACHE, "validated");
+        if (this.workers != null) {
+            builder.setProperty(SiteBuilder.WORKERS, this.workers);
+        }
+        if (!this.write) {
+            // The outputs of the previous builder are kept in the sink.
+            builder.setSink(this.memorySink);
+        }
+        return builder;
+    }
+    
+    private static ResourceHandler createResourceHandler(Path directory) {
+        ResourceHandler handler = new ResourceHandler();
+        handler.setResourceBase(directory.toString());
+        handler.setDirectoriesListed(false);
+        handler.setWelcomeFiles(new String[] { LiveReloadHandler.WELCOME_FILE });
+        handler.setCacheControl("no-store");
+        return handler;
+    }
+    
+    private String serverUrl() {
+        return new StringBuilder("http://")
+                .append(new InetSocketAddress(this.host, this.port).getHostString())
+                .append(':').append(this.port).append('/')
+                .toString();
+    }
+    
+    private static int parsePort(String value) {
+        int port;
+        try {
+            port = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid port number: " + value);
+        }
+        if (port < 0 || port > 65535) {
+            throw new IllegalArgumentException("Invalid port number: " + value);
+        }
+        return port;
+    }
 }
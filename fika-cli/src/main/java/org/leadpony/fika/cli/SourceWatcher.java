@@ -0,0 +1,193 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.cli;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.leadpony.fika.publication.project.Project;
+
+/**
+ * Watcher of the files in the project.
+ * 
+ * <p>
+ * The source directory and the template directory are watched recursively,
+ * and the directory containing the project file is watched only for the project file.
+ * The target directory is never watched even if it is placed in the watched directories.
+ * </p>
+ * <p>
+ * The events reported by the file system within a short period are gathered
+ * and passed to the listener at once, because most editors write a file
+ * in several steps when saving it.
+ * </p>
+ * 
+ * @author leadpony
+ */
+class SourceWatcher implements Runnable {
+    
+    private static final Logger log = Logger.getLogger(SourceWatcher.class.getName());
+    
+    /*
+     * Period in milliseconds for gathering the events following the first one.
+     */
+    private static final long QUIET_PERIOD = 20;
+    
+    private final Path projectFile;
+    private final Path targetDirectory;
+    private final Path[] directories;
+    private final Consumer<Set<Path>> listener;
+    private final Map<WatchKey, Path> keys = new HashMap<>();
+    
+    /**
+     * Constructs this watcher.
+     * 
+     * @param project the project to watch.
+     * @param listener the listener receiving the paths of the files modified.
+     */
+    SourceWatcher(Project project, Consumer<Set<Path>> listener) {
+        this.projectFile = normalize(project.path());
+        this.targetDirectory = normalize(project.targetDirectory());
+        this.directories = new Path[] { 
+                normalize(project.sourceDirectory()),
+                normalize(project.templateDirectory())
+                };
+        this.listener = listener;
+    }
+
+    @Override
+    public void run() {
+        try (WatchService service = FileSystems.getDefault().newWatchService()) {
+            registerAll(service);
+            for (;;) {
+                WatchKey key = service.take();
+                Set<Path> changes = new LinkedHashSet<>();
+                while (key != null) {
+                    processEvents(service, key, changes);
+                    key = service.poll(QUIET_PERIOD, TimeUnit.MILLISECONDS);
+                }
+                if (!changes.isEmpty()) {
+                    notifyChanges(changes);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.severe("Failed to watch the project: " + e.getMessage());
+        }
+    }
+    
+    private void registerAll(WatchService service) throws IOException {
+        Path projectDirectory = this.projectFile.getParent();
+        if (projectDirectory != null) {
+            register(service, projectDirectory);
+        }
+        for (Path directory : this.directories) {
+            if (directory != null && Files.isDirectory(directory)) {
+                registerTree(service, directory);
+            }
+        }
+    }
+    
+    private void registerTree(WatchService service, Path root) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (dir.startsWith(targetDirectory)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                register(service, dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+    
+    private void register(WatchService service, Path directory) throws IOException {
+        WatchKey key = directory.register(service, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+        this.keys.put(key, directory);
+    }
+    
+    private void processEvents(WatchService service, WatchKey key, Set<Path> changes) throws IOException {
+        Path directory = this.keys.get(key);
+        if (directory == null) {
+            key.cancel();
+            return;
+        }
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                changes.add(directory);
+                continue;
+            }
+            Path path = directory.resolve((Path)event.context());
+            if (isWatched(path)) {
+                changes.add(path);
+                if (event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+                    registerTree(service, path);
+                }
+            }
+        }
+        if (!key.reset()) {
+            this.keys.remove(key);
+        }
+    }
+    
+    private boolean isWatched(Path path) {
+        if (path.equals(this.projectFile)) {
+            return true;
+        } else if (path.startsWith(this.targetDirectory)) {
+            return false;
+        }
+        for (Path directory : this.directories) {
+            if (directory != null && path.startsWith(directory)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private void notifyChanges(Set<Path> changes) {
+        log.fine("Detected changes: " + changes);
+        try {
+            this.listener.accept(changes);
+        } catch (RuntimeException e) {
+            log.log(Level.SEVERE, e.getMessage(), e);
+        }
+    }
+
+    private static Path normalize(Path path) {
+        return (path != null) ? path.toAbsolutePath().normalize() : null;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.ProfilerConfig;
+
+/**
+ * Entry point of the benchmarks.
+ *
+ * <p>
+ * This accepts the same command line options as the JMH runner does,
+ * and enables the GC profiler by default
+ * so that the allocation rate is reported along with the throughput.
+ * </p>
+ *
+ * @author leadpony
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        CommandLineOptions commandLine;
+        try {
+            commandLine = new CommandLineOptions(args);
+        } catch (CommandLineOptionException e) {
+            System.err.println("Error parsing command line:");
+            System.err.println(" " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        new Runner(buildOptions(commandLine)).run();
+    }
+
+    private static Options buildOptions(CommandLineOptions commandLine) {
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(commandLine);
+        if (!hasGCProfiler(commandLine)) {
+            builder.addProfiler(GCProfiler.class);
+        }
+        return builder.build();
+    }
+
+    private static boolean hasGCProfiler(CommandLineOptions commandLine) {
+        for (ProfilerConfig profiler : commandLine.getProfilers()) {
+            if (profiler.getKlass().equals(GCProfiler.class.getName())
+                || profiler.getKlass().equals("gc")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import javax.json.JsonValue;
+
+/**
+ * Fixed corpora used by the benchmarks.
+ *
+ * @author leadpony
+ */
+public enum Corpus {
+    /**
+     * The CommonMark specification itself, written in Markdown.
+     */
+    SPEC_TXT {
+        @Override
+        List<String> load() {
+            return Collections.singletonList(readResource("spec.txt"));
+        }
+    },
+    /**
+     * All examples found in the CommonMark specification,
+     * each of which is parsed as a separate document.
+     */
+    SPEC_JSON {
+        @Override
+        List<String> load() {
+            List<String> documents = new ArrayList<>();
+            for (List<String> examples : loadSpecExamples().values()) {
+                documents.addAll(examples);
+            }
+            return documents;
+        }
+    },
+    /**
+     * Many small synthetic pages.
+     */
+    SYNTHETIC_SMALL {
+        @Override
+        List<String> load() {
+            List<String> documents = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                documents.add(SyntheticDocument.generate(i, 4));
+            }
+            return documents;
+        }
+    },
+    /**
+     * A single large synthetic document.
+     */
+    SYNTHETIC_LARGE {
+        @Override
+        List<String> load() {
+            return Collections.singletonList(SyntheticDocument.generate(0, 2000));
+        }
+    };
+
+    /**
+     * Loads the documents in this corpus.
+     *
+     * @return the list of the documents, never be {@code null}.
+     */
+    abstract List<String> load();
+
+    /**
+     * Loads the examples in the CommonMark specification grouped by section.
+     *
+     * @return the map whose key is the section name,
+     *         with the entries in the order of the appearance.
+     */
+    static Map<String, List<String>> loadSpecExamples() {
+        Map<String, List<String>> sections = new LinkedHashMap<>();
+        try (InputStream in = openResource("spec.json"); JsonReader reader = Json.createReader(in)) {
+            for (JsonValue value : reader.readArray()) {
+                JsonObject object = value.asJsonObject();
+                sections.computeIfAbsent(object.getString("section"), k -> new ArrayList<>())
+                    .add(object.getString("markdown"));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sections;
+    }
+
+    private static String readResource(String name) {
+        try (InputStream in = openResource(name)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int length;
+            while ((length = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, length);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static InputStream openResource(String name) throws IOException {
+        InputStream in = Corpus.class.getResourceAsStream(name);
+        if (in == null) {
+            throw new IOException(name + " not found");
+        }
+        return in;
+    }
+}
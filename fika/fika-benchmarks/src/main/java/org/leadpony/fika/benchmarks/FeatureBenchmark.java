@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.leadpony.fika.core.core.ParserFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark measuring the cost of each feature,
+ * by parsing the examples of a section in the CommonMark specification.
+ *
+ * @author leadpony
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeatureBenchmark {
+
+    @Param({
+        "Tabs",
+        "Thematic breaks",
+        "ATX headings",
+        "Setext headings",
+        "Indented code blocks",
+        "Fenced code blocks",
+        "HTML blocks",
+        "Link reference definitions",
+        "Paragraphs",
+        "Block quotes",
+        "List items",
+        "Lists",
+        "Backslash escapes",
+        "Entity and numeric character references",
+        "Code spans",
+        "Emphasis and strong emphasis",
+        "Links",
+        "Images",
+        "Autolinks",
+        "Raw HTML",
+        "Hard line breaks",
+    })
+    private String section;
+
+    private List<String> examples;
+    private ParserFactory factory;
+
+    @Setup
+    public void setUp() {
+        this.examples = Corpus.loadSpecExamples().get(section);
+        if (this.examples == null) {
+            throw new IllegalArgumentException("Unknown section: " + section);
+        }
+        this.factory = FeatureSet.COMMONMARK.createParserFactory();
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (String example : examples) {
+            blackhole.consume(ParserBenchmark.parse(factory, example));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.benchmarks;
+
+import org.leadpony.fika.core.core.BasicFeature;
+import org.leadpony.fika.core.core.ParserFactory;
+import org.leadpony.fika.core.core.ParserFactoryBuilder;
+import org.leadpony.fika.core.core.ParserService;
+
+/**
+ * Feature sets of the Markdown parser to benchmark.
+ *
+ * @author leadpony
+ */
+public enum FeatureSet {
+    /**
+     * The features defined by the CommonMark specification.
+     */
+    COMMONMARK,
+    /**
+     * The features enabled by the site builder.
+     */
+    EXTENDED {
+        @Override
+        ParserFactoryBuilder configure(ParserFactoryBuilder builder) {
+            return builder
+                .withFeature(BasicFeature.ADMONITION)
+                .withFeature(BasicFeature.DEFINITION_LIST);
+        }
+    };
+
+    /**
+     * Creates a parser factory supporting this feature set.
+     *
+     * @return newly created parser factory.
+     */
+    ParserFactory createParserFactory() {
+        ParserService service = ParserService.get("text/markdown");
+        return configure(service.createParserFactoryBuilder()).build();
+    }
+
+    ParserFactoryBuilder configure(ParserFactoryBuilder builder) {
+        return builder;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.benchmarks;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.leadpony.fika.core.DocumentService;
+import org.leadpony.fika.core.DocumentWriter;
+import org.leadpony.fika.core.core.ParserFactory;
+import org.leadpony.fika.core.model.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of writing the parsed documents as HTML.
+ *
+ * @author leadpony
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HtmlWriterBenchmark {
+
+    @Param({"SPEC_TXT", "SPEC_JSON", "SYNTHETIC_SMALL", "SYNTHETIC_LARGE"})
+    private Corpus corpus;
+
+    @Param({"true", "false"})
+    private boolean fragmentOnly;
+
+    private List<Document> documents;
+    private DocumentService service;
+
+    @Setup
+    public void setUp() {
+        ParserFactory factory = FeatureSet.EXTENDED.createParserFactory();
+        this.documents = new ArrayList<>();
+        for (String document : corpus.load()) {
+            this.documents.add(ParserBenchmark.parse(factory, document));
+        }
+        this.service = DocumentService.forType("text/html");
+    }
+
+    @Benchmark
+    public void write(Blackhole blackhole) {
+        for (Document document : documents) {
+            StringWriter stringWriter = new StringWriter();
+            try (DocumentWriter writer = service.createWriterBuilder(stringWriter)
+                    .withFragmentOnly(fragmentOnly)
+                    .build()) {
+                writer.write(document);
+            }
+            blackhole.consume(stringWriter.toString());
+        }
+    }
+}
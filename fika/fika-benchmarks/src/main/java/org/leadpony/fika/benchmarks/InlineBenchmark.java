@@ -0,0 +1,161 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.leadpony.fika.core.model.NodeFactory;
+import org.leadpony.fika.core.model.Paragraph;
+import org.leadpony.fika.core.model.Text;
+import org.leadpony.fika.format.base.model.DefaultNodeFactory;
+import org.leadpony.fika.format.markdown.common.LinkDefinitionMap;
+import org.leadpony.fika.format.markdown.inline.DefaultInlineProcessor;
+import org.leadpony.fika.format.markdown.inline.InlineHandler;
+import org.leadpony.fika.format.markdown.inline.InlineProcessor;
+import org.leadpony.fika.format.markdown.inline.commonmark.AsteriskEmphasisHandler;
+import org.leadpony.fika.format.markdown.inline.commonmark.AutolinkHandler;
+import org.leadpony.fika.format.markdown.inline.commonmark.BackslashEscapeHandler;
+import org.leadpony.fika.format.markdown.inline.commonmark.BackslashLineBreakHandler;
+import org.leadpony.fika.format.markdown.inline.commonmark.CharacterReferenceHandler;
+import org.leadpony.fika.format.markdown.inline.commonmark.CodeSpanHandler;
+import org.leadpony.fika.format.markdown.inline.commonmark.ImageHandler;
+import org.leadpony.fika.format.markdown.inline.commonmark.LineBreakHandler;
+import org.leadpony.fika.format.markdown.inline.commonmark.LinkCloserHandler;
+import org.leadpony.fika.format.markdown.inline.commonmark.LinkHandler;
+import org.leadpony.fika.format.markdown.inline.commonmark.RawHtmlHandler;
+import org.leadpony.fika.format.markdown.inline.commonmark.UnderscoreEmphasisHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of {@link DefaultInlineProcessor} in isolation from the block phase.
+ *
+ * <p>
+ * Each paragraph is given to the processor as a single text node,
+ * as the block processor does.
+ * </p>
+ *
+ * @author leadpony
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InlineBenchmark {
+
+    /**
+     * The sections of the specification describing inlines.
+     */
+    private static final List<String> INLINE_SECTIONS = Arrays.asList(
+            "Backslash escapes",
+            "Entity and numeric character references",
+            "Code spans",
+            "Emphasis and strong emphasis",
+            "Links",
+            "Images",
+            "Autolinks",
+            "Raw HTML",
+            "Hard line breaks",
+            "Soft line breaks",
+            "Textual content"
+            );
+
+    @Param({"SPEC_INLINES", "SYNTHETIC"})
+    private String source;
+
+    private List<String> paragraphs;
+    private NodeFactory nodeFactory;
+    private InlineProcessor processor;
+
+    @Setup
+    public void setUp() {
+        this.paragraphs = loadParagraphs(source);
+        this.nodeFactory = new DefaultNodeFactory();
+        this.processor = new DefaultInlineProcessor(
+                nodeFactory, new LinkDefinitionMap(), createHandlers());
+    }
+
+    @Benchmark
+    public void processInlines(Blackhole blackhole) {
+        for (String content : paragraphs) {
+            Paragraph paragraph = nodeFactory.createParagraph();
+            Text text = nodeFactory.createText(content);
+            paragraph.appendChild(text);
+            processor.processInlines(text);
+            blackhole.consume(paragraph);
+        }
+    }
+
+    private static List<String> loadParagraphs(String source) {
+        switch (source) {
+        case "SPEC_INLINES":
+            return loadSpecInlines();
+        case "SYNTHETIC":
+            return SyntheticDocument.generateInlines(0, 500);
+        default:
+            throw new IllegalArgumentException("Unknown source: " + source);
+        }
+    }
+
+    private static List<String> loadSpecInlines() {
+        Map<String, List<String>> sections = Corpus.loadSpecExamples();
+        List<String> paragraphs = new ArrayList<>();
+        for (String section : INLINE_SECTIONS) {
+            for (String example : sections.get(section)) {
+                paragraphs.add(example.trim());
+            }
+        }
+        return paragraphs;
+    }
+
+    /**
+     * Creates the inline handlers in the same order as the feature providers add them.
+     *
+     * @return the list of the inline handlers.
+     */
+    private static List<InlineHandler> createHandlers() {
+        return Arrays.asList(
+                new BackslashEscapeHandler(),
+                new CharacterReferenceHandler(),
+                new AutolinkHandler(),
+                new CodeSpanHandler(),
+                new AsteriskEmphasisHandler(),
+                new UnderscoreEmphasisHandler(),
+                new LineBreakHandler(),
+                new BackslashLineBreakHandler(),
+                new ImageHandler(),
+                new LinkCloserHandler(),
+                new RawHtmlHandler(),
+                new LinkHandler()
+                );
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.leadpony.fika.core.core.Parser;
+import org.leadpony.fika.core.core.ParserFactory;
+import org.leadpony.fika.core.model.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of parsing whole Markdown documents.
+ *
+ * @author leadpony
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+    @Param({"SPEC_TXT", "SPEC_JSON", "SYNTHETIC_SMALL", "SYNTHETIC_LARGE"})
+    private Corpus corpus;
+
+    @Param({"COMMONMARK", "EXTENDED"})
+    private FeatureSet featureSet;
+
+    private List<String> documents;
+    private ParserFactory factory;
+
+    @Setup
+    public void setUp() {
+        this.documents = corpus.load();
+        this.factory = featureSet.createParserFactory();
+    }
+
+    /**
+     * Parses all documents in the corpus, using the shared parser factory.
+     *
+     * @param blackhole the blackhole consuming the parsed documents.
+     */
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (String document : documents) {
+            blackhole.consume(parse(factory, document));
+        }
+    }
+
+    /**
+     * Parses all documents in the corpus,
+     * creating a parser factory for each document.
+     *
+     * @param blackhole the blackhole consuming the parsed documents.
+     */
+    @Benchmark
+    public void parseWithNewFactory(Blackhole blackhole) {
+        for (String document : documents) {
+            blackhole.consume(parse(featureSet.createParserFactory(), document));
+        }
+    }
+
+    static Document parse(ParserFactory factory, String document) {
+        try (Parser parser = factory.createParser(document)) {
+            return parser.parse();
+        }
+    }
+}
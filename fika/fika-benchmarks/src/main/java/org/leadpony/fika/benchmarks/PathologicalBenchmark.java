@@ -0,0 +1,71 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.leadpony.fika.core.core.ParserFactory;
+import org.leadpony.fika.core.model.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of parsing pathological inputs.
+ *
+ * <p>
+ * The time per operation should grow linearly with the size,
+ * that is, about four times for each step of the size.
+ * </p>
+ *
+ * @author leadpony
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class PathologicalBenchmark {
+
+    @Param
+    private PathologicalInput input;
+
+    @Param({"2500", "10000", "40000"})
+    private int size;
+
+    private String document;
+    private ParserFactory factory;
+
+    @Setup
+    public void setUp() {
+        this.document = input.generate(size);
+        this.factory = FeatureSet.COMMONMARK.createParserFactory();
+    }
+
+    @Benchmark
+    public Document parse() {
+        return ParserBenchmark.parse(factory, document);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.benchmarks;
+
+import java.util.function.IntFunction;
+
+/**
+ * Pathological inputs which have caused Markdown parsers
+ * to take time quadratic in the input length.
+ *
+ * <p>
+ * The inputs are measured by {@link PathologicalBenchmark}
+ * and guarded against regressions by the tests of this module.
+ * </p>
+ *
+ * @author leadpony
+ */
+public enum PathologicalInput {
+    NESTED_STRONG_EMPHASIS(n -> repeat("*a **a ", n) + "b" + repeat(" a** a*", n)),
+    EMPHASIS_CLOSERS_WITHOUT_OPENERS(n -> repeat("a_ ", n)),
+    EMPHASIS_OPENERS_WITHOUT_CLOSERS(n -> repeat("_a ", n)),
+    MISMATCHED_OPENERS_AND_CLOSERS(n -> repeat("*a_ ", n)),
+    OPENERS_AND_CLOSERS_MULTIPLE_OF_3(n -> "a**b" + repeat("c* ", n)),
+    LINK_OPENERS_AND_EMPHASIS_CLOSERS(n -> repeat("[ a_", n)),
+    LINKS_AFTER_EMPHASIS_OPENERS(n -> repeat("**x [a*b**c*](d)", n)),
+    LINK_CLOSERS_WITHOUT_OPENERS(n -> repeat("a] ", n)),
+    LINK_OPENERS_WITHOUT_CLOSERS(n -> repeat("[a ", n)),
+    NESTED_BRACKETS(n -> repeat("[", n) + "a" + repeat("]", n)),
+    NESTED_PARENTHESES_IN_LINKS(n -> repeat("[ (](", n)),
+    UNCLOSED_LINKS_IN_ANGLE_BRACKETS(n -> repeat("[a](<b", n)),
+    UNCLOSED_LINKS(n -> repeat("[a](b", n)),
+    UNCLOSED_TITLES_IN_PARENTHESES(n -> repeat("[a](b (c", n)),
+    UNCLOSED_REFERENCE_LABELS(n -> repeat("[a][", n)),
+    UNCLOSED_BACKTICKS(n -> repeat("`a ``b ", n)),
+    UNCLOSED_CDATA_SECTIONS(n -> repeat("a <![CDATA[", n)),
+    UNCLOSED_PROCESSING_INSTRUCTIONS(n -> repeat("a <?", n)),
+    UNCLOSED_DECLARATIONS(n -> repeat("a <!A ", n)),
+    BACKTICK_RUNS_OF_GROWING_LENGTH(n -> {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 1; i * i < n * 20; ++i) {
+            builder.append('e').append(repeat("`", i));
+        }
+        return builder.toString();
+    }),
+    MANY_LINK_DEFINITIONS(n -> {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < n; ++i) {
+            builder.append("[label").append(i).append("]: /url").append(i).append('\n');
+        }
+        builder.append('\n');
+        for (int i = 0; i < n; ++i) {
+            builder.append("[label").append(i).append("] ");
+        }
+        return builder.toString();
+    }),
+    NESTED_BLOCK_QUOTES(n -> repeat("> ", n) + "a\n"),
+    NESTED_LIST_ITEMS(n -> repeat("* ", n) + "a\n"),
+    NESTED_LIST_ITEMS_IN_BLOCK_QUOTES(n -> repeat("> 1. ", n / 2) + "a\n"),
+    ;
+
+    private final IntFunction<String> generator;
+
+    private PathologicalInput(IntFunction<String> generator) {
+        this.generator = generator;
+    }
+
+    /**
+     * Generates the input of the specified size.
+     *
+     * @param size the number of the repeated units.
+     * @return the generated input.
+     */
+    String generate(int size) {
+        return generator.apply(size);
+    }
+
+    private static String repeat(String s, int times) {
+        StringBuilder builder = new StringBuilder(s.length() * times);
+        for (int i = 0; i < times; ++i) {
+            builder.append(s);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generator of synthetic Markdown documents.
+ *
+ * <p>
+ * The generated documents are deterministic for the same seed,
+ * so that the results of the benchmarks can be compared between runs.
+ * </p>
+ *
+ * @author leadpony
+ */
+final class SyntheticDocument {
+
+    private static final String[] WORDS = {
+        "lorem", "ipsum", "dolor", "sit", "amet", "consectetur", "adipiscing", "elit",
+        "sed", "do", "eiusmod", "tempor", "incididunt", "ut", "labore", "et", "dolore",
+        "magna", "aliqua", "enim", "ad", "minim", "veniam", "quis", "nostrud",
+    };
+
+    private static final String[] ADMONITIONS = {
+        "note", "tip", "warning", "danger",
+    };
+
+    private final Random random;
+    private final StringBuilder builder = new StringBuilder();
+
+    private SyntheticDocument(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Generates a document.
+     *
+     * @param seed the seed of the random generator.
+     * @param sections the number of the sections in the document.
+     * @return the generated document.
+     */
+    static String generate(long seed, int sections) {
+        SyntheticDocument doc = new SyntheticDocument(seed);
+        doc.heading(1);
+        for (int i = 0; i < sections; i++) {
+            doc.section();
+        }
+        return doc.builder.toString();
+    }
+
+    /**
+     * Generates paragraphs rich in inline elements.
+     *
+     * @param seed the seed of the random generator.
+     * @param count the number of the paragraphs.
+     * @return the list of the generated paragraphs, without any block markers.
+     */
+    static List<String> generateInlines(long seed, int count) {
+        SyntheticDocument doc = new SyntheticDocument(seed);
+        List<String> paragraphs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            doc.builder.setLength(0);
+            doc.inlines(4);
+            paragraphs.add(doc.builder.toString());
+        }
+        return paragraphs;
+    }
+
+    private void section() {
+        heading(2 + random.nextInt(3));
+        paragraph();
+        switch (random.nextInt(7)) {
+        case 0:
+            bulletList();
+            break;
+        case 1:
+            orderedList();
+            break;
+        case 2:
+            blockQuote();
+            break;
+        case 3:
+            fencedCode();
+            break;
+        case 4:
+            admonition();
+            break;
+        case 5:
+            definitionList();
+            break;
+        default:
+            indentedCode();
+            break;
+        }
+        paragraph();
+    }
+
+    private void heading(int level) {
+        for (int i = 0; i < level; i++) {
+            builder.append('#');
+        }
+        builder.append(' ');
+        words(3);
+        builder.append("\n\n");
+    }
+
+    private void paragraph() {
+        inlines(3 + random.nextInt(4));
+        builder.append("\n\n");
+    }
+
+    private void bulletList() {
+        int items = 2 + random.nextInt(5);
+        for (int i = 0; i < items; i++) {
+            builder.append("- ");
+            inlines(1);
+            builder.append('\n');
+            if (random.nextInt(4) == 0) {
+                builder.append("  * ");
+                words(4);
+                builder.append('\n');
+            }
+        }
+        builder.append('\n');
+    }
+
+    private void orderedList() {
+        int items = 2 + random.nextInt(5);
+        for (int i = 1; i <= items; i++) {
+            builder.append(i).append(". ");
+            inlines(1);
+            builder.append('\n');
+        }
+        builder.append('\n');
+    }
+
+    private void blockQuote() {
+        int lines = 1 + random.nextInt(4);
+        for (int i = 0; i < lines; i++) {
+            builder.append("> ");
+            inlines(1);
+            builder.append('\n');
+        }
+        builder.append('\n');
+    }
+
+    private void fencedCode() {
+        builder.append("```java\n");
+        int lines = 2 + random.nextInt(8);
+        for (int i = 0; i < lines; i++) {
+            builder.append("    int value").append(i).append(" = ").append(random.nextInt(1000))
+                .append("; // ").append(word()).append(" < ").append(word()).append(" & \"quoted\"\n");
+        }
+        builder.append("```\n\n");
+    }
+
+    private void indentedCode() {
+        int lines = 1 + random.nextInt(5);
+        for (int i = 0; i < lines; i++) {
+            builder.append("    \t").append(word()).append("(").append(word()).append(");\n");
+        }
+        builder.append('\n');
+    }
+
+    private void admonition() {
+        builder.append("!!! ").append(ADMONITIONS[random.nextInt(ADMONITIONS.length)])
+            .append(" \"").append(word()).append("\"\n");
+        builder.append("    ");
+        inlines(2);
+        builder.append("\n\n");
+    }
+
+    private void definitionList() {
+        int terms = 1 + random.nextInt(3);
+        for (int i = 0; i < terms; i++) {
+            words(2);
+            builder.append("\n:   ");
+            inlines(1);
+            builder.append('\n');
+        }
+        builder.append('\n');
+    }
+
+    /**
+     * Appends sentences containing various kinds of inline elements.
+     *
+     * @param sentences the number of the sentences.
+     */
+    private void inlines(int sentences) {
+        for (int i = 0; i < sentences; i++) {
+            if (i > 0) {
+                builder.append(random.nextInt(8) == 0 ? "  \n" : "\n");
+            }
+            sentence();
+        }
+    }
+
+    private void sentence() {
+        int length = 6 + random.nextInt(10);
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                builder.append(' ');
+            }
+            inline();
+        }
+        builder.append('.');
+    }
+
+    private void inline() {
+        switch (random.nextInt(16)) {
+        case 0:
+            builder.append('*').append(word()).append('*');
+            break;
+        case 1:
+            builder.append("**").append(word()).append(' ').append(word()).append("**");
+            break;
+        case 2:
+            builder.append('_').append(word()).append('_');
+            break;
+        case 3:
+            builder.append('`').append(word()).append("()`");
+            break;
+        case 4:
+            builder.append('[').append(word()).append("](https://example.org/")
+                .append(word()).append(".html \"").append(word()).append("\")");
+            break;
+        case 5:
+            builder.append("![").append(word()).append("](images/").append(word()).append(".png)");
+            break;
+        case 6:
+            builder.append("<https://example.org/").append(word()).append('>');
+            break;
+        case 7:
+            builder.append("&amp; &copy; &#169;");
+            break;
+        case 8:
+            builder.append("<span class=\"").append(word()).append("\">").append(word()).append("</span>");
+            break;
+        case 9:
+            builder.append("\\*").append(word());
+            break;
+        default:
+            builder.append(word());
+            break;
+        }
+    }
+
+    private void words(int count) {
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                builder.append(' ');
+            }
+            builder.append(word());
+        }
+    }
+
+    private String word() {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+}
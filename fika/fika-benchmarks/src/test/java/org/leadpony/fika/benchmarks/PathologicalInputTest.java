@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.benchmarks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.time.Duration;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.leadpony.fika.core.core.Parser;
+import org.leadpony.fika.core.core.ParserFactory;
+import org.leadpony.fika.core.core.ParserService;
+
+/**
+ * Tests the parser against pathological inputs.
+ *
+ * <p>
+ * Each input is parsed at two sizes, the larger one being {@link #SCALE} times
+ * the smaller, and the time taken must grow no faster than {@link #MAX_RATIO}
+ * times. A linear algorithm grows by about {@link #SCALE} times,
+ * while a quadratic one grows by its square.
+ * The best of several runs is taken at each size to reduce the noise,
+ * and the time of the smaller size is floored so that a very fast parse
+ * does not make the ratio meaningless.
+ * </p>
+ *
+ * @author leadpony
+ */
+public class PathologicalInputTest {
+
+    private static final int SIZE = 5000;
+    private static final int SCALE = 4;
+    private static final double MAX_RATIO = 10.0;
+    private static final int RUNS = 3;
+    private static final long MIN_NANOS = Duration.ofMillis(5).toNanos();
+    // the backstop against the inputs which never complete.
+    private static final Duration TIME_LIMIT = Duration.ofSeconds(30);
+
+    private static final ParserFactory factory =
+            ParserService.get("text/markdown").createParserFactory();
+
+    @ParameterizedTest
+    @EnumSource(PathologicalInput.class)
+    public void parseShouldScaleLinearly(PathologicalInput input) {
+        final String small = input.generate(SIZE);
+        final String large = input.generate(SIZE * SCALE);
+        assertTimeoutPreemptively(TIME_LIMIT, () -> {
+            // warms up the parser.
+            parse(small);
+            long smallTime = Math.max(bestTimeOf(small), MIN_NANOS);
+            long largeTime = bestTimeOf(large);
+            assertThat((double) largeTime / smallTime)
+                .as("ratio of %d ns to %d ns", largeTime, smallTime)
+                .isLessThanOrEqualTo(MAX_RATIO);
+        });
+    }
+
+    private static long bestTimeOf(String source) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; ++i) {
+            long start = System.nanoTime();
+            parse(source);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static void parse(String source) {
+        try (Parser parser = factory.createParser(source)) {
+            parser.parse();
+        }
+    }
+}
@@ -18,10 +18,13 @@ package org.leadpony.fika.core;
 
 import static java.util.Objects.requireNonNull;
 
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.Writer;
 
+import org.leadpony.fika.core.model.Node;
 import org.leadpony.fika.core.spi.DocumentServiceProvider;
 
 /**
@@ -112,4 +115,44 @@ public interface DocumentService {
     default DocumentWriterBuilder createWriterBuilder(Writer writer) {
         throw new UnsupportedOperationException();
     }
+
+    /**
+     * Creates a builder of a document writer which will encode the document in
+     * UTF-8 and write the bytes to the specified output stream.
+     *
+     * <p>
+     * The output stream is closed when the document writer is closed.
+     * </p>
+     *
+     * @param out the output stream to which the document will be written.
+     * @return newly created instance of {@code DocumentWriterBuilder}.
+     * @throws NullPointerException          if the specified {@code out} is
+     *                                       {@code null}.
+     * @throws UnsupportedOperationException if this service does not support
+     *                                       writing operation.
+     */
+    default DocumentWriterBuilder createWriterBuilder(OutputStream out) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Writes the specified node as a document fragment into a byte array
+     * encoded in UTF-8.
+     *
+     * @param node the node to write.
+     * @return the bytes of the written fragment.
+     * @throws NullPointerException          if the specified {@code node} is
+     *                                       {@code null}.
+     * @throws UnsupportedOperationException if this service does not support
+     *                                       writing operation.
+     * @throws DocumentException             if an error occurs while writing.
+     */
+    default byte[] writeFragmentToBytes(Node node) {
+        requireNonNull(node, "node must not be null.");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DocumentWriter writer = createWriterBuilder(out).withFragmentOnly(true).build()) {
+            writer.write(node);
+        }
+        return out.toByteArray();
+    }
 }
@@ -31,6 +31,8 @@ public enum BasicFeature implements Feature {
     CODE_BLOCK,
     /** Code span. */
     CODE_SPAN,
+    /** Compact storage of the nodes in a document. */
+    COMPACT_NODES,
     /** Definition list. */
     DEFINITION_LIST,
     /** Emphasis. */
@@ -51,6 +53,8 @@ public enum BasicFeature implements Feature {
     LINK_DEFINITION,
     /** List. */
     LIST,
+    /** Parallel processing of inlines in independent blocks. */
+    PARALLEL_INLINES,
     /** Paragraph. */
     PARAGRAPH,
     /** Soft line break. */
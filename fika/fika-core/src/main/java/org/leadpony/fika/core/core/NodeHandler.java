@@ -0,0 +1,85 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.core.core;
+
+import java.util.Objects;
+
+import org.leadpony.fika.core.model.Node;
+
+/**
+ * A handler receiving the nodes reported by a streaming parser.
+ *
+ * <p>
+ * Each node is reported by a pair of events, {@link #enterNode(Node)} and
+ * {@link #leaveNode(Node)}, and the descendants of the node are reported
+ * between the pair, in the same order as the {@link org.leadpony.fika.core.model.Visitor}
+ * visits them.
+ * </p>
+ *
+ * @author leadpony
+ * @see Parser#parse(NodeHandler)
+ */
+public interface NodeHandler {
+
+    /**
+     * Receives the event that the node is entered.
+     *
+     * @param node the node entered, never be {@code null}.
+     */
+    default void enterNode(Node node) {
+    }
+
+    /**
+     * Receives the event that the node is left.
+     * The node and its descendants will not be used by the parser any longer
+     * after this event.
+     *
+     * @param node the node left, never be {@code null}.
+     */
+    default void leaveNode(Node node) {
+    }
+
+    /**
+     * Reports the specified node and all of its descendants to this handler.
+     *
+     * @param root the root of the subtree to report, cannot be {@code null}.
+     * @throws NullPointerException if the specified {@code root} is {@code null}.
+     */
+    default void handleTree(Node root) {
+        Objects.requireNonNull(root, "root must not be null.");
+        Node node = root;
+        for (;;) {
+            enterNode(node);
+            Node next = node.getFirstChild();
+            if (next != null) {
+                node = next;
+                continue;
+            }
+            for (;;) {
+                leaveNode(node);
+                if (node.equals(root)) {
+                    return;
+                }
+                next = node.getNextSibling();
+                if (next != null) {
+                    node = next;
+                    break;
+                }
+                node = node.getParentNode();
+            }
+        }
+    }
+}
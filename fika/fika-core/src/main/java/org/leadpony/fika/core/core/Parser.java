@@ -16,6 +16,7 @@
 package org.leadpony.fika.core.core;
 
 import java.io.Closeable;
+import java.util.Objects;
 
 import org.leadpony.fika.core.model.Document;
 
@@ -49,4 +50,31 @@ public interface Parser extends Closeable {
      *                               is already called.
      */
     Document parse();
+
+    /**
+     * Parses the input source and reports the parsed nodes to the specified handler.
+     *
+     * <p>
+     * The document node is entered first and left last, and all other nodes
+     * are reported between them in document order.
+     * Parsers may report each top-level block as soon as it is completed,
+     * without attaching it to the document, so that the memory required
+     * does not grow with the size of the input source.
+     * </p>
+     *
+     * <p>
+     * The default implementation parses the whole document with {@link #parse()}
+     * and then reports its nodes.
+     * </p>
+     *
+     * @param handler the handler receiving the nodes, cannot be {@code null}.
+     * @throws NullPointerException  if the specified {@code handler} is {@code null}.
+     * @throws ParsingException      if an error occurs while parsing.
+     * @throws IllegalStateException if {@link #parse()} or {@link #close()} method
+     *                               is already called.
+     */
+    default void parse(NodeHandler handler) {
+        Objects.requireNonNull(handler, "handler must not be null.");
+        handler.handleTree(parse());
+    }
 }
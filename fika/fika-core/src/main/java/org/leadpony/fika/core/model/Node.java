@@ -15,6 +15,7 @@
  */
 package org.leadpony.fika.core.model;
 
+import java.io.IOException;
 import java.util.Collection;
 
 /**
@@ -31,6 +32,18 @@ public interface Node {
      */
     String textContent();
 
+    /**
+     * Writes the text content of this node and its descendants to the
+     * specified output, without building an intermediate string.
+     *
+     * @param out the output to which the text content will be written, cannot
+     *            be {@code null}.
+     * @throws IOException if an I/O error occurred while writing.
+     */
+    default void writeTextContent(Appendable out) throws IOException {
+        out.append(textContent());
+    }
+
     /**
      * Returns the instance of the factory which created this node.
      *
@@ -200,6 +200,28 @@ public interface NodeFactory {
      */
     Text createText(String content);
 
+    /**
+     * Creates a new node of {@link Text} type whose content is a span of the
+     * specified character sequence.
+     *
+     * <p>
+     * Implementations may keep a reference to the source instead of copying the
+     * characters. The source must not be modified after this call.
+     * </p>
+     *
+     * @param source     the character sequence containing the text content,
+     *                   cannot be {@code null}.
+     * @param beginIndex the beginning index of the content, inclusive.
+     * @param endIndex   the ending index of the content, exclusive.
+     * @return newly created node.
+     * @throws NullPointerException      if the specified {@code source} is
+     *                                   {@code null}.
+     * @throws IndexOutOfBoundsException if the indices are out of range.
+     */
+    default Text createText(CharSequence source, int beginIndex, int endIndex) {
+        return createText(source.subSequence(beginIndex, endIndex).toString());
+    }
+
     /**
      * Creates a new node of {@link ThematicBreak} type.
      *
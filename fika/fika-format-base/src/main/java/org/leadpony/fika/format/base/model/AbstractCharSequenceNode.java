@@ -15,16 +15,27 @@
  */
 package org.leadpony.fika.format.base.model;
 
+import java.io.IOException;
+
 import org.leadpony.fika.core.model.NodeFactory;
 
 /**
  * Skeletal implementation of a node holding character data.
  *
+ * <p>
+ * The character data may be either an owned string or a span of a source
+ * character sequence. In the latter case the string is materialized lazily
+ * when it is requested for the first time.
+ * </p>
+ *
  * @author leadpony
  */
 abstract class AbstractCharSequenceNode extends AbstractNode implements CharSequence {
 
-    private final String content;
+    private final CharSequence source;
+    private final int offset;
+    private final int length;
+    private String content;
 
     /**
      * Constructs this node.
@@ -33,8 +44,25 @@ abstract class AbstractCharSequenceNode extends AbstractNode implements CharSequ
      * @param content the text content of this node.
      */
     protected AbstractCharSequenceNode(NodeFactory factory, String content) {
+        this(factory, content, 0, content.length());
+    }
+
+    /**
+     * Constructs this node with a span of the source.
+     *
+     * @param factory    the factory which created this node.
+     * @param source     the source containing the text content of this node.
+     * @param beginIndex the beginning index in the source, inclusive.
+     * @param endIndex   the ending index in the source, exclusive.
+     */
+    protected AbstractCharSequenceNode(NodeFactory factory, CharSequence source, int beginIndex, int endIndex) {
         super(factory);
-        this.content = content;
+        this.source = source;
+        this.offset = beginIndex;
+        this.length = endIndex - beginIndex;
+        if (source instanceof String && beginIndex == 0 && endIndex == source.length()) {
+            this.content = (String) source;
+        }
     }
 
     /**
@@ -42,7 +70,7 @@ abstract class AbstractCharSequenceNode extends AbstractNode implements CharSequ
      */
     @Override
     public int length() {
-        return content.length();
+        return length;
     }
 
     /**
@@ -50,7 +78,10 @@ abstract class AbstractCharSequenceNode extends AbstractNode implements CharSequ
      */
     @Override
     public char charAt(int index) {
-        return content.charAt(index);
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return source.charAt(offset + index);
     }
 
     /**
@@ -58,7 +89,10 @@ abstract class AbstractCharSequenceNode extends AbstractNode implements CharSequ
      */
     @Override
     public CharSequence subSequence(int start, int end) {
-        return content.subSequence(start, end);
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException();
+        }
+        return source.subSequence(offset + start, offset + end);
     }
 
     /**
@@ -68,7 +102,7 @@ abstract class AbstractCharSequenceNode extends AbstractNode implements CharSequ
      */
     @Override
     public String toString() {
-        return content;
+        return textContent();
     }
 
     /**
@@ -76,6 +110,11 @@ abstract class AbstractCharSequenceNode extends AbstractNode implements CharSequ
      */
     @Override
     public String textContent() {
+        String content = this.content;
+        if (content == null) {
+            content = source.subSequence(offset, offset + length).toString();
+            this.content = content;
+        }
         return content;
     }
 
@@ -83,7 +122,11 @@ abstract class AbstractCharSequenceNode extends AbstractNode implements CharSequ
      * {@inheritDoc}
      */
     @Override
-    protected void buildTextContent(StringBuilder builder) {
-        builder.append(content);
+    protected void appendTextContent(Appendable out) throws IOException {
+        if (content != null) {
+            out.append(content);
+        } else {
+            out.append(source, offset, offset + length);
+        }
     }
 }
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.format.base.model;
+
+/**
+ * Skeletal implementation of the flyweight node holding character data.
+ *
+ * <p>
+ * The character data is a span of the source shared by the nodes in the arena.
+ * </p>
+ *
+ * @author leadpony
+ */
+abstract class AbstractCompactCharSequenceNode extends AbstractCompactNode implements CharSequence {
+
+    protected AbstractCompactCharSequenceNode(CompactNodeFactory factory, int id) {
+        super(factory, id);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int length() {
+        return arena().extra(id) - arena().value(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return source().charAt(arena().value(id) + index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length() || start > end) {
+            throw new IndexOutOfBoundsException();
+        }
+        int offset = arena().value(id);
+        return source().subSequence(offset + start, offset + end);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String textContent() {
+        NodeArena arena = arena();
+        return source().subSequence(arena.value(id), arena.extra(id)).toString();
+    }
+
+    /**
+     * Returns the text content of this node.
+     *
+     * @return the text content of this node.
+     */
+    @Override
+    public String toString() {
+        return textContent();
+    }
+
+    private CharSequence source() {
+        return (CharSequence) arena().object(id, 0);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.format.base.model;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Collection;
+
+import org.leadpony.fika.core.model.Node;
+
+/**
+ * Skeletal implementation of the flyweight node containing child nodes.
+ *
+ * @author leadpony
+ */
+abstract class AbstractCompactContainerNode extends AbstractCompactNode {
+
+    protected AbstractCompactContainerNode(CompactNodeFactory factory, int id) {
+        super(factory, id);
+    }
+
+    @Override
+    public Node appendChild(Node child) {
+        arena().appendChild(id, validateNode(child, "child"));
+        return child;
+    }
+
+    @Override
+    public void appendChildren(Collection<Node> children) {
+        requireNonNull(children, "children");
+        for (Node child : children) {
+            appendChild(child);
+        }
+    }
+
+    @Override
+    public Node removeChild(Node child) {
+        int childId = validateChild(child, "child");
+        arena().unlink(childId);
+        return child;
+    }
+
+    @Override
+    public Node replaceChild(Node newChild, Node oldChild) {
+        int newId = validateNode(newChild, "newChild");
+        int oldId = validateChild(oldChild, "oldChild");
+        arena().replaceChild(id, newId, oldId);
+        return oldChild;
+    }
+
+    @Override
+    public Node insertChildBefore(Node newChild, Node nextChild) {
+        int newId = validateNode(newChild, "newChild");
+        int nextId = validateChild(nextChild, "nextChild");
+        arena().insertChildBefore(id, newId, nextId);
+        return newChild;
+    }
+
+    @Override
+    public Node insertChildAfter(Node newChild, Node previousChild) {
+        int newId = validateNode(newChild, "newChild");
+        int previousId = validateChild(previousChild, "previousChild");
+        arena().insertChildAfter(id, newId, previousId);
+        return newChild;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder b = new StringBuilder();
+        for (Node child: getChildNodes()) {
+            b.append(child.toString());
+        }
+        return b.toString();
+    }
+
+    private int validateChild(Node child, String name) {
+        int childId = validateNode(child, name);
+        if (arena().parent(childId) != id) {
+            throw new IllegalArgumentException();
+        }
+        return childId;
+    }
+}
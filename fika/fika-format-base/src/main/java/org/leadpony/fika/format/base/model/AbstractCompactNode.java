@@ -0,0 +1,211 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.format.base.model;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.leadpony.fika.core.model.Node;
+import org.leadpony.fika.core.model.NodeFactory;
+
+/**
+ * Skeletal implementation of the flyweight node stored in {@link NodeArena}.
+ *
+ * <p>
+ * Flyweights are created on demand and carry only the identifier of the node,
+ * therefore two flyweights of the same node are equal but not identical.
+ * </p>
+ *
+ * @author leadpony
+ */
+abstract class AbstractCompactNode implements Node {
+
+    /**
+     * The factory which created this node.
+     */
+    protected final CompactNodeFactory factory;
+    /**
+     * The identifier of this node in the arena.
+     */
+    protected final int id;
+
+    /**
+     * Constructs this node.
+     *
+     * @param factory the factory which created this node.
+     * @param id      the identifier of this node in the arena.
+     */
+    protected AbstractCompactNode(CompactNodeFactory factory, int id) {
+        this.factory = factory;
+        this.id = id;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String textContent() {
+        StringBuilder builder = new StringBuilder();
+        try {
+            arena().appendTextContent(id, builder);
+        } catch (IOException e) {
+            // StringBuilder never throws.
+            throw new UncheckedIOException(e);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeTextContent(Appendable out) throws IOException {
+        requireNonNull(out, "out must not be null.");
+        arena().appendTextContent(id, out);
+    }
+
+    @Override
+    public NodeFactory factory() {
+        return factory;
+    }
+
+    @Override
+    public boolean hasChildNodes() {
+        return arena().firstChild(id) != NodeArena.NONE;
+    }
+
+    @Override
+    public Iterable<Node> getChildNodes() {
+        if (!hasChildNodes()) {
+            return Collections.emptyList();
+        }
+        return ()->new ChildNodeIterator(arena().firstChild(id));
+    }
+
+    @Override
+    public Node getParentNode() {
+        return factory.node(arena().parent(id));
+    }
+
+    @Override
+    public Node getFirstChild() {
+        return factory.node(arena().firstChild(id));
+    }
+
+    @Override
+    public Node getLastChild() {
+        return factory.node(arena().lastChild(id));
+    }
+
+    @Override
+    public Node getPreviousSibling() {
+        return factory.node(arena().previousSibling(id));
+    }
+
+    @Override
+    public Node getNextSibling() {
+        return factory.node(arena().nextSibling(id));
+    }
+
+    @Override
+    public void unlink() {
+        arena().unlink(id);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        } else if (!(obj instanceof AbstractCompactNode)) {
+            return false;
+        }
+        AbstractCompactNode other = (AbstractCompactNode) obj;
+        return factory == other.factory && id == other.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return "";
+    }
+
+    /**
+     * Returns the arena storing this node.
+     *
+     * @return the arena storing this node.
+     */
+    protected NodeArena arena() {
+        return factory.arena();
+    }
+
+    /**
+     * Validates the specified node.
+     *
+     * @param node the node to validate, cannot be {@code null}.
+     * @param name the name of the node, cannot be {@code null}.
+     * @return the identifier of the validated node.
+     * @throws NullPointerException     if the specified {@code node} is
+     *                                  {@code null}.
+     * @throws IllegalArgumentException if the specified {@code node} is not
+     *                                  instantiated by the factory of this node.
+     */
+    protected int validateNode(Node node, String name) {
+        if (node == null) {
+            throw new NullPointerException(name + " must not be null.");
+        } else if (node.factory() != factory()) {
+            throw new IllegalArgumentException(name + " was instantiated by other factory.");
+        }
+        return ((AbstractCompactNode) node).id;
+    }
+
+    /**
+     * Iterator over the child nodes.
+     *
+     * @author leadpony
+     */
+    private class ChildNodeIterator implements Iterator<Node> {
+
+        int current;
+
+        ChildNodeIterator(int firstChild) {
+            this.current = firstChild;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return current != NodeArena.NONE;
+        }
+
+        @Override
+        public Node next() {
+            if (current == NodeArena.NONE) {
+                throw new NoSuchElementException();
+            }
+            Node next = factory.node(current);
+            this.current = arena().nextSibling(current);
+            return next;
+        }
+    }
+}
@@ -17,6 +17,7 @@ package org.leadpony.fika.format.base.model;
 
 import static java.util.Objects.requireNonNull;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
@@ -33,9 +34,15 @@ abstract class AbstractContainerNode extends AbstractNode {
 
     private AbstractNode firstChildNode;
     private AbstractNode lastChildNode;
+    // true if the text content is memoized.
+    private final boolean memoizing;
+    // the text content memoized, or null if not computed yet.
+    private String textContent;
 
     protected AbstractContainerNode(NodeFactory factory) {
         super(factory);
+        this.memoizing = (factory instanceof DefaultNodeFactory)
+                && ((DefaultNodeFactory) factory).isMemoizingTextContent();
     }
 
     @Override
@@ -104,13 +111,45 @@ abstract class AbstractContainerNode extends AbstractNode {
         return b.toString();
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * If the factory of this node enables it, the text content is memoized
+     * until any of the descendants is modified.
+     * </p>
+     */
     @Override
-    protected void buildTextContent(StringBuilder builder) {
-        for (Node child: getChildNodes()) {
-            ((AbstractNode)child).buildTextContent(builder);
+    public String textContent() {
+        if (!memoizing) {
+            return super.textContent();
+        }
+        String textContent = this.textContent;
+        if (textContent == null) {
+            textContent = super.textContent();
+            this.textContent = textContent;
+        }
+        return textContent;
+    }
+
+    @Override
+    protected void appendTextContent(Appendable out) throws IOException {
+        String textContent = this.textContent;
+        if (textContent != null) {
+            out.append(textContent);
+            return;
+        }
+        for (AbstractNode child = firstChildNode; child != null; child = child.nextSibling) {
+            child.appendTextContent(out);
         }
     }
 
+    @Override
+    protected void invalidateTextContent() {
+        this.textContent = null;
+        super.invalidateTextContent();
+    }
+
     private AbstractNode appendChild(AbstractNode child) {
         child.unlink();
         final AbstractNode lastChild = lastChildNode;
@@ -124,6 +163,7 @@ abstract class AbstractContainerNode extends AbstractNode {
         if (firstChildNode == null) {
             firstChildNode = child;
         }
+        childrenChanged();
         return child;
     }
 
@@ -145,6 +185,7 @@ abstract class AbstractContainerNode extends AbstractNode {
         if (next != null) {
             next.previousSibling = previous;
         }
+        childrenChanged();
         return resetNode(child);
     }
 
@@ -170,6 +211,7 @@ abstract class AbstractContainerNode extends AbstractNode {
         if (lastChildNode == oldChild) {
             lastChildNode = newChild;
         }
+        childrenChanged();
         return resetNode(oldChild);
     }
 
@@ -180,7 +222,7 @@ abstract class AbstractContainerNode extends AbstractNode {
         newChild.unlink();
         final AbstractNode previousChild = nextChild.previousSibling;
         if (previousChild != null) {
-            previousSibling.nextSibling = newChild;
+            previousChild.nextSibling = newChild;
         } else {
             firstChildNode = newChild;
         }
@@ -188,6 +230,7 @@ abstract class AbstractContainerNode extends AbstractNode {
         newChild.parent = this;
         newChild.previousSibling = previousChild;
         newChild.nextSibling = nextChild;
+        childrenChanged();
         return newChild;
     }
 
@@ -206,9 +249,17 @@ abstract class AbstractContainerNode extends AbstractNode {
         newChild.parent = this;
         newChild.previousSibling = previousChild;
         newChild.nextSibling = nextChild;
+        childrenChanged();
         return newChild;
     }
 
+    private void childrenChanged() {
+        // the ancestors share the factory, so none of them memoizes if this node does not.
+        if (memoizing) {
+            invalidateTextContent();
+        }
+    }
+
     private boolean hasChild(AbstractNode child) {
         return child.getParentNode() == this;
     }
@@ -15,6 +15,10 @@
  */
 package org.leadpony.fika.format.base.model;
 
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collections;
 
 import org.leadpony.fika.core.model.Node;
@@ -56,10 +60,21 @@ abstract class AbstractNode implements Node {
     @Override
     public String textContent() {
         StringBuilder builder = new StringBuilder();
-        buildTextContent(builder);
+        try {
+            appendTextContent(builder);
+        } catch (IOException e) {
+            // StringBuilder never throws.
+            throw new UncheckedIOException(e);
+        }
         return builder.toString();
     }
 
+    @Override
+    public void writeTextContent(Appendable out) throws IOException {
+        requireNonNull(out, "out must not be null.");
+        appendTextContent(out);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -161,10 +176,22 @@ abstract class AbstractNode implements Node {
     }
 
     /**
-     * Builds text content of this node.
+     * Appends the text content of this node to the specified output.
      *
-     * @param builder the string builder.
+     * @param out the output to which the text content will be appended.
+     * @throws IOException if an I/O error occurred while appending.
      */
-    protected void buildTextContent(StringBuilder builder) {
+    protected void appendTextContent(Appendable out) throws IOException {
+    }
+
+    /**
+     * Discards the text content memoized by this node and its ancestors.
+     * This method must be called whenever the text content of this node
+     * may have been changed.
+     */
+    protected void invalidateTextContent() {
+        if (parent != null) {
+            parent.invalidateTextContent();
+        }
     }
 }
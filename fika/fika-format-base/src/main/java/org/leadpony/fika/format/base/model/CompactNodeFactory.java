@@ -0,0 +1,659 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.format.base.model;
+
+import static java.util.Objects.requireNonNull;
+
+import org.leadpony.fika.core.model.Admonition;
+import org.leadpony.fika.core.model.BlockQuote;
+import org.leadpony.fika.core.model.CodeBlock;
+import org.leadpony.fika.core.model.CodeSpan;
+import org.leadpony.fika.core.model.Definition;
+import org.leadpony.fika.core.model.DefinitionList;
+import org.leadpony.fika.core.model.Document;
+import org.leadpony.fika.core.model.Emphasis;
+import org.leadpony.fika.core.model.HardLineBreak;
+import org.leadpony.fika.core.model.Heading;
+import org.leadpony.fika.core.model.HtmlBlock;
+import org.leadpony.fika.core.model.HtmlInline;
+import org.leadpony.fika.core.model.Image;
+import org.leadpony.fika.core.model.Link;
+import org.leadpony.fika.core.model.ListItem;
+import org.leadpony.fika.core.model.Node;
+import org.leadpony.fika.core.model.NodeFactory;
+import org.leadpony.fika.core.model.OrderedList;
+import org.leadpony.fika.core.model.Paragraph;
+import org.leadpony.fika.core.model.Term;
+import org.leadpony.fika.core.model.Text;
+import org.leadpony.fika.core.model.ThematicBreak;
+import org.leadpony.fika.core.model.UnorderedList;
+
+/**
+ * Implementation of {@link NodeFactory} which stores the nodes compactly.
+ *
+ * <p>
+ * All nodes created by an instance of this factory are stored in parallel
+ * primitive arrays owned by the instance, and are exposed as lightweight
+ * flyweights created on demand. The nodes must be compared with
+ * {@link Object#equals(Object)} rather than the identity.
+ * The nodes removed from the tree are not reclaimed as long as the factory is
+ * reachable, therefore an instance should be used for a single document.
+ * </p>
+ *
+ * <p>
+ * Note that this class is not thread-safe.
+ * </p>
+ *
+ * @author leadpony
+ */
+public class CompactNodeFactory implements NodeFactory {
+
+    private final NodeArena arena = new NodeArena();
+
+    /**
+     * Constructs this node factory.
+     */
+    public CompactNodeFactory() {
+    }
+
+    /**
+     * Returns the number of the nodes ever created by this factory.
+     *
+     * @return the number of the nodes created.
+     */
+    public int nodeCount() {
+        return arena.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Admonition createAdmonition(String type, String title) {
+        requireNonNull(type, "type must not be null");
+        return new AdmonitionImpl(this, arena.add(NodeArena.ADMONITION, 0, 0, arena.addObjects(type, title)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BlockQuote createBlockQuote() {
+        return new BlockQuoteImpl(this, arena.add(NodeArena.BLOCK_QUOTE, 0, 0, 0));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CodeBlock createCodeBlock(String content, String language) {
+        requireNonNull(content, "content must not be null");
+        return new CodeBlockImpl(this, arena.add(NodeArena.CODE_BLOCK, 0, content.length(), arena.addObjects(content, language)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CodeSpan createCodeSpan(String content) {
+        requireNonNull(content, "content must not be null");
+        return new CodeSpanImpl(this, arena.add(NodeArena.CODE_SPAN, 0, content.length(), arena.addSource(content)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Definition createDefinition() {
+        return new DefinitionImpl(this, arena.add(NodeArena.DEFINITION, 0, 0, 0));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Document createDocument() {
+        return new DocumentImpl(this, arena.add(NodeArena.DOCUMENT, 0, 0, 0));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Emphasis createEmphasis(int strength) {
+        if (strength < Emphasis.MIN_STRENGTH || strength > Emphasis.MAX_STRENGTH) {
+            throw new IllegalArgumentException("strength is out of range");
+        }
+        return new EmphasisImpl(this, arena.add(NodeArena.EMPHASIS, strength, 0, 0));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public HardLineBreak createHardLineBreak() {
+        return new HardLineBreakImpl(this, arena.add(NodeArena.HARD_LINE_BREAK, 0, 0, 0));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Heading createHeading(int level) {
+        if (level < Heading.MIN_LEVEL || level > Heading.MAX_LEVEL) {
+            throw new IllegalArgumentException("level is out of range");
+        }
+        return new HeadingImpl(this, arena.add(NodeArena.HEADING, level, 0, 0));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public HtmlBlock createHtmlBlock(String content) {
+        requireNonNull(content, "content must not be null");
+        return new HtmlBlockImpl(this, arena.add(NodeArena.HTML_BLOCK, 0, content.length(), arena.addSource(content)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public HtmlInline createHtmlInline(String content) {
+        requireNonNull(content, "content must not be null");
+        return new HtmlInlineImpl(this, arena.add(NodeArena.HTML_INLINE, 0, content.length(), arena.addSource(content)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Image createImage(String location, String title) {
+        requireNonNull(location, "location must not be null");
+        return new ImageImpl(this, arena.add(NodeArena.IMAGE, 0, 0, arena.addObjects(location, title)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Link createLink(String destination, String title) {
+        requireNonNull(destination, "destination must not be null");
+        return new LinkImpl(this, arena.add(NodeArena.LINK, 0, 0, arena.addObjects(destination, title)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OrderedList createOrderedList(boolean tight, int startNumber) {
+        return new OrderedListImpl(this, arena.add(NodeArena.ORDERED_LIST, startNumber, tight ? 1 : 0, 0));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public UnorderedList createUnorderedList(boolean tight) {
+        return new UnorderedListImpl(this, arena.add(NodeArena.UNORDERED_LIST, 0, tight ? 1 : 0, 0));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public DefinitionList createDefinitionList(boolean tight) {
+        return new DefinitionListImpl(this, arena.add(NodeArena.DEFINITION_LIST, 0, tight ? 1 : 0, 0));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ListItem createListItem() {
+        return new ListItemImpl(this, arena.add(NodeArena.LIST_ITEM, 0, 0, 0));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Paragraph createParagraph() {
+        return new ParagraphImpl(this, arena.add(NodeArena.PARAGRAPH, 0, 0, 0));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Term createTerm() {
+        return new TermImpl(this, arena.add(NodeArena.TERM, 0, 0, 0));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Text createText(String content) {
+        requireNonNull(content, "content must not be null");
+        return new TextImpl(this, arena.add(NodeArena.TEXT, 0, content.length(), arena.addSource(content)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Text createText(CharSequence source, int beginIndex, int endIndex) {
+        requireNonNull(source, "source must not be null");
+        if (beginIndex < 0 || endIndex > source.length() || beginIndex > endIndex) {
+            throw new IndexOutOfBoundsException();
+        }
+        return new TextImpl(this, arena.add(NodeArena.TEXT, beginIndex, endIndex, arena.addSource(source)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ThematicBreak createThematicBreak() {
+        return new ThematicBreakImpl(this, arena.add(NodeArena.THEMATIC_BREAK, 0, 0, 0));
+    }
+
+    NodeArena arena() {
+        return arena;
+    }
+
+    /**
+     * Returns the flyweight of the specified node.
+     *
+     * @param id the identifier of the node.
+     * @return the flyweight of the node, or {@code null} if the identifier is
+     *         {@link NodeArena#NONE}.
+     */
+    Node node(int id) {
+        if (id == NodeArena.NONE) {
+            return null;
+        }
+        switch (arena.kind(id)) {
+        case NodeArena.ADMONITION:
+            return new AdmonitionImpl(this, id);
+        case NodeArena.BLOCK_QUOTE:
+            return new BlockQuoteImpl(this, id);
+        case NodeArena.CODE_BLOCK:
+            return new CodeBlockImpl(this, id);
+        case NodeArena.CODE_SPAN:
+            return new CodeSpanImpl(this, id);
+        case NodeArena.DEFINITION:
+            return new DefinitionImpl(this, id);
+        case NodeArena.DEFINITION_LIST:
+            return new DefinitionListImpl(this, id);
+        case NodeArena.DOCUMENT:
+            return new DocumentImpl(this, id);
+        case NodeArena.EMPHASIS:
+            return new EmphasisImpl(this, id);
+        case NodeArena.HARD_LINE_BREAK:
+            return new HardLineBreakImpl(this, id);
+        case NodeArena.HEADING:
+            return new HeadingImpl(this, id);
+        case NodeArena.HTML_BLOCK:
+            return new HtmlBlockImpl(this, id);
+        case NodeArena.HTML_INLINE:
+            return new HtmlInlineImpl(this, id);
+        case NodeArena.IMAGE:
+            return new ImageImpl(this, id);
+        case NodeArena.LINK:
+            return new LinkImpl(this, id);
+        case NodeArena.LIST_ITEM:
+            return new ListItemImpl(this, id);
+        case NodeArena.ORDERED_LIST:
+            return new OrderedListImpl(this, id);
+        case NodeArena.PARAGRAPH:
+            return new ParagraphImpl(this, id);
+        case NodeArena.TERM:
+            return new TermImpl(this, id);
+        case NodeArena.TEXT:
+            return new TextImpl(this, id);
+        case NodeArena.THEMATIC_BREAK:
+            return new ThematicBreakImpl(this, id);
+        case NodeArena.UNORDERED_LIST:
+            return new UnorderedListImpl(this, id);
+        default:
+            throw new IllegalStateException();
+        }
+    }
+
+    /**
+     * Implementation of {@link Admonition}.
+     *
+     * @author leadpony
+     */
+    private static class AdmonitionImpl extends AbstractCompactContainerNode implements Admonition {
+
+        AdmonitionImpl(CompactNodeFactory factory, int id) {
+            super(factory, id);
+        }
+
+        @Override
+        public String type() {
+            return (String) arena().object(id, 0);
+        }
+
+        @Override
+        public String title() {
+            return (String) arena().object(id, 1);
+        }
+    }
+
+    /**
+     * Implementation of {@link BlockQuote}.
+     *
+     * @author leadpony
+     */
+    private static class BlockQuoteImpl extends AbstractCompactContainerNode implements BlockQuote {
+
+        BlockQuoteImpl(CompactNodeFactory factory, int id) {
+            super(factory, id);
+        }
+    }
+
+    /**
+     * Implementation of {@link CodeBlock}.
+     *
+     * @author leadpony
+     */
+    private static class CodeBlockImpl extends AbstractCompactCharSequenceNode implements CodeBlock {
+
+        CodeBlockImpl(CompactNodeFactory factory, int id) {
+            super(factory, id);
+        }
+
+        @Override
+        public String language() {
+            return (String) arena().object(id, 1);
+        }
+    }
+
+    /**
+     * Implementation of {@link CodeSpan}.
+     *
+     * @author leadpony
+     */
+    private static class CodeSpanImpl extends AbstractCompactCharSequenceNode implements CodeSpan {
+
+        CodeSpanImpl(CompactNodeFactory factory, int id) {
+            super(factory, id);
+        }
+
+        @Override
+        public String language() {
+            return null;
+        }
+    }
+
+    /**
+     * Implementation of {@link Definition}.
+     *
+     * @author leadpony
+     */
+    private static class DefinitionImpl extends AbstractCompactContainerNode implements Definition {
+
+        DefinitionImpl(CompactNodeFactory factory, int id) {
+            super(factory, id);
+        }
+    }
+
+    /**
+     * Implementation of {@link DefinitionList}.
+     *
+     * @author leadpony
+     */
+    private static class DefinitionListImpl extends AbstractCompactContainerNode implements DefinitionList {
+
+        DefinitionListImpl(CompactNodeFactory factory, int id) {
+            super(factory, id);
+        }
+
+        @Override
+        public boolean isTight() {
+            return arena().extra(id) != 0;
+        }
+    }
+
+    /**
+     * Implementation of {@link Document}.
+     *
+     * @author leadpony
+     */
+    private static class DocumentImpl extends AbstractCompactContainerNode implements Document {
+
+        DocumentImpl(CompactNodeFactory factory, int id) {
+            super(factory, id);
+        }
+    }
+
+    /**
+     * Implementation of {@link Emphasis}.
+     *
+     * @author leadpony
+     */
+    private static class EmphasisImpl extends AbstractCompactContainerNode implements Emphasis {
+
+        EmphasisImpl(CompactNodeFactory factory, int id) {
+            super(factory, id);
+        }
+
+        @Override
+        public int strength() {
+            return arena().value(id);
+        }
+    }
+
+    /**
+     * Implementation of {@link HardLineBreak}.
+     *
+     * @author leadpony
+     */
+    private static class HardLineBreakImpl extends AbstractCompactNode implements HardLineBreak {
+
+        HardLineBreakImpl(CompactNodeFactory factory, int id) {
+            super(factory, id);
+        }
+    }
+
+    /**
+     * Implementation of {@link Heading}.
+     *
+     * @author leadpony
+     */
+    private static class HeadingImpl extends AbstractCompactContainerNode implements Heading {
+
+        HeadingImpl(CompactNodeFactory factory, int id) {
+            super(factory, id);
+        }
+
+        @Override
+        public int level() {
+            return arena().value(id);
+        }
+    }
+
+    /**
+     * Implementation of {@link HtmlBlock}.
+     *
+     * @author leadpony
+     */
+    private static class HtmlBlockImpl extends AbstractCompactCharSequenceNode implements HtmlBlock {
+
+        HtmlBlockImpl(CompactNodeFactory factory, int id) {
+            super(factory, id);
+        }
+    }
+
+    /**
+     * Implementation of {@link HtmlInline}.
+     *
+     * @author leadpony
+     */
+    private static class HtmlInlineImpl extends AbstractCompactCharSequenceNode implements HtmlInline {
+
+        HtmlInlineImpl(CompactNodeFactory factory, int id) {
+            super(factory, id);
+        }
+    }
+
+    /**
+     * Implementation of {@link Image}.
+     *
+     * @author leadpony
+     */
+    private static class ImageImpl extends AbstractCompactContainerNode implements Image {
+
+        ImageImpl(CompactNodeFactory factory, int id) {
+            super(factory, id);
+        }
+
+        @Override
+        public String location() {
+            return (String) arena().object(id, 0);
+        }
+
+        @Override
+        public String title() {
+            return (String) arena().object(id, 1);
+        }
+    }
+
+    /**
+     * Implementation of {@link Link}.
+     *
+     * @author leadpony
+     */
+    private static class LinkImpl extends AbstractCompactContainerNode implements Link {
+
+        LinkImpl(CompactNodeFactory factory, int id) {
+            super(factory, id);
+        }
+
+        @Override
+        public String destination() {
+            return (String) arena().object(id, 0);
+        }
+
+        @Override
+        public String title() {
+            return (String) arena().object(id, 1);
+        }
+    }
+
+    /**
+     * Implementation of {@link ListItem}.
+     *
+     * @author leadpony
+     */
+    private static class ListItemImpl extends AbstractCompactContainerNode implements ListItem {
+
+        ListItemImpl(CompactNodeFactory factory, int id) {
+            super(factory, id);
+        }
+    }
+
+    /**
+     * Implementation of {@link OrderedList}.
+     *
+     * @author leadpony
+     */
+    private static class OrderedListImpl extends AbstractCompactContainerNode implements OrderedList {
+
+        OrderedListImpl(CompactNodeFactory factory, int id) {
+            super(factory, id);
+        }
+
+        @Override
+        public boolean isTight() {
+            return arena().extra(id) != 0;
+        }
+
+        @Override
+        public int startNumber() {
+            return arena().value(id);
+        }
+    }
+
+    /**
+     * Implementation of {@link Paragraph}.
+     *
+     * @author leadpony
+     */
+    private static class ParagraphImpl extends AbstractCompactContainerNode implements Paragraph {
+
+        ParagraphImpl(CompactNodeFactory factory, int id) {
+            super(factory, id);
+        }
+    }
+
+    /**
+     * Implementation of {@link Term}.
+     *
+     * @author leadpony
+     */
+    private static class TermImpl extends AbstractCompactContainerNode implements Term {
+
+        TermImpl(CompactNodeFactory factory, int id) {
+            super(factory, id);
+        }
+    }
+
+    /**
+     * Implementation of {@link Text}.
+     *
+     * @author leadpony
+     */
+    private static class TextImpl extends AbstractCompactCharSequenceNode implements Text {
+
+        TextImpl(CompactNodeFactory factory, int id) {
+            super(factory, id);
+        }
+    }
+
+    /**
+     * Implementation of {@link ThematicBreak}.
+     *
+     * @author leadpony
+     */
+    private static class ThematicBreakImpl extends AbstractCompactNode implements ThematicBreak {
+
+        ThematicBreakImpl(CompactNodeFactory factory, int id) {
+            super(factory, id);
+        }
+    }
+
+    /**
+     * Implementation of {@link UnorderedList}.
+     *
+     * @author leadpony
+     */
+    private static class UnorderedListImpl extends AbstractCompactContainerNode implements UnorderedList {
+
+        UnorderedListImpl(CompactNodeFactory factory, int id) {
+            super(factory, id);
+        }
+
+        @Override
+        public boolean isTight() {
+            return arena().extra(id) != 0;
+        }
+    }
+}
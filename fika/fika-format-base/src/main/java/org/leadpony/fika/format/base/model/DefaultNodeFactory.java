@@ -47,10 +47,39 @@ import org.leadpony.fika.core.model.UnorderedList;
  */
 public class DefaultNodeFactory implements NodeFactory {
 
+    private final boolean memoizingTextContent;
+
     /**
      * Constructs this node factory.
+     * The nodes created by this factory will not memoize their text content.
      */
     public DefaultNodeFactory() {
+        this(false);
+    }
+
+    /**
+     * Constructs this node factory.
+     *
+     * <p>
+     * If the memoization is enabled, the container nodes created by this factory
+     * will memoize their text content until any of their descendants is modified,
+     * at the cost of discarding the memoized text of all the ancestors
+     * on every modification.
+     * </p>
+     *
+     * @param memoizingTextContent {@code true} if the text content is memoized.
+     */
+    public DefaultNodeFactory(boolean memoizingTextContent) {
+        this.memoizingTextContent = memoizingTextContent;
+    }
+
+    /**
+     * Checks if the nodes created by this factory memoize their text content.
+     *
+     * @return {@code true} if the text content is memoized.
+     */
+    public boolean isMemoizingTextContent() {
+        return memoizingTextContent;
     }
 
     /**
@@ -227,6 +256,18 @@ public class DefaultNodeFactory implements NodeFactory {
         return new TextImpl(this, content);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Text createText(CharSequence source, int beginIndex, int endIndex) {
+        requireNonNull(source, "source must not be null");
+        if (beginIndex < 0 || endIndex > source.length() || beginIndex > endIndex) {
+            throw new IndexOutOfBoundsException();
+        }
+        return new TextImpl(this, source, beginIndex, endIndex);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -537,6 +578,10 @@ public class DefaultNodeFactory implements NodeFactory {
         TextImpl(NodeFactory factory, String content) {
             super(factory, content);
         }
+
+        TextImpl(NodeFactory factory, CharSequence source, int beginIndex, int endIndex) {
+            super(factory, source, beginIndex, endIndex);
+        }
     }
 
     /**
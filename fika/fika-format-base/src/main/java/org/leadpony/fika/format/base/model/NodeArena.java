@@ -0,0 +1,324 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.format.base.model;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Storage of a node tree in parallel primitive arrays.
+ *
+ * <p>
+ * Each node is identified by a positive integer which indexes the arrays.
+ * Removed nodes are not reclaimed until the whole arena is discarded.
+ * This class is not thread-safe.
+ * </p>
+ *
+ * @author leadpony
+ */
+final class NodeArena {
+
+    /**
+     * The identifier representing no node.
+     */
+    static final int NONE = 0;
+
+    static final byte ADMONITION = 1;
+    static final byte BLOCK_QUOTE = 2;
+    static final byte CODE_BLOCK = 3;
+    static final byte CODE_SPAN = 4;
+    static final byte DEFINITION = 5;
+    static final byte DEFINITION_LIST = 6;
+    static final byte DOCUMENT = 7;
+    static final byte EMPHASIS = 8;
+    static final byte HARD_LINE_BREAK = 9;
+    static final byte HEADING = 10;
+    static final byte HTML_BLOCK = 11;
+    static final byte HTML_INLINE = 12;
+    static final byte IMAGE = 13;
+    static final byte LINK = 14;
+    static final byte LIST_ITEM = 15;
+    static final byte ORDERED_LIST = 16;
+    static final byte PARAGRAPH = 17;
+    static final byte TERM = 18;
+    static final byte TEXT = 19;
+    static final byte THEMATIC_BREAK = 20;
+    static final byte UNORDERED_LIST = 21;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private byte[] kinds = new byte[INITIAL_CAPACITY];
+    private int[] parents = new int[INITIAL_CAPACITY];
+    private int[] firstChildren = new int[INITIAL_CAPACITY];
+    private int[] lastChildren = new int[INITIAL_CAPACITY];
+    private int[] previousSiblings = new int[INITIAL_CAPACITY];
+    private int[] nextSiblings = new int[INITIAL_CAPACITY];
+    // the first integer property, or the beginning index of the character data.
+    private int[] values = new int[INITIAL_CAPACITY];
+    // the second integer property, or the ending index of the character data.
+    private int[] extras = new int[INITIAL_CAPACITY];
+    // the index of the first object property.
+    private int[] refs = new int[INITIAL_CAPACITY];
+    // the next identifier to assign, zero is reserved for NONE.
+    private int size = 1;
+
+    private Object[] objects = new Object[INITIAL_CAPACITY];
+    private int objectCount;
+    private int lastSourceIndex = -1;
+
+    /**
+     * Adds a new node to this arena.
+     *
+     * @param kind  the kind of the node.
+     * @param value the first integer property.
+     * @param extra the second integer property.
+     * @param ref   the index of the first object property.
+     * @return the identifier of the new node.
+     */
+    int add(byte kind, int value, int extra, int ref) {
+        if (size == kinds.length) {
+            grow();
+        }
+        int id = size++;
+        kinds[id] = kind;
+        values[id] = value;
+        extras[id] = extra;
+        refs[id] = ref;
+        return id;
+    }
+
+    /**
+     * Adds object properties of a node.
+     *
+     * @param first  the first object property.
+     * @param second the second object property.
+     * @return the index of the first object property.
+     */
+    int addObjects(Object first, Object second) {
+        if (objectCount + 2 > objects.length) {
+            objects = Arrays.copyOf(objects, objects.length * 2);
+        }
+        int index = objectCount;
+        objects[objectCount++] = first;
+        objects[objectCount++] = second;
+        return index;
+    }
+
+    /**
+     * Adds a source of character data, which is shared with the node added
+     * immediately before if they have the same source.
+     *
+     * @param source the source of character data.
+     * @return the index of the source.
+     */
+    int addSource(CharSequence source) {
+        if (lastSourceIndex >= 0 && objects[lastSourceIndex] == source) {
+            return lastSourceIndex;
+        }
+        if (objectCount == objects.length) {
+            objects = Arrays.copyOf(objects, objects.length * 2);
+        }
+        lastSourceIndex = objectCount;
+        objects[objectCount++] = source;
+        return lastSourceIndex;
+    }
+
+    byte kind(int id) {
+        return kinds[id];
+    }
+
+    int parent(int id) {
+        return parents[id];
+    }
+
+    int firstChild(int id) {
+        return firstChildren[id];
+    }
+
+    int lastChild(int id) {
+        return lastChildren[id];
+    }
+
+    int previousSibling(int id) {
+        return previousSiblings[id];
+    }
+
+    int nextSibling(int id) {
+        return nextSiblings[id];
+    }
+
+    int value(int id) {
+        return values[id];
+    }
+
+    int extra(int id) {
+        return extras[id];
+    }
+
+    Object object(int id, int offset) {
+        return objects[refs[id] + offset];
+    }
+
+    /**
+     * Returns the number of the nodes ever added to this arena.
+     *
+     * @return the number of the nodes.
+     */
+    int size() {
+        return size - 1;
+    }
+
+    void appendChild(int parent, int child) {
+        unlink(child);
+        final int last = lastChildren[parent];
+        parents[child] = parent;
+        previousSiblings[child] = last;
+        nextSiblings[child] = NONE;
+        if (last != NONE) {
+            nextSiblings[last] = child;
+        } else {
+            firstChildren[parent] = child;
+        }
+        lastChildren[parent] = child;
+    }
+
+    void insertChildBefore(int parent, int newChild, int nextChild) {
+        unlink(newChild);
+        final int previous = previousSiblings[nextChild];
+        if (previous != NONE) {
+            nextSiblings[previous] = newChild;
+        } else {
+            firstChildren[parent] = newChild;
+        }
+        previousSiblings[nextChild] = newChild;
+        parents[newChild] = parent;
+        previousSiblings[newChild] = previous;
+        nextSiblings[newChild] = nextChild;
+    }
+
+    void insertChildAfter(int parent, int newChild, int previousChild) {
+        unlink(newChild);
+        final int next = nextSiblings[previousChild];
+        if (next != NONE) {
+            previousSiblings[next] = newChild;
+        } else {
+            lastChildren[parent] = newChild;
+        }
+        nextSiblings[previousChild] = newChild;
+        parents[newChild] = parent;
+        previousSiblings[newChild] = previousChild;
+        nextSiblings[newChild] = next;
+    }
+
+    void replaceChild(int parent, int newChild, int oldChild) {
+        if (newChild == oldChild) {
+            return;
+        }
+        unlink(newChild);
+        insertChildBefore(parent, newChild, oldChild);
+        unlink(oldChild);
+    }
+
+    /**
+     * Detaches the specified node from its parent.
+     *
+     * @param id the identifier of the node.
+     */
+    void unlink(int id) {
+        final int parent = parents[id];
+        if (parent == NONE) {
+            return;
+        }
+        final int previous = previousSiblings[id];
+        final int next = nextSiblings[id];
+        if (previous != NONE) {
+            nextSiblings[previous] = next;
+        } else {
+            firstChildren[parent] = next;
+        }
+        if (next != NONE) {
+            previousSiblings[next] = previous;
+        } else {
+            lastChildren[parent] = previous;
+        }
+        parents[id] = NONE;
+        previousSiblings[id] = NONE;
+        nextSiblings[id] = NONE;
+    }
+
+    /**
+     * Appends the text content of the specified node and its descendants.
+     *
+     * @param id  the identifier of the node.
+     * @param out the output to which the text content will be appended.
+     * @throws IOException if an I/O error occurred while appending.
+     */
+    void appendTextContent(int id, Appendable out) throws IOException {
+        int current = id;
+        for (;;) {
+            if (hasCharacters(kinds[current])) {
+                CharSequence source = (CharSequence) objects[refs[current]];
+                out.append(source, values[current], extras[current]);
+            } else if (firstChildren[current] != NONE) {
+                current = firstChildren[current];
+                continue;
+            }
+            for (;;) {
+                if (current == id) {
+                    return;
+                }
+                int next = nextSiblings[current];
+                if (next != NONE) {
+                    current = next;
+                    break;
+                }
+                current = parents[current];
+            }
+        }
+    }
+
+    /**
+     * Checks if the nodes of the specified kind hold character data.
+     *
+     * @param kind the kind of the node.
+     * @return {@code true} if the nodes hold character data.
+     */
+    static boolean hasCharacters(byte kind) {
+        switch (kind) {
+        case CODE_BLOCK:
+        case CODE_SPAN:
+        case HTML_BLOCK:
+        case HTML_INLINE:
+        case TEXT:
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    private void grow() {
+        int capacity = kinds.length * 2;
+        kinds = Arrays.copyOf(kinds, capacity);
+        parents = Arrays.copyOf(parents, capacity);
+        firstChildren = Arrays.copyOf(firstChildren, capacity);
+        lastChildren = Arrays.copyOf(lastChildren, capacity);
+        previousSiblings = Arrays.copyOf(previousSiblings, capacity);
+        nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+        values = Arrays.copyOf(values, capacity);
+        extras = Arrays.copyOf(extras, capacity);
+        refs = Arrays.copyOf(refs, capacity);
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.format.base.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.leadpony.fika.core.model.Document;
+import org.leadpony.fika.core.model.Emphasis;
+import org.leadpony.fika.core.model.Node;
+import org.leadpony.fika.core.model.NodeFactory;
+import org.leadpony.fika.core.model.Paragraph;
+import org.leadpony.fika.core.model.Text;
+
+/**
+ * Tests the child list and the text content of container nodes.
+ * The text content is memoized unless the test creates its own factory.
+ *
+ * @author leadpony
+ */
+public class AbstractContainerNodeTest {
+
+    private final NodeFactory factory = new DefaultNodeFactory(true);
+
+    private Document document;
+    private Paragraph paragraph;
+    private Emphasis emphasis;
+    private Text first;
+    private Text last;
+
+    @BeforeEach
+    public void setUp() {
+        document = factory.createDocument();
+        paragraph = factory.createParagraph();
+        emphasis = factory.createEmphasis(1);
+        first = factory.createText("a");
+        last = factory.createText("c");
+        document.appendChild(paragraph);
+        paragraph.appendChild(emphasis);
+        emphasis.appendChild(first);
+        emphasis.appendChild(last);
+        // memoizes the text content of all the containers.
+        assertThat(document.textContent()).isEqualTo("ac");
+        assertThat(paragraph.textContent()).isEqualTo("ac");
+        assertThat(emphasis.textContent()).isEqualTo("ac");
+    }
+
+    @Test
+    public void appendChildShouldInvalidateTextContent() {
+        emphasis.appendChild(factory.createText("d"));
+
+        assertTextContent("acd");
+    }
+
+    @Test
+    public void insertChildBeforeShouldInvalidateTextContent() {
+        emphasis.insertChildBefore(factory.createText("b"), last);
+
+        assertTextContent("abc");
+    }
+
+    @Test
+    public void insertChildAfterShouldInvalidateTextContent() {
+        emphasis.insertChildAfter(factory.createText("b"), first);
+
+        assertTextContent("abc");
+    }
+
+    @Test
+    public void replaceChildShouldInvalidateTextContent() {
+        emphasis.replaceChild(factory.createText("b"), last);
+
+        assertTextContent("ab");
+    }
+
+    @Test
+    public void removeChildShouldInvalidateTextContent() {
+        emphasis.removeChild(first);
+
+        assertTextContent("c");
+    }
+
+    @Test
+    public void unlinkShouldInvalidateTextContent() {
+        last.unlink();
+
+        assertTextContent("a");
+    }
+
+    @Test
+    public void insertChildBeforeShouldLinkSiblings() {
+        Node inserted = emphasis.insertChildBefore(factory.createText("b"), last);
+
+        assertThat(first.getNextSibling()).isSameAs(inserted);
+        assertThat(inserted.getPreviousSibling()).isSameAs(first);
+        assertThat(inserted.getNextSibling()).isSameAs(last);
+        assertThat(last.getPreviousSibling()).isSameAs(inserted);
+        assertThat(emphasis.getChildNodes()).containsExactly(first, inserted, last);
+        // the sibling of the container must be left unchanged.
+        assertThat(emphasis.getNextSibling()).isNull();
+    }
+
+    @Test
+    public void insertChildBeforeFirstChildShouldLinkSiblings() {
+        Node inserted = emphasis.insertChildBefore(factory.createText("b"), first);
+
+        assertThat(emphasis.getFirstChild()).isSameAs(inserted);
+        assertThat(inserted.getPreviousSibling()).isNull();
+        assertThat(inserted.getNextSibling()).isSameAs(first);
+        assertThat(first.getPreviousSibling()).isSameAs(inserted);
+        assertThat(emphasis.getChildNodes()).containsExactly(inserted, first, last);
+    }
+
+    @Test
+    public void textContentShouldNotBeMemoizedByDefault() {
+        NodeFactory factory = new DefaultNodeFactory();
+        Paragraph paragraph = factory.createParagraph();
+        paragraph.appendChild(factory.createText("a"));
+
+        String textContent = paragraph.textContent();
+
+        assertThat(textContent).isEqualTo("a");
+        assertThat(paragraph.textContent()).isEqualTo("a").isNotSameAs(textContent);
+    }
+
+    @Test
+    public void textContentShouldReflectModificationByDefault() {
+        NodeFactory factory = new DefaultNodeFactory();
+        Paragraph paragraph = factory.createParagraph();
+        Emphasis emphasis = factory.createEmphasis(1);
+        paragraph.appendChild(emphasis);
+        emphasis.appendChild(factory.createText("a"));
+        assertThat(paragraph.textContent()).isEqualTo("a");
+
+        emphasis.appendChild(factory.createText("b"));
+
+        assertThat(paragraph.textContent()).isEqualTo("ab");
+    }
+
+    @Test
+    public void textContentShouldBeMemoizedIfEnabled() {
+        assertThat(document.textContent()).isSameAs(document.textContent());
+    }
+
+    private void assertTextContent(String expected) {
+        assertThat(emphasis.textContent()).isEqualTo(expected);
+        assertThat(paragraph.textContent()).isEqualTo(expected);
+        assertThat(document.textContent()).isEqualTo(expected);
+    }
+}
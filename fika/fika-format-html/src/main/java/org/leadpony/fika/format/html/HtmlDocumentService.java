@@ -18,11 +18,15 @@ package org.leadpony.fika.format.html;
 
 import static java.util.Objects.requireNonNull;
 
+import java.io.OutputStream;
 import java.io.Writer;
 
 import org.leadpony.fika.core.DocumentService;
+import org.leadpony.fika.core.DocumentWriter;
 import org.leadpony.fika.core.DocumentWriterBuilder;
+import org.leadpony.fika.core.model.Node;
 import org.leadpony.fika.format.html.writer.HtmlDocumentWriterBuilder;
+import org.leadpony.fika.format.html.writer.Utf8Writer;
 
 /**
  * A document service for HTML format.
@@ -36,4 +40,23 @@ class HtmlDocumentService implements DocumentService {
         requireNonNull(writer, "writer must not be null.");
         return new HtmlDocumentWriterBuilder(writer);
     }
+
+    @Override
+    public DocumentWriterBuilder createWriterBuilder(OutputStream out) {
+        requireNonNull(out, "out must not be null.");
+        return new HtmlDocumentWriterBuilder(out);
+    }
+
+    @Override
+    public byte[] writeFragmentToBytes(Node node) {
+        requireNonNull(node, "node must not be null.");
+        Utf8Writer buffer = new Utf8Writer();
+        try (DocumentWriter writer = new HtmlDocumentWriterBuilder(buffer)
+                .withFragmentOnly(true).build()) {
+            writer.write(node);
+            return buffer.toByteArray();
+        } finally {
+            buffer.release();
+        }
+    }
 }
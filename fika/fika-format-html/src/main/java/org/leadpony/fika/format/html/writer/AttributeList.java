@@ -0,0 +1,117 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.format.html.writer;
+
+import java.util.Arrays;
+
+/**
+ * An ordered list of attributes which belongs to an XML element.
+ *
+ * <p>
+ * The attributes are kept as a flat list of names and values,
+ * which can be cleared and reused for the next element.
+ * </p>
+ *
+ * @author leadpony
+ */
+class AttributeList {
+
+    private static final String CLASS = "class";
+
+    private String[] names = new String[4];
+    private String[] values = new String[4];
+    private int size;
+
+    /**
+     * Removes all attributes from this list.
+     *
+     * @return this list.
+     */
+    AttributeList clear() {
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+        return this;
+    }
+
+    /**
+     * Adds an attribute to this list.
+     *
+     * @param name  the name of the attribute.
+     * @param value the value of the attribute, may be {@code null}.
+     * @return this list.
+     */
+    AttributeList add(String name, String value) {
+        if (value == null) {
+            return this;
+        }
+        int index = indexOf(name);
+        if (index >= 0) {
+            values[index] = value;
+            return this;
+        }
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        names[size] = name;
+        values[size] = value;
+        size++;
+        return this;
+    }
+
+    /**
+     * Adds a value to the class attribute.
+     *
+     * @param value the value to add, may be {@code null}.
+     * @return this list.
+     */
+    AttributeList addClass(String value) {
+        if (value == null) {
+            return this;
+        }
+        int index = indexOf(CLASS);
+        if (index >= 0) {
+            values[index] = values[index] + " " + value;
+            return this;
+        }
+        return add(CLASS, value);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    String name(int index) {
+        return names[index];
+    }
+
+    String value(int index) {
+        return values[index];
+    }
+
+    private int indexOf(String name) {
+        for (int i = 0; i < size; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -19,9 +19,9 @@ package org.leadpony.fika.format.html.writer;
 import static java.util.Objects.requireNonNull;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.io.Writer;
 import java.net.URI;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -60,10 +60,17 @@ class HtmlDocumentWriter implements DocumentWriter {
         }
         alreadyWritten = true;
         requireNonNull(node, "node must not be null.");
-        if (hasOption(FRAGMENT_ONLY)) {
-            writeDocumentFragment(node);
-        } else {
-            writeCompleteDocument(node);
+        try {
+            if (hasOption(FRAGMENT_ONLY)) {
+                writeDocumentFragment(node);
+            } else {
+                writeCompleteDocument(node);
+            }
+            this.writer.flush();
+        } catch (UncheckedIOException e) {
+            throw new DocumentException("An I/O error has occurred.", e.getCause());
+        } catch (IOException e) {
+            throw new DocumentException("An I/O error has occurred.", e);
         }
     }
 
@@ -91,10 +98,10 @@ class HtmlDocumentWriter implements DocumentWriter {
 
     private void writeCompleteDocument(Node node) {
         formatter.doctype("html");
-        Map<String, String> attributes = new HashMap<>();
+        AttributeList attributes = new AttributeList();
         if (properties.containsKey(LANGUAGE)) {
             Locale language = (Locale)properties.get(LANGUAGE);
-            attributes.put("lang", language.toLanguageTag());
+            attributes.add("lang", language.toLanguageTag());
         }
         formatter.startTag("html", attributes);
         writeHeadPart();
@@ -111,8 +118,8 @@ class HtmlDocumentWriter implements DocumentWriter {
 
         if (properties.containsKey(CHARSET)) {
             String charset = (String)properties.get(CHARSET);
-            Map<String, String> attributes = new HashMap<>();
-            attributes.put("charset", charset);
+            AttributeList attributes = new AttributeList();
+            attributes.add("charset", charset);
             formatter.emptyTag("meta", attributes);
         }
 
@@ -138,10 +145,11 @@ class HtmlDocumentWriter implements DocumentWriter {
         if (properties.containsKey(STYLESHEETS)) {
             @SuppressWarnings("unchecked")
             List<URI> locations = (List<URI>)properties.get(STYLESHEETS);
+            AttributeList attributes = new AttributeList();
             for (URI location: locations) {
-                Map<String, String> attributes = new HashMap<>();
-                attributes.put("href", location.toString());
-                attributes.put("rel", "stylesheet");
+                attributes.clear()
+                    .add("href", location.toString())
+                    .add("rel", "stylesheet");
                 formatter.emptyTag("link", attributes);
             }
         }
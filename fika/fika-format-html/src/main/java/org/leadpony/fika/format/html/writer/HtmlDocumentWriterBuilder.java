@@ -16,6 +16,7 @@
 
 package org.leadpony.fika.format.html.writer;
 
+import java.io.OutputStream;
 import java.io.Writer;
 import java.util.HashMap;
 import java.util.Map;
@@ -35,6 +36,16 @@ public class HtmlDocumentWriterBuilder implements DocumentWriterBuilder {
         this.writer = writer;
     }
 
+    /**
+     * Constructs this builder for the writer which will encode the document in
+     * UTF-8 directly into the specified output stream.
+     *
+     * @param out the output stream to which the document will be written.
+     */
+    public HtmlDocumentWriterBuilder(OutputStream out) {
+        this(new Utf8Writer(out));
+    }
+
     @Override
     public DocumentWriterBuilder withProperty(String name, Object value) {
         properties.put(name, value);
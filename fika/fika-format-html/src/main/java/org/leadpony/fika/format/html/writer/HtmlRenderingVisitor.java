@@ -15,6 +15,9 @@
  */
 package org.leadpony.fika.format.html.writer;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 import org.leadpony.fika.core.model.Admonition;
 import org.leadpony.fika.core.model.Block;
 import org.leadpony.fika.core.model.BlockQuote;
@@ -50,6 +53,10 @@ import org.leadpony.fika.core.model.Visitor;
 class HtmlRenderingVisitor implements Visitor {
 
     private final XmlFormatter formatter;
+    // reused for every element.
+    private final AttributeList attributes = new AttributeList();
+    // reused for the alternative text of every image.
+    private final StringBuilder altText = new StringBuilder();
 
     private static final String[] HEADINGS = { "h1", "h2", "h3", "h4", "h5", "h6" };
 
@@ -64,7 +71,7 @@ class HtmlRenderingVisitor implements Visitor {
 
     @Override
     public void visit(Admonition node) {
-        AttributeMap attributes = new AttributeMap();
+        AttributeList attributes = this.attributes.clear();
         final String typeQualifier = node.type().toLowerCase();
         attributes.addClass("admonition").addClass(typeQualifier);
         formatter.startTag("aside", attributes);
@@ -90,14 +97,14 @@ class HtmlRenderingVisitor implements Visitor {
     @Override
     public void visit(CodeBlock node) {
         formatter.startTag("pre");
-        AttributeMap attributes = new AttributeMap();
+        AttributeList attributes = this.attributes.clear();
         String language = node.language();
         if (language != null) {
             String classValue = "language-" + language;
             attributes.addClass(classValue);
         }
         formatter.startTag("code", attributes);
-        formatter.text(node.textContent());
+        formatter.text(node);
         formatter.endTag("code");
         formatter.endTag("pre");
     }
@@ -105,7 +112,7 @@ class HtmlRenderingVisitor implements Visitor {
     @Override
     public void visit(CodeSpan node) {
         formatter.startTag("code");
-        formatter.text(node.textContent());
+        formatter.text(node);
         formatter.endTag("code");
     }
 
@@ -151,26 +158,26 @@ class HtmlRenderingVisitor implements Visitor {
 
     @Override
     public void visit(HtmlBlock node) {
-        formatter.rawXml(node.textContent());
+        formatter.rawXml(node);
     }
 
     @Override
     public void visit(HtmlInline node) {
-        formatter.rawXml(node.textContent());
+        formatter.rawXml(node);
     }
 
     @Override
     public void visit(Image node) {
-        AttributeMap attributes = new AttributeMap();
+        AttributeList attributes = this.attributes.clear();
         attributes.add("src", node.location());
+        attributes.add("alt", altText(node));
         attributes.add("title", node.title());
-        attributes.add("alt", node.textContent());
         formatter.emptyTag("img", attributes);
     }
 
     @Override
     public void visit(Link node) {
-        AttributeMap attributes = new AttributeMap();
+        AttributeList attributes = this.attributes.clear();
         attributes.add("href", node.destination());
         attributes.add("title", node.title());
         formatter.startTag("a", attributes);
@@ -187,7 +194,7 @@ class HtmlRenderingVisitor implements Visitor {
 
     @Override
     public void visit(OrderedList node) {
-        AttributeMap attributes = new AttributeMap();
+        AttributeList attributes = this.attributes.clear();
         int startNumber = node.startNumber();
         if (startNumber != 1) {
             attributes.add("start", String.valueOf(startNumber));
@@ -213,7 +220,7 @@ class HtmlRenderingVisitor implements Visitor {
 
     @Override
     public void visit(Text node) {
-        formatter.text(node.textContent());
+        formatter.text(node);
     }
 
     @Override
@@ -228,6 +235,19 @@ class HtmlRenderingVisitor implements Visitor {
         formatter.endTag("ul");
     }
 
+    // writes the descendants directly, leaving no memoized text on the image.
+    private String altText(Image node) {
+        StringBuilder builder = this.altText;
+        builder.setLength(0);
+        try {
+            node.writeTextContent(builder);
+        } catch (IOException e) {
+            // StringBuilder never throws.
+            throw new UncheckedIOException(e);
+        }
+        return builder.toString();
+    }
+
     private static boolean testTightness(Block node) {
         Node parent = node.getParentNode();
         if (parent == null || !(parent instanceof ListBlock)) {
@@ -17,99 +17,182 @@ package org.leadpony.fika.format.html.writer;
 
 import static java.util.Objects.requireNonNull;
 
-import java.io.PrintWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.io.Writer;
-import java.util.Map;
 
 /**
  * A simple implementation of {@link XmlFormatter}.
  *
+ * <p>
+ * Characters to be escaped are replaced in a single pass, and the output is
+ * written through a reusable buffer in chunks.
+ * Any I/O error is thrown as {@link UncheckedIOException}.
+ * </p>
+ *
  * @author leadpony
  */
 class SimpleXmlFormatter implements XmlFormatter {
 
-    private PrintWriter writer;
+    private static final int BUFFER_SIZE = 1024;
+    // the longest replacement is "&quot;".
+    private static final int MAX_REPLACEMENT_LENGTH = 6;
+
+    private Writer writer;
+    private final char[] buffer = new char[BUFFER_SIZE];
 
     @Override
     public XmlFormatter withWriter(Writer writer) {
         requireNonNull(writer, "writer must not be null.");
-        this.writer = new PrintWriter(writer);
+        this.writer = writer;
         return this;
     }
 
     @Override
     public void doctype(String type) {
-        writer.append("<!DOCTYPE ").append(type).append(">");
+        write("<!DOCTYPE ");
+        write(type);
+        write(">");
     }
 
     @Override
     public void startTag(String name) {
-        writer.append("<").append(name).append(">");
+        write("<");
+        write(name);
+        write(">");
     }
 
     @Override
-    public void startTag(String name, Map<String, String> attributes) {
-        writer.append("<").append(name);
+    public void startTag(String name, AttributeList attributes) {
+        write("<");
+        write(name);
         if (!attributes.isEmpty()) {
             appendAttributes(attributes);
         }
-        writer.append(">");
+        write(">");
     }
 
     @Override
     public void endTag(String name) {
-        writer.append("</").append(name).append(">");
+        write("</");
+        write(name);
+        write(">");
     }
 
     @Override
     public void emptyTag(String name) {
-        writer.append("<").append(name).append(" />");
+        write("<");
+        write(name);
+        write(" />");
     }
 
     @Override
-    public void emptyTag(String name, Map<String, String> attributes) {
-        writer.append("<").append(name);
+    public void emptyTag(String name, AttributeList attributes) {
+        write("<");
+        write(name);
         if (!attributes.isEmpty()) {
             appendAttributes(attributes);
         }
-        writer.append(" />");
+        write(" />");
     }
 
     @Override
-    public void text(String text) {
-        writer.append(escape(text));
+    public void text(CharSequence text) {
+        escape(text);
     }
 
     @Override
-    public void preformattedText(String text) {
-        writer.append(escape(text));
+    public void preformattedText(CharSequence text) {
+        escape(text);
     }
 
     @Override
-    public void rawXml(String xml) {
-        writer.append(xml);
+    public void rawXml(CharSequence xml) {
+        if (xml instanceof String) {
+            write((String) xml);
+        } else {
+            final char[] buffer = this.buffer;
+            final int length = xml.length();
+            int filled = 0;
+            for (int i = 0; i < length; i++) {
+                if (filled == buffer.length) {
+                    write(buffer, filled);
+                    filled = 0;
+                }
+                buffer[filled++] = xml.charAt(i);
+            }
+            write(buffer, filled);
+        }
     }
 
-    private String escape(String text) {
-        text = text.replaceAll("&", "&amp;");
-        text = text.replaceAll("\"", "&quot;");
-        text = text.replaceAll("<", "&lt;");
-        text = text.replaceAll(">", "&gt;");
-        return text;
+    /**
+     * Writes the specified text, escaping the special characters.
+     *
+     * @param text the text to write.
+     */
+    private void escape(CharSequence text) {
+        final char[] buffer = this.buffer;
+        final int limit = buffer.length - MAX_REPLACEMENT_LENGTH;
+        final int length = text.length();
+        int filled = 0;
+        for (int i = 0; i < length; i++) {
+            if (filled > limit) {
+                write(buffer, filled);
+                filled = 0;
+            }
+            char c = text.charAt(i);
+            switch (c) {
+            case '&':
+                filled = put("&amp;", filled);
+                break;
+            case '"':
+                filled = put("&quot;", filled);
+                break;
+            case '<':
+                filled = put("&lt;", filled);
+                break;
+            case '>':
+                filled = put("&gt;", filled);
+                break;
+            default:
+                buffer[filled++] = c;
+                break;
+            }
+        }
+        if (filled > 0) {
+            write(buffer, filled);
+        }
     }
 
-    private void appendAttributes(Map<String, String> attributes) {
-        for (Map.Entry<String, String> entry: attributes.entrySet()) {
-            String key = entry.getKey();
-            String value = entry.getValue();
-            if (value == null) {
-                value = "";
-            } else {
-                value = escape(value);
-            }
-            writer.append(" ")
-                  .append(key).append("=\"")
-                  .append(value).append("\"");
+    private void write(String s) {
+        try {
+            writer.write(s);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(char[] chars, int length) {
+        try {
+            writer.write(chars, 0, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int put(String replacement, int filled) {
+        replacement.getChars(0, replacement.length(), buffer, filled);
+        return filled + replacement.length();
+    }
+
+    private void appendAttributes(AttributeList attributes) {
+        final int size = attributes.size();
+        for (int i = 0; i < size; i++) {
+            write(" ");
+            write(attributes.name(i));
+            write("=\"");
+            escape(attributes.value(i));
+            write("\"");
         }
     }
 }
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.format.html.writer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * A writer which encodes characters in UTF-8 directly into a byte buffer.
+ *
+ * <p>
+ * The encoded bytes are written to the underlying output stream whenever the
+ * buffer becomes full, or accumulated in memory if there is no output stream.
+ * Unlike {@link java.io.PrintWriter}, this writer reports I/O errors to the
+ * caller and does not synchronize any of its methods.
+ * Unpaired surrogates are encoded as '?'.
+ * </p>
+ *
+ * <p>
+ * Note that this class is not thread-safe.
+ * </p>
+ *
+ * @author leadpony
+ */
+public final class Utf8Writer extends Writer {
+
+    private static final int BUFFER_SIZE = 8192;
+    // the buffers larger than this size are not returned to the pool.
+    private static final int MAX_POOLED_SIZE = 64 * 1024;
+    // the maximum number of bytes of a single code point.
+    private static final int MAX_BYTES_PER_CHAR = 4;
+
+    private static final ThreadLocal<byte[]> pool = new ThreadLocal<>();
+
+    private final OutputStream out;
+    private byte[] buffer;
+    private int count;
+    // the high surrogate waiting for the low one, or zero.
+    private char highSurrogate;
+    private boolean closed;
+
+    /**
+     * Constructs this writer which will write bytes to the specified stream.
+     *
+     * @param out the output stream to which the bytes will be written.
+     */
+    public Utf8Writer(OutputStream out) {
+        this.out = out;
+        this.buffer = acquireBuffer();
+    }
+
+    /**
+     * Constructs this writer which will accumulate bytes in memory.
+     *
+     * @see #toByteArray()
+     */
+    public Utf8Writer() {
+        this(null);
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        ensureOpen();
+        ensureRoom();
+        encode((char) c);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        ensureOpen();
+        final int end = off + len;
+        for (int i = off; i < end; i++) {
+            ensureRoom();
+            encode(cbuf[i]);
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        ensureOpen();
+        final int end = off + len;
+        for (int i = off; i < end; i++) {
+            ensureRoom();
+            encode(str.charAt(i));
+        }
+    }
+
+    @Override
+    public Writer append(CharSequence csq) throws IOException {
+        if (csq == null) {
+            csq = "null";
+        }
+        return append(csq, 0, csq.length());
+    }
+
+    @Override
+    public Writer append(CharSequence csq, int start, int end) throws IOException {
+        if (csq == null) {
+            csq = "null";
+        }
+        ensureOpen();
+        for (int i = start; i < end; i++) {
+            ensureRoom();
+            encode(csq.charAt(i));
+        }
+        return this;
+    }
+
+    /**
+     * Writes the buffered bytes to the underlying output stream, if any.
+     *
+     * @throws IOException if an I/O error occurred.
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        if (out != null) {
+            flushBuffer();
+            out.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            if (highSurrogate != 0) {
+                ensureRoom();
+                putReplacement();
+            }
+            if (out != null) {
+                try {
+                    flushBuffer();
+                } finally {
+                    out.close();
+                }
+            }
+        } finally {
+            closed = true;
+            if (out != null) {
+                releaseBuffer();
+            }
+        }
+    }
+
+    /**
+     * Returns the bytes accumulated in memory so far.
+     *
+     * @return the bytes encoded in UTF-8.
+     * @throws IllegalStateException if this writer has an output stream.
+     */
+    public byte[] toByteArray() {
+        if (out != null) {
+            throw new IllegalStateException("The bytes are written to the output stream.");
+        }
+        return Arrays.copyOf(buffer, count);
+    }
+
+    /**
+     * Returns the buffer of this writer to the pool.
+     * This writer cannot be used any longer after this call.
+     */
+    public void release() {
+        closed = true;
+        releaseBuffer();
+    }
+
+    private void encode(char c) {
+        final byte[] buffer = this.buffer;
+        if (highSurrogate != 0) {
+            char high = highSurrogate;
+            highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                int codePoint = Character.toCodePoint(high, c);
+                buffer[count++] = (byte) (0xf0 | (codePoint >> 18));
+                buffer[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                buffer[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                buffer[count++] = (byte) (0x80 | (codePoint & 0x3f));
+                return;
+            }
+            putReplacement();
+        }
+        if (c < 0x80) {
+            buffer[count++] = (byte) c;
+        } else if (c < 0x800) {
+            buffer[count++] = (byte) (0xc0 | (c >> 6));
+            buffer[count++] = (byte) (0x80 | (c & 0x3f));
+        } else if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            putReplacement();
+        } else {
+            buffer[count++] = (byte) (0xe0 | (c >> 12));
+            buffer[count++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+            buffer[count++] = (byte) (0x80 | (c & 0x3f));
+        }
+    }
+
+    private void putReplacement() {
+        buffer[count++] = (byte) '?';
+    }
+
+    /**
+     * Makes room for the bytes of a single character,
+     * including an unpaired surrogate replaced before it.
+     */
+    private void ensureRoom() throws IOException {
+        if (count + MAX_BYTES_PER_CHAR + 1 <= buffer.length) {
+            return;
+        }
+        if (out != null) {
+            flushBuffer();
+        } else {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("The writer is already closed.");
+        }
+    }
+
+    private static byte[] acquireBuffer() {
+        byte[] buffer = pool.get();
+        if (buffer != null) {
+            pool.set(null);
+            return buffer;
+        }
+        return new byte[BUFFER_SIZE];
+    }
+
+    private void releaseBuffer() {
+        byte[] buffer = this.buffer;
+        if (buffer != null) {
+            this.buffer = null;
+            if (buffer.length <= MAX_POOLED_SIZE) {
+                pool.set(buffer);
+            }
+        }
+    }
+}
@@ -16,8 +16,6 @@
 package org.leadpony.fika.format.html.writer;
 
 import java.io.Writer;
-import java.util.Collections;
-import java.util.Map;
 
 /**
  * A formatter interface which will format the rendered XML document before presenting.
@@ -48,9 +46,7 @@ interface XmlFormatter {
      *
      * @param name the name of the tag.
      */
-    default void startTag(String name) {
-        startTag(name, Collections.emptyMap());
-    }
+    void startTag(String name);
 
     /**
      * Outputs a start tag with element attributes.
@@ -58,7 +54,7 @@ interface XmlFormatter {
      * @param name       the name of the tag.
      * @param attributes the attributes of the tag.
      */
-    void startTag(String name, Map<String, String> attributes);
+    void startTag(String name, AttributeList attributes);
 
     /**
      * Outputs an end tag.
@@ -72,9 +68,7 @@ interface XmlFormatter {
      *
      * @param name the name of the tag.
      */
-    default void emptyTag(String name) {
-        emptyTag(name, Collections.emptyMap());
-    }
+    void emptyTag(String name);
 
     /**
      * Outputs an empty tag with element attributes.
@@ -82,26 +76,26 @@ interface XmlFormatter {
      * @param name       the name of the tag.
      * @param attributes the attributes of the tag.
      */
-    void emptyTag(String name, Map<String, String> attributes);
+    void emptyTag(String name, AttributeList attributes);
 
     /**
      * Outputs text content.
      *
      * @param text the text content to output.
      */
-    void text(String text);
+    void text(CharSequence text);
 
     /**
      * Outputs a preformatted text.
      *
      * @param text the preformatted text to output.
      */
-    void preformattedText(String text);
+    void preformattedText(CharSequence text);
 
     /**
      * Outputs raw XML content.
      *
      * @param xml the raw XML content to output.
      */
-    void rawXml(String xml);
+    void rawXml(CharSequence xml);
 }
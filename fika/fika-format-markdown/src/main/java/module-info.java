@@ -43,5 +43,7 @@ module org.leadpony.fika.format.markdown {
              org.leadpony.fika.format.markdown.parser.features.inline.HardLineBreak,
              org.leadpony.fika.format.markdown.parser.features.inline.Image,
              org.leadpony.fika.format.markdown.parser.features.inline.InlineHtml,
-             org.leadpony.fika.format.markdown.parser.features.inline.Link;
+             org.leadpony.fika.format.markdown.parser.features.inline.Link,
+             org.leadpony.fika.format.markdown.parser.features.CompactNodes,
+             org.leadpony.fika.format.markdown.parser.features.ParallelInlines;
 }
\ No newline at end of file
@@ -54,6 +54,24 @@ public interface BlockContext {
      */
     LinkDefinitionMap getLinkDefinitionMap();
   
+    /**
+     * Returns the number of the container blocks 
+     * which are processing the current line.
+     * 
+     * @return the current nesting depth of the container blocks.
+     */
+    int containerDepth();
+    
+    /**
+     * Notifies that a container block started to pass the current line to its child.
+     */
+    void enterContainer();
+    
+    /**
+     * Notifies that a container block finished passing the current line to its child.
+     */
+    void leaveContainer();
+    
     /**
      * Adds a text as an inline node.
      * 
@@ -15,39 +15,59 @@
  */
 package org.leadpony.fika.format.markdown.block;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 import org.leadpony.fika.format.markdown.common.InputSequence;
 
 /**
  * Content in a line.
  * 
+ * <p>
+ * The content is a view of the characters in the buffer owned by the caller,
+ * and is valid only while the line is processed.
+ * The characters are copied only when the line contains tabs to expand.
+ * </p>
+ * 
+ * <p>
+ * The line is scanned only once when the first content is created,
+ * and the result is recorded in the {@link Line} descriptor shared by all
+ * the contents in the same line. 
+ * The blank check and the indentation counting can be answered 
+ * by the descriptor without scanning the characters again.
+ * </p>
+ * 
  * @author leadpony
  */
 class BlockInputSequence implements InputSequence {
     
-    private final String line;
-    private final List<Integer> tabs;
+    private static final int[] NO_TABS = {};
+    private static final int TAB_SIZE = 4;
+    
+    private final Line line;
+    private final char[] chars;
     private final int beginIndex;
     private final int endIndex;
     private final int length;
     
-    private static final Pattern TAB_PATTERN = Pattern.compile("\\t");
-    
-    private static final String[] EXPANDED_TAB = { "    ", "   ", "  ", " " }; 
-   
     static BlockInputSequence of(String line) {
-        List<Integer> tabs = new ArrayList<>();
-        String expaned = expandTabs(line, tabs);
-        return new BlockInputSequence(expaned, tabs, 0, expaned.length());
+        char[] chars = line.toCharArray();
+        return of(chars, 0, chars.length);
+    }
+   
+    /**
+     * Creates a content of the line in the specified buffer.
+     * 
+     * @param chars the buffer containing the line.
+     * @param beginIndex the index of the first character of the line, inclusive.
+     * @param endIndex the index of the last character of the line, exclusive.
+     * @return newly created content.
+     */
+    static BlockInputSequence of(char[] chars, int beginIndex, int endIndex) {
+        Line line = Line.scan(chars, beginIndex, endIndex);
+        return new BlockInputSequence(line, line.beginIndex, line.endIndex);
     }
     
-    private BlockInputSequence(String line, List<Integer> tabs, int beginIndex, int endIndex) {
+    private BlockInputSequence(Line line, int beginIndex, int endIndex) {
         this.line = line;
-        this.tabs = tabs;
+        this.chars = line.chars;
         this.beginIndex = beginIndex;
         this.endIndex = endIndex;
         this.length = endIndex - beginIndex;
@@ -57,7 +77,7 @@ class BlockInputSequence implements InputSequence {
     
     @Override
     public char charAt(int index) {
-        return this.line.charAt(this.beginIndex + index);
+        return this.chars[this.beginIndex + index];
     }
 
     @Override
@@ -67,11 +87,7 @@ class BlockInputSequence implements InputSequence {
     
     @Override
     public String toString() {
-        if (beginIndex == 0 && endIndex == line.length()) {
-            return line;
-        } else {
-            return line.substring(beginIndex, endIndex);
-        }
+        return new String(this.chars, this.beginIndex, this.length);
     }
     
     /* String-like interface */
@@ -81,9 +97,7 @@ class BlockInputSequence implements InputSequence {
         if (beginIndex < 0 || endIndex < 0 || beginIndex > endIndex || endIndex > length) {
             throw new IndexOutOfBoundsException();
         }
-        int newBeginIndex = this.beginIndex + beginIndex;
-        int newEndIndex = this.beginIndex + endIndex;
-        return this.line.substring(newBeginIndex, newEndIndex);
+        return new String(this.chars, this.beginIndex + beginIndex, endIndex - beginIndex);
     }
     
     /* */
@@ -106,51 +120,179 @@ class BlockInputSequence implements InputSequence {
         }
         int newBeginIndex = this.beginIndex + beginIndex;
         int newEndIndex = this.beginIndex + endIndex;
-        return new BlockInputSequence(this.line, this.tabs, newBeginIndex, newEndIndex);
+        return new BlockInputSequence(this.line, newBeginIndex, newEndIndex);
     }
     
     @Override
-    public String toSourceString() {
-        return restoreTabs(line, tabs, beginIndex, endIndex);
-    }
-    
-    private static String expandTabs(String line, List<Integer> tabs) {
-        StringBuilder b = new StringBuilder();
-        int last = 0;
-        Matcher m = TAB_PATTERN.matcher(line);
-        while (m.find()) {
-            int tab = m.start();
-            b.append(line, last, tab);
-            tabs.add(b.length());
-            b.append(EXPANDED_TAB[b.length() % 4]);
-            last = tab + 1;
+    public boolean isBlank() {
+        final Line line = this.line;
+        if (this.beginIndex <= line.firstNonSpace) {
+            return this.endIndex <= line.firstNonSpace;
+        } else if (this.beginIndex >= line.lastNonSpace) {
+            return true;
+        }
+        return InputSequence.super.isBlank();
+    }
+    
+    @Override
+    public int countLeadingSpaces(int beginIndex, int endIndex) {
+        final int first = this.line.firstNonSpace;
+        int begin = this.beginIndex + beginIndex;
+        if (begin > first) {
+            return InputSequence.super.countLeadingSpaces(beginIndex, endIndex);
         }
-        if (last == 0) {
-            return line;
-        } else if (last < line.length()) {
-            b.append(line, last, line.length());
+        int end = this.beginIndex + Math.min(endIndex, this.length);
+        return Math.max(Math.min(first, end) - begin, 0);
+    }
+    
+    @Override
+    public int countTrailingSpaces() {
+        final int last = this.line.lastNonSpace;
+        if (this.endIndex < last) {
+            return InputSequence.super.countTrailingSpaces();
+        }
+        return this.endIndex - Math.max(last, this.beginIndex);
+    }
+    
+    @Override
+    public String toSourceString() {
+        if (this.line.tabs.length == 0) {
+            return toString();
         }
+        StringBuilder b = new StringBuilder(this.length);
+        restoreTabs(b);
         return b.toString();
     }
-
-    private static String restoreTabs(String line, List<Integer> tabs, int beginIndex, int endIndex) {
-        if (tabs.size() == 0) {
-            return line.substring(beginIndex, endIndex);
+    
+    @Override
+    public void appendSourceTo(StringBuilder builder) {
+        if (this.line.tabs.length == 0) {
+            builder.append(this.chars, this.beginIndex, this.length);
+        } else {
+            restoreTabs(builder);
         }
-        StringBuilder b = new StringBuilder();
-        int last = beginIndex;
-        for (int tab: tabs) {
-            if (tab < beginIndex) {
+    }
+    
+    private void restoreTabs(StringBuilder b) {
+        int last = this.beginIndex;
+        for (int tab: this.line.tabs) {
+            if (tab < this.beginIndex) {
                 continue;
-            } else if (tab >= endIndex) {
+            } else if (tab >= this.endIndex) {
                 break;
             }
-            b.append(line, last, tab).append('\t');
-            last = tab + EXPANDED_TAB[tab % 4].length();
+            b.append(this.chars, last, tab - last).append('\t');
+            last = tab + TAB_SIZE - (tab % TAB_SIZE);
         }
-        if (last < endIndex) {
-            b.append(line, last, endIndex);
+        if (last < this.endIndex) {
+            b.append(this.chars, last, this.endIndex - last);
+        }
+    }
+    
+    /**
+     * Descriptor of a line, shared by all the contents in the line.
+     * 
+     * @author leadpony
+     */
+    private static final class Line {
+        
+        // the characters with tabs expanded.
+        final char[] chars;
+        // the positions of the expanded tabs in ascending order.
+        final int[] tabs;
+        final int beginIndex;
+        final int endIndex;
+        // the index of the first non-space character, or endIndex if the line is blank.
+        final int firstNonSpace;
+        // the index following the last non-space character, or beginIndex if the line is blank.
+        final int lastNonSpace;
+        
+        private Line(char[] chars, int[] tabs, int beginIndex, int endIndex, 
+                int firstNonSpace, int lastNonSpace) {
+            this.chars = chars;
+            this.tabs = tabs;
+            this.beginIndex = beginIndex;
+            this.endIndex = endIndex;
+            this.firstNonSpace = firstNonSpace;
+            this.lastNonSpace = lastNonSpace;
+        }
+
+        /**
+         * Scans the line in a single pass.
+         * 
+         * @param chars the buffer containing the line.
+         * @param beginIndex the index of the first character of the line, inclusive.
+         * @param endIndex the index of the last character of the line, exclusive.
+         * @return the descriptor of the line.
+         */
+        static Line scan(char[] chars, int beginIndex, int endIndex) {
+            int numberOfTabs = 0;
+            // the columns of the first and the last non-space characters.
+            int firstNonSpace = -1;
+            int lastNonSpace = -1;
+            // the column in the line after expanding tabs.
+            int column = 0;
+            for (int i = beginIndex; i < endIndex; i++) {
+                char c = chars[i];
+                if (c == '\t') {
+                    numberOfTabs++;
+                    column += TAB_SIZE - (column % TAB_SIZE);
+                } else {
+                    column++;
+                    if (c != ' ') {
+                        if (firstNonSpace < 0) {
+                            firstNonSpace = column - 1;
+                        }
+                        lastNonSpace = column - 1;
+                    }
+                }
+            }
+            if (firstNonSpace < 0) {
+                firstNonSpace = column;
+                lastNonSpace = 0;
+            } else {
+                lastNonSpace++;
+            }
+            if (numberOfTabs == 0) {
+                // columns are equal to the indices in the buffer.
+                return new Line(chars, NO_TABS, beginIndex, endIndex,
+                        beginIndex + firstNonSpace, beginIndex + lastNonSpace);
+            }
+            char[] expanded = expandTabs(chars, beginIndex, endIndex, column);
+            int[] tabs = findTabs(chars, beginIndex, endIndex, numberOfTabs);
+            return new Line(expanded, tabs, 0, column, firstNonSpace, lastNonSpace);
+        }
+        
+        private static char[] expandTabs(char[] chars, int beginIndex, int endIndex, int expandedLength) {
+            char[] expanded = new char[expandedLength];
+            int j = 0;
+            for (int i = beginIndex; i < endIndex; i++) {
+                char c = chars[i];
+                if (c == '\t') {
+                    int next = j + TAB_SIZE - (j % TAB_SIZE);
+                    while (j < next) {
+                        expanded[j++] = ' ';
+                    }
+                } else {
+                    expanded[j++] = c;
+                }
+            }
+            return expanded;
+        }
+        
+        private static int[] findTabs(char[] chars, int beginIndex, int endIndex, int numberOfTabs) {
+            int[] tabs = new int[numberOfTabs];
+            int column = 0;
+            int t = 0;
+            for (int i = beginIndex; i < endIndex; i++) {
+                if (chars[i] == '\t') {
+                    tabs[t++] = column;
+                    column += TAB_SIZE - (column % TAB_SIZE);
+                } else {
+                    column++;
+                }
+            }
+            return tabs;
         }
-        return b.toString();
     }
 }
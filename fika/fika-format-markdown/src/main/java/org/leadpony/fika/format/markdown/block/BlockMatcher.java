@@ -43,6 +43,18 @@ public interface BlockMatcher {
         return blockType().precedence();
     }
     
+    /**
+     * Returns the letters which can start the block,
+     * following the indentation of up to three spaces.
+     * The matcher is tried only for the lines starting with any of these letters.
+     * 
+     * @return the letters which can start the block, 
+     *         or an empty array if the block can start with any letter.
+     */
+    default char[] triggerLetters() {
+        return new char[0];
+    }
+    
     /**
      * Creates a new block builder for the given content.
      * 
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.format.markdown.block;
+
+import static java.util.Comparator.comparing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.leadpony.fika.format.markdown.common.InputSequence;
+
+/**
+ * Immutable table of block matchers,
+ * which can be shared by multiple block processors.
+ *
+ * <p>
+ * The matchers are sorted by their precedence,
+ * indexed by the block types they can interrupt or replace,
+ * and dispatched by the first letter of the line.
+ * </p>
+ *
+ * @author leadpony
+ */
+public final class BlockMatcherTable {
+
+    private final MatcherDispatchTable matchers;
+    private final Map<BlockType, MatcherDispatchTable> interrupters;
+    private final Map<BlockType, MatcherDispatchTable> replacers;
+
+    /**
+     * Constructs this table.
+     *
+     * @param matchers the block matchers to register, in any order.
+     * @throws IllegalArgumentException if any of the matchers
+     *         is triggered by a letter outside of ASCII.
+     */
+    public BlockMatcherTable(List<BlockMatcher> matchers) {
+        List<BlockMatcher> sorted = new ArrayList<>(matchers);
+        Collections.sort(sorted, comparing(BlockMatcher::precedence));
+        Map<BlockType, List<BlockMatcher>> interrupters = new HashMap<>();
+        Map<BlockType, List<BlockMatcher>> replacers = new HashMap<>();
+        for (BlockMatcher matcher: sorted) {
+            for (BlockType type: matcher.typesToInterrupt()) {
+                interrupters.computeIfAbsent(type, BlockMatcherTable::newMatcherList).add(matcher);
+            }
+            for (BlockType type: matcher.typesToReplace()) {
+                replacers.computeIfAbsent(type, BlockMatcherTable::newMatcherList).add(matcher);
+            }
+        }
+        this.matchers = new MatcherDispatchTable(sorted);
+        this.interrupters = freeze(interrupters);
+        this.replacers = freeze(replacers);
+    }
+
+    /**
+     * Returns the matchers which can start a block at the given line.
+     *
+     * @param input the content of the line, which must not be blank.
+     * @return the list of the matchers sorted by precedence.
+     */
+    List<BlockMatcher> matchersFor(InputSequence input) {
+        return matchers.matchersFor(input);
+    }
+
+    /**
+     * Returns the matchers which can interrupt the given type of block at the given line.
+     *
+     * @param type the type of the block to be interrupted.
+     * @param input the content of the line, which must not be blank.
+     * @return the list of the matchers, never be {@code null}.
+     */
+    List<BlockMatcher> interruptersOf(BlockType type, InputSequence input) {
+        return interrupters.getOrDefault(type, MatcherDispatchTable.EMPTY).matchersFor(input);
+    }
+
+    /**
+     * Returns the matchers which can replace the given type of block at the given line.
+     *
+     * @param type the type of the block to be replaced.
+     * @param input the content of the line, which must not be blank.
+     * @return the list of the matchers, never be {@code null}.
+     */
+    List<BlockMatcher> replacersOf(BlockType type, InputSequence input) {
+        return replacers.getOrDefault(type, MatcherDispatchTable.EMPTY).matchersFor(input);
+    }
+
+    private static List<BlockMatcher> newMatcherList(BlockType type) {
+        return new ArrayList<>();
+    }
+
+    private static Map<BlockType, MatcherDispatchTable> freeze(Map<BlockType, List<BlockMatcher>> map) {
+        Map<BlockType, MatcherDispatchTable> tables = new HashMap<>();
+        for (Map.Entry<BlockType, List<BlockMatcher>> entry: map.entrySet()) {
+            tables.put(entry.getKey(), new MatcherDispatchTable(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(tables);
+    }
+}
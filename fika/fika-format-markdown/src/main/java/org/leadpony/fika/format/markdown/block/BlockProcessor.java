@@ -15,10 +15,10 @@
  */
 package org.leadpony.fika.format.markdown.block;
 
-import java.util.Set;
+import java.util.function.Consumer;
 
 import org.leadpony.fika.core.model.Document;
-import org.leadpony.fika.core.model.Text;
+import org.leadpony.fika.core.model.Node;
 
 /**
  * Block processor.
@@ -33,6 +33,16 @@ public interface BlockProcessor {
      * @param line the line to process.
      */
     void process(String line);
+
+    /**
+     * Processes blocks in a line stored in the buffer.
+     * The buffer may be reused by the caller after this method returns.
+     * 
+     * @param chars the buffer containing the line.
+     * @param beginIndex the index of the first character of the line, inclusive.
+     * @param endIndex the index of the last character of the line, exclusive.
+     */
+    void process(char[] chars, int beginIndex, int endIndex);
     
     /**
      * Returns the document built by this processor.
@@ -42,9 +52,18 @@ public interface BlockProcessor {
     Document getDocument();
 
     /**
-     * Returns the all text nodes found.
+     * Returns the all text nodes found, in document order.
      * 
-     * @return the set of text nodes.
+     * @return the queue of text nodes.
+     */
+    InlineQueue getInlines();
+
+    /**
+     * Specifies the consumer of the top-level blocks.
+     * If the consumer is specified, each top-level block is passed to it
+     * as soon as the block is completed, and is not added to the document.
+     *
+     * @param consumer the consumer of the blocks, or {@code null} to add the blocks to the document.
      */
-    Set<Text> getInlines();
+    void setBlockConsumer(Consumer<Node> consumer);
 }
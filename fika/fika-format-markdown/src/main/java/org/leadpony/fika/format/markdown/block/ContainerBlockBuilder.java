@@ -30,6 +30,14 @@ import org.leadpony.fika.core.model.Node;
  */
 public abstract class ContainerBlockBuilder extends AbstractBlockBuilder {
     
+    /**
+     * The maximum nesting depth of the container blocks.
+     * The lines are processed recursively by the nested containers,
+     * hence the markers of the containers nested deeper than this 
+     * are treated as the text of a paragraph, instead of exhausting the stack.
+     */
+    public static final int MAX_NESTING_DEPTH = 100;
+    
     private BlockBuilder childBuilder;
     private final List<Node> childNodes = new ArrayList<>();
     private int numberOfCompletedChildren;
@@ -135,7 +143,7 @@ public abstract class ContainerBlockBuilder extends AbstractBlockBuilder {
         int count = 2;
         Result result;
         do {
-            result = child.appendLine(input);
+            result = appendLineToChild(child, input);
             if (result == Result.INTERRUPTED) {
                 BlockBuilder successor = child.successor();
                 closeChildBuilder(child);
@@ -155,6 +163,16 @@ public abstract class ContainerBlockBuilder extends AbstractBlockBuilder {
         return result;
     }
     
+    private Result appendLineToChild(BlockBuilder child, InputSequence input) {
+        BlockContext context = context();
+        context.enterContainer();
+        try {
+            return child.appendLine(input);
+        } finally {
+            context.leaveContainer();
+        }
+    }
+    
     protected BlockBuilder findAndOpenChildBuilder(InputSequence input) {
         BlockBuilder found = findChildBuilder(input);
         if (found != null) {
@@ -15,13 +15,7 @@
  */
 package org.leadpony.fika.format.markdown.block;
 
-import static java.util.Comparator.comparing;
-
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.leadpony.fika.format.markdown.common.InputSequence;
 
@@ -33,13 +27,11 @@ import org.leadpony.fika.format.markdown.common.InputSequence;
 class DefaultBlockBuilderFinder implements BlockBuilderFinder {
 
     private final BlockContext context;
-    private final List<BlockMatcher> matchers;
-    private final Map<BlockType, List<BlockMatcher>> interrupters = new HashMap<>();
-    private final Map<BlockType, List<BlockMatcher>> replacers = new HashMap<>();
+    private final BlockMatcherTable table;
 
-    DefaultBlockBuilderFinder(BlockContext context, List<BlockMatcher> matchers) {
+    DefaultBlockBuilderFinder(BlockContext context, BlockMatcherTable table) {
         this.context = context;
-        this.matchers = setUpMatchers(matchers);
+        this.table = table;
     }
 
     @Override
@@ -47,9 +39,9 @@ class DefaultBlockBuilderFinder implements BlockBuilderFinder {
         if (input.isBlank()) {
             return null;
         }
-        for (BlockMatcher matchers: this.matchers) {
-            BlockBuilder builder = matchers.newBuilder(input);
-            if (builder != null) {
+        for (BlockMatcher matcher: table.matchersFor(input)) {
+            BlockBuilder builder = matcher.newBuilder(input);
+            if (builder != null && canNest(builder)) {
                 return bindContextTo(builder);
             }
         }
@@ -62,13 +54,10 @@ class DefaultBlockBuilderFinder implements BlockBuilderFinder {
         if (input.isBlank()) {
             return null;
         }
-        List<BlockMatcher> matchers = interrupters.get(current.blockType());
-        if (matchers == null) {
-            return null;
-        }
+        List<BlockMatcher> matchers = table.interruptersOf(current.blockType(), input);
         for (BlockMatcher matcher: matchers) {
             BlockBuilder builder = matcher.newInterruptingBuilder(input, current, mode);
-            if (builder != null) {
+            if (builder != null && canNest(builder)) {
                 return bindContextTo(builder);
             }
         }
@@ -81,48 +70,29 @@ class DefaultBlockBuilderFinder implements BlockBuilderFinder {
         if (input.isBlank()) {
             return null;
         }
-        List<BlockMatcher> matchers = replacers.get(current.blockType());
-        if (matchers == null) {
-            return null;
-        }
+        List<BlockMatcher> matchers = table.replacersOf(current.blockType(), input);
         for (BlockMatcher matcher: matchers) {
             BlockBuilder builder = matcher.newReplacingBuilder(input, current, mode);
-            if (builder != null) {
+            if (builder != null && canNest(builder)) {
                 return bindContextTo(builder);
             }
         }
         return null;
     }
     
+    /**
+     * Checks if the builder can be nested at the current depth.
+     * 
+     * @param builder the builder found.
+     * @return {@code true} if the builder can be nested.
+     */
+    private boolean canNest(BlockBuilder builder) {
+        return !(builder instanceof ContainerBlockBuilder) 
+                || context.containerDepth() < ContainerBlockBuilder.MAX_NESTING_DEPTH;
+    }
+    
     private BlockBuilder bindContextTo(BlockBuilder builder) {
         builder.bind(this.context);
         return builder;
     }
-    
-    private List<BlockMatcher> setUpMatchers(List<BlockMatcher> matchers) {
-        Collections.sort(matchers, comparing(BlockMatcher::precedence));
-        for (BlockMatcher matcher: matchers) {
-            addInterruptingMatcher(matcher);
-            addReplacingMatcher(matcher);
-        }
-        return matchers;
-    }
-    
-    private void addInterruptingMatcher(BlockMatcher matcher) {
-        for (BlockType type: matcher.typesToInterrupt()) {
-            List<BlockMatcher> list = interrupters.computeIfAbsent(type, DefaultBlockBuilderFinder::newMatcherList);
-            list.add(matcher);
-        }
-    }
-
-    private void addReplacingMatcher(BlockMatcher matcher) {
-        for (BlockType type: matcher.typesToReplace()) {
-            List<BlockMatcher> list = replacers.computeIfAbsent(type, DefaultBlockBuilderFinder::newMatcherList);
-            list.add(matcher);
-        }
-    }
-    
-    private static List<BlockMatcher> newMatcherList(BlockType type) {
-        return new ArrayList<>();
-    }
 }
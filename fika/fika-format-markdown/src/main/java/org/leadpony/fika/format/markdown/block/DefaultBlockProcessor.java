@@ -16,9 +16,8 @@
 package org.leadpony.fika.format.markdown.block;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.function.Consumer;
 
 import org.leadpony.fika.format.markdown.common.InputSequence;
 import org.leadpony.fika.format.markdown.common.LinkDefinitionMap;
@@ -36,19 +35,27 @@ public class DefaultBlockProcessor implements BlockProcessor, BlockContext {
 
     private final NodeFactory nodeFactory;
     private final LinkDefinitionMap linkDefinitions;
-    private final Set<Text> inlines = new HashSet<>();
+    private final InlineQueue inlines = new InlineQueue();
     private final DocumentBuilder rootBuilder;
 
-    private DefaultBlockBuilderFinder builderFinder;
+    private final DefaultBlockBuilderFinder builderFinder;
     private int lineNumber;
+    private int containerDepth;
     
     public DefaultBlockProcessor(
             NodeFactory nodeFactory, 
             LinkDefinitionMap linkDefinitions,
             List<BlockMatcher> matchers) {
+        this(nodeFactory, linkDefinitions, new BlockMatcherTable(matchers));
+    }
+
+    public DefaultBlockProcessor(
+            NodeFactory nodeFactory, 
+            LinkDefinitionMap linkDefinitions,
+            BlockMatcherTable matcherTable) {
         this.nodeFactory = nodeFactory;
         this.linkDefinitions = linkDefinitions; 
-        this.builderFinder = new DefaultBlockBuilderFinder(this, matchers);
+        this.builderFinder = new DefaultBlockBuilderFinder(this, matcherTable);
         this.rootBuilder = new DocumentBuilder();
         this.rootBuilder.bind(this);
         this.lineNumber = 0;
@@ -58,7 +65,15 @@ public class DefaultBlockProcessor implements BlockProcessor, BlockContext {
 
     @Override
     public void process(String line) {
-        InputSequence input = BlockInputSequence.of(line);
+        processLine(BlockInputSequence.of(line));
+    }
+
+    @Override
+    public void process(char[] chars, int beginIndex, int endIndex) {
+        processLine(BlockInputSequence.of(chars, beginIndex, endIndex));
+    }
+    
+    private void processLine(InputSequence input) {
         this.lineNumber++;
         this.rootBuilder.processLine(input);
     }
@@ -71,10 +86,15 @@ public class DefaultBlockProcessor implements BlockProcessor, BlockContext {
     }
     
     @Override
-    public Set<Text> getInlines() {
+    public InlineQueue getInlines() {
         return inlines;
     }
 
+    @Override
+    public void setBlockConsumer(Consumer<Node> consumer) {
+        this.rootBuilder.setBlockConsumer(consumer);
+    }
+
     /* BlockMatcher.Context interface */
     
     @Override
@@ -92,6 +112,21 @@ public class DefaultBlockProcessor implements BlockProcessor, BlockContext {
         return builderFinder;
     }
 
+    @Override
+    public int containerDepth() {
+        return containerDepth;
+    }
+    
+    @Override
+    public void enterContainer() {
+        containerDepth++;
+    }
+    
+    @Override
+    public void leaveContainer() {
+        containerDepth--;
+    }
+
     @Override
     public LinkDefinitionMap getLinkDefinitionMap() {
         return linkDefinitions;
@@ -15,8 +15,13 @@
  */
 package org.leadpony.fika.format.markdown.block;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
 import org.leadpony.fika.format.markdown.common.InputSequence;
 import org.leadpony.fika.core.model.Document;
+import org.leadpony.fika.core.model.Node;
 
 /**
  * Builder of document node.
@@ -25,6 +30,18 @@ import org.leadpony.fika.core.model.Document;
  */
 public class DocumentBuilder extends ContainerBlockBuilder {
     
+    private Consumer<Node> blockConsumer;
+    
+    /**
+     * Specifies the consumer of the completed top-level blocks.
+     * 
+     * @param blockConsumer the consumer of the blocks, 
+     *                      or {@code null} to add the blocks to the document.
+     */
+    public void setBlockConsumer(Consumer<Node> blockConsumer) {
+        this.blockConsumer = blockConsumer;
+    }
+    
     @Override
     public BlockType blockType() {
         throw new UnsupportedOperationException();
@@ -36,6 +53,17 @@ public class DocumentBuilder extends ContainerBlockBuilder {
         return Result.CONTINUED;
     }
     
+    @Override
+    protected void buildChild(BlockBuilder builder, List<Node> nodes) {
+        if (this.blockConsumer == null) {
+            super.buildChild(builder, nodes);
+            return;
+        }
+        List<Node> blocks = new ArrayList<>(1);
+        builder.build(blocks);
+        blocks.forEach(this.blockConsumer);
+    }
+    
     @Override
     protected Document buildBlock() {
         return getNodeFactory().createDocument();
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.format.markdown.block;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.leadpony.fika.core.model.Text;
+
+/**
+ * Queue of the text nodes waiting for the inline processing.
+ * 
+ * <p>
+ * The text nodes are kept in an array in the order of the addition,
+ * which is the order of the blocks in the document.
+ * </p>
+ * 
+ * @author leadpony
+ */
+public final class InlineQueue implements Iterable<Text> {
+    
+    private static final int INITIAL_CAPACITY = 64;
+    
+    private Text[] elements;
+    private int size;
+    
+    /**
+     * Constructs an empty queue.
+     */
+    public InlineQueue() {
+        this.elements = new Text[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+    
+    /**
+     * Adds a text node to the last of this queue.
+     * 
+     * @param text the text node to add.
+     */
+    public void add(Text text) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, size * 2);
+        }
+        elements[size++] = text;
+    }
+    
+    /**
+     * Returns the text node at the specified position.
+     * 
+     * @param index the position of the text node.
+     * @return the text node found.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public Text get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+        return elements[index];
+    }
+    
+    /**
+     * Returns the number of the text nodes in this queue.
+     * 
+     * @return the number of the text nodes.
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Checks if this queue is empty.
+     * 
+     * @return {@code true} if this queue is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    /**
+     * Removes all text nodes from this queue.
+     */
+    public void clear() {
+        Arrays.fill(elements, 0, size, null);
+        size = 0;
+    }
+
+    @Override
+    public Iterator<Text> iterator() {
+        return new Iterator<Text>() {
+            
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public Text next() {
+                if (index >= size) {
+                    throw new NoSuchElementException();
+                }
+                return elements[index++];
+            }
+        };
+    }
+}
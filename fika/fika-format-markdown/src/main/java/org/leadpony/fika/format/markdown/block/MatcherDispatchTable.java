@@ -0,0 +1,104 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.format.markdown.block;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.leadpony.fika.format.markdown.common.InputSequence;
+
+/**
+ * Immutable table dispatching a line to the block matchers
+ * by the first letter following the indentation.
+ *
+ * <p>
+ * The matchers which declare their trigger letters are registered only
+ * in the slots of those letters, while the other matchers are registered
+ * in all slots as fallbacks. Each slot keeps the order of precedence.
+ * </p>
+ *
+ * @author leadpony
+ */
+final class MatcherDispatchTable {
+
+    /**
+     * The maximum indentation allowed before the trigger letter.
+     */
+    private static final int MAX_INDENT = 3;
+    private static final int TABLE_SIZE = 128;
+
+    static final MatcherDispatchTable EMPTY = new MatcherDispatchTable(Collections.emptyList());
+
+    private final List<List<BlockMatcher>> slots;
+    private final List<BlockMatcher> fallbacks;
+
+    /**
+     * Constructs this table.
+     *
+     * @param matchers the block matchers sorted by precedence.
+     * @throws IllegalArgumentException if any of the matchers
+     *         is triggered by a letter outside of ASCII.
+     */
+    MatcherDispatchTable(List<BlockMatcher> matchers) {
+        List<BlockMatcher> fallbacks = new ArrayList<>();
+        List<List<BlockMatcher>> slots = new ArrayList<>(TABLE_SIZE);
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            slots.add(new ArrayList<>());
+        }
+        for (BlockMatcher matcher : matchers) {
+            char[] letters = matcher.triggerLetters();
+            if (letters.length == 0) {
+                fallbacks.add(matcher);
+                for (List<BlockMatcher> slot : slots) {
+                    slot.add(matcher);
+                }
+            } else {
+                for (char letter : letters) {
+                    if (letter >= TABLE_SIZE) {
+                        throw new IllegalArgumentException();
+                    }
+                    List<BlockMatcher> slot = slots.get(letter);
+                    if (!slot.contains(matcher)) {
+                        slot.add(matcher);
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            slots.set(i, Collections.unmodifiableList(slots.get(i)));
+        }
+        this.slots = slots;
+        this.fallbacks = Collections.unmodifiableList(fallbacks);
+    }
+
+    /**
+     * Returns the matchers which can match the given line.
+     *
+     * @param input the content of the line, which must not be blank.
+     * @return the list of the matchers sorted by precedence, never be {@code null}.
+     */
+    List<BlockMatcher> matchersFor(InputSequence input) {
+        int indent = input.countLeadingSpaces(0, MAX_INDENT + 1);
+        if (indent <= MAX_INDENT && indent < input.length()) {
+            char letter = input.charAt(indent);
+            if (letter < TABLE_SIZE) {
+                return slots.get(letter);
+            }
+        }
+        return fallbacks;
+    }
+}
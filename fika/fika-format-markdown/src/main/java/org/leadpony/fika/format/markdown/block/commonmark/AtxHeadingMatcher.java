@@ -37,6 +37,11 @@ public class AtxHeadingMatcher implements BlockMatcher {
     public BlockType blockType() {
         return BasicBlockType.ATX_HEADING;
     }
+
+    @Override
+    public char[] triggerLetters() {
+        return new char[] { '#' };
+    }
     
     @Override
     public Set<? extends BlockType> typesToInterrupt() {
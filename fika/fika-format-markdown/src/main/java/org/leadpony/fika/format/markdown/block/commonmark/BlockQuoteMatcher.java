@@ -36,6 +36,11 @@ public class BlockQuoteMatcher implements BlockMatcher {
         return BasicBlockType.BLOCK_QUOTE;
     }
 
+    @Override
+    public char[] triggerLetters() {
+        return new char[] { '>' };
+    }
+
     @Override
     public Set<? extends BlockType> typesToInterrupt() {
         return EnumSet.of(BasicBlockType.PARAGRAPH, BasicBlockType.LINK_DEFINITION);
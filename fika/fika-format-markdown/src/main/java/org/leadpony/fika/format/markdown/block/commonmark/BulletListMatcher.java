@@ -30,6 +30,11 @@ public class BulletListMatcher extends AbstractListMatcher {
     public BlockType blockType() {
         return BasicBlockType.BULLET_LIST;
     }
+
+    @Override
+    public char[] triggerLetters() {
+        return new char[] { '-', '+', '*' };
+    }
     
     @Override
     public Set<? extends BlockType> typesToInterrupt() {
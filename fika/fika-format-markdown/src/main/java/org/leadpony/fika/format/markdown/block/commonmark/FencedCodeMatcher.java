@@ -38,6 +38,11 @@ public class FencedCodeMatcher implements BlockMatcher {
     public BlockType blockType() {
         return BasicBlockType.FENCED_CODE;
     }
+
+    @Override
+    public char[] triggerLetters() {
+        return new char[] { '`', '~' };
+    }
  
     @Override
     public Set<? extends BlockType> typesToInterrupt() {
@@ -18,13 +18,12 @@ package org.leadpony.fika.format.markdown.block.commonmark;
 import static org.leadpony.fika.format.markdown.common.Characters.isWhitespace;
 
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.leadpony.fika.format.markdown.block.AbstractBlockBuilder;
 import org.leadpony.fika.format.markdown.block.BlockType;
-import org.leadpony.fika.format.markdown.common.HtmlMatchers;
+import org.leadpony.fika.format.markdown.common.HtmlScanner;
 import org.leadpony.fika.format.markdown.common.InputSequence;
 import org.leadpony.fika.core.model.Block;
 
@@ -52,6 +51,43 @@ class HtmlBlockBuilder extends AbstractBlockBuilder {
     protected void accumelateLine(InputSequence input) {
         this.builder.append(input.toSourceString()).append('\n');
     }
+
+    /**
+     * Checks if the input contains the specified text at the index,
+     * ignoring case of ASCII letters.
+     *
+     * @param input the input to check.
+     * @param index the index in the input.
+     * @param text the text in lower case.
+     * @return {@code true} if the text was found.
+     */
+    static boolean regionMatchesIgnoreCase(InputSequence input, int index, String text) {
+        if (index + text.length() > input.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); ++i) {
+            char c = input.charAt(index + i);
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            if (c != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the tag name found at the index in lower case.
+     *
+     * @param input the input.
+     * @param beginIndex the index of the tag name.
+     * @param endIndex the index after the tag name.
+     * @return the tag name in lower case.
+     */
+    static String lowerCaseName(InputSequence input, int beginIndex, int endIndex) {
+        return input.subSequence(beginIndex, endIndex).toString().toLowerCase(Locale.ROOT);
+    }
 }
 
 /**
@@ -59,15 +95,21 @@ class HtmlBlockBuilder extends AbstractBlockBuilder {
  */
 class HtmlScriptBlockBuilder extends HtmlBlockBuilder {
 
-    private static final Pattern START_PATTERN = Pattern.compile(
-            "^<(script|pre|style)(\\u0020|>|$)", Pattern.CASE_INSENSITIVE);
-    
-    private static final Pattern END_PATTERN = Pattern.compile(
-            "</(script|pre|style)>", Pattern.CASE_INSENSITIVE);
+    private static final String[] NAMES = { "script", "pre", "style" };
 
     static HtmlBlockBuilder start(InputSequence input) {
-        if (START_PATTERN.matcher(input).find()) {
-            return new HtmlScriptBlockBuilder();
+        if (input.length() < 2 || input.charAt(0) != '<') {
+            return null;
+        }
+        for (String name : NAMES) {
+            if (regionMatchesIgnoreCase(input, 1, name)) {
+                int next = name.length() + 1;
+                if (next == input.length()
+                        || input.charAt(next) == '\u0020'
+                        || input.charAt(next) == '>') {
+                    return new HtmlScriptBlockBuilder();
+                }
+            }
         }
         return null;
     }
@@ -75,10 +117,25 @@ class HtmlScriptBlockBuilder extends HtmlBlockBuilder {
     @Override
     public Result processLine(InputSequence input) {
         accumelateLine(input);
-        if (END_PATTERN.matcher(input).find()) {
-            return Result.COMPLETED;
+        return containsEndTag(input) ? Result.COMPLETED : Result.CONTINUED;
+    }
+
+    private static boolean containsEndTag(InputSequence input) {
+        final int last = input.length() - 2;
+        for (int i = 0; i < last; ++i) {
+            if (input.charAt(i) != '<' || input.charAt(i + 1) != '/') {
+                continue;
+            }
+            for (String name : NAMES) {
+                int next = i + 2 + name.length();
+                if (regionMatchesIgnoreCase(input, i + 2, name)
+                        && next < input.length()
+                        && input.charAt(next) == '>') {
+                    return true;
+                }
+            }
         }
-        return Result.CONTINUED;
+        return false;
     }
 }
 
@@ -125,10 +182,9 @@ class ProcessingInstructionBuilder extends HtmlBlockBuilder {
  */
 class DeclarationBuilder extends HtmlBlockBuilder {
     
-    private static final Pattern START_PATTERN = Pattern.compile("^<![A-Z]");
-
     static HtmlBlockBuilder start(InputSequence input) {
-        if (START_PATTERN.matcher(input).find()) {
+        if (input.startsWith("<!") && input.length() > 2
+                && input.charAt(2) >= 'A' && input.charAt(2) <= 'Z') {
             return new DeclarationBuilder();
         }
         return null;
@@ -165,14 +221,6 @@ class CDataSectionBuilder extends HtmlBlockBuilder {
  */
 class HtmlElementBlockBuilder extends HtmlBlockBuilder {
 
-    private static final Pattern START_PATTERN = Pattern.compile(
-            "^("
-            + "(<(\\w+)(\\u0020|$|>|/>))"
-            + "|"
-            + "(</(\\w+)(\\u0020|$|>))"
-            + ")"
-            );
-    
     @SuppressWarnings("serial")
     private static final Set<String> ELEMENTS_ALLOWED = new HashSet<String>() {{
         add("address");
@@ -241,20 +289,40 @@ class HtmlElementBlockBuilder extends HtmlBlockBuilder {
     }};
     
     static HtmlBlockBuilder start(InputSequence input) {
-        Matcher m = START_PATTERN.matcher(input);
-        if (!m.find()) {
+        if (input.length() < 2 || input.charAt(0) != '<') {
             return null;
         }
-        String tag = m.group(3);
-        if (tag == null) {
-            tag = m.group(6);
+        final boolean closing = input.charAt(1) == '/';
+        final int beginIndex = closing ? 2 : 1;
+        int i = beginIndex;
+        while (i < input.length() && isWordLetter(input.charAt(i))) {
+            ++i;
+        }
+        if (i == beginIndex) {
+            return null;
+        }
+        final int endIndex = i;
+        if (i < input.length()) {
+            char c = input.charAt(i);
+            if (c == '/' && !closing) {
+                if (++i >= input.length() || input.charAt(i) != '>') {
+                    return null;
+                }
+            } else if (c != '\u0020' && c != '>') {
+                return null;
+            }
         }
-        if (ELEMENTS_ALLOWED.contains(tag.toLowerCase())) {
+        if (ELEMENTS_ALLOWED.contains(lowerCaseName(input, beginIndex, endIndex))) {
             return new HtmlElementBlockBuilder();
         }
         return null;
     }
     
+    private static boolean isWordLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')
+                || (c >= '0' && c <= '9') || c == '_';
+    }
+    
     @Override
     public Result processLine(InputSequence input) {
         if (input.isBlank()) {
@@ -283,12 +351,22 @@ class HtmlTagBlockBuilder extends HtmlBlockBuilder {
     }};
     
     static HtmlBlockBuilder start(InputSequence input) {
-        Matcher m = HtmlMatchers.newTagLineMatcher(input);
-        if (!m.matches()) {
+        int length = HtmlScanner.scanOpenTag(input, 0);
+        int beginIndex = 1;
+        if (length == 0) {
+            length = HtmlScanner.scanClosingTag(input, 0);
+            beginIndex = 2;
+        }
+        if (length == 0) {
             return null;
         }
-        String tag = extractTagName(m.group());
-        if (!ELEMENTS_NOT_ALLOWED.contains(tag.toLowerCase())) {
+        for (int i = length; i < input.length(); ++i) {
+            if (!isWhitespace(input.charAt(i))) {
+                return null;
+            }
+        }
+        final int endIndex = beginIndex + HtmlScanner.scanTagName(input, beginIndex);
+        if (!ELEMENTS_NOT_ALLOWED.contains(lowerCaseName(input, beginIndex, endIndex))) {
             return new HtmlTagBlockBuilder();
         }
         return null;
@@ -302,20 +380,4 @@ class HtmlTagBlockBuilder extends HtmlBlockBuilder {
         accumelateLine(input);
         return Result.CONTINUED;
     }
-    
-    private static String extractTagName(String tag) {
-        int i = 1;
-        int beginIndex = 1;
-        if (tag.charAt(i) == '/') {
-            beginIndex = 2;
-            ++i;
-        }
-        for (; i < tag.length(); ++i) {
-            char c = tag.charAt(i);
-            if (isWhitespace(c) || c == '>' || c == '/') {
-                break;
-            }
-        }
-        return tag.substring(beginIndex, i);
-    }
 }
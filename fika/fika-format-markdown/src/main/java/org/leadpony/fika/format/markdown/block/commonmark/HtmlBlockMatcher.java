@@ -56,6 +56,11 @@ public class HtmlBlockMatcher implements BlockMatcher {
         return BasicBlockType.HTML_BLOCK;
     }
 
+    @Override
+    public char[] triggerLetters() {
+        return new char[] { '<' };
+    }
+
     @Override
     public Set<? extends BlockType> typesToInterrupt() {
         return EnumSet.of(BasicBlockType.PARAGRAPH, BasicBlockType.LINK_DEFINITION);
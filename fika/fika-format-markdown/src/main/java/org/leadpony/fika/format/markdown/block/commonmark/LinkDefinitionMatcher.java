@@ -32,6 +32,11 @@ public class LinkDefinitionMatcher implements BlockMatcher {
         return BasicBlockType.LINK_DEFINITION;
     }
 
+    @Override
+    public char[] triggerLetters() {
+        return new char[] { '[' };
+    }
+
     @Override
     public BlockBuilder newBuilder(InputSequence input) {
         int spaces = input.countLeadingSpaces(0,  3);
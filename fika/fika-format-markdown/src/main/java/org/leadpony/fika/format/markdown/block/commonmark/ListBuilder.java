@@ -33,7 +33,7 @@ abstract class ListBuilder extends ContainerBlockBuilder {
     private final ListItemBuilder firstItemBuilder;
 
     private boolean loose;
-    private InputSequence previousInput;
+    private boolean previousLineBlank;
 
     protected ListBuilder(ListItemBuilder firstItemMatcher) {
         this.firstItemBuilder = firstItemMatcher;
@@ -65,7 +65,7 @@ abstract class ListBuilder extends ContainerBlockBuilder {
 
     @Override
     public void openChildBuilder(BlockBuilder childBuilder) {
-        if (hasCompletedChildren() && previousInput.isBlank()) {
+        if (hasCompletedChildren() && previousLineBlank) {
             this.loose = true;
         }
         super.openChildBuilder(childBuilder);
@@ -98,7 +98,7 @@ abstract class ListBuilder extends ContainerBlockBuilder {
 
     @Override
     protected void postprocessLine(InputSequence input) {
-        this.previousInput = input;
+        this.previousLineBlank = input.isBlank();
     }
 
     @Override
@@ -36,7 +36,7 @@ abstract class ListItemBuilder extends ContainerBlockBuilder {
     private final boolean empty;
     private int linesNotMatched;
     private boolean loose;
-    private InputSequence previousInput;
+    private boolean previousLineBlank;
     
     protected ListItemBuilder(int indentSize, boolean empty) {
         this.indentSize = indentSize;
@@ -78,7 +78,7 @@ abstract class ListItemBuilder extends ContainerBlockBuilder {
  
     @Override
     public void openChildBuilder(BlockBuilder childBuilder) {
-        if (hasCompletedChildren() && this.previousInput.isBlank()) {
+        if (hasCompletedChildren() && this.previousLineBlank) {
             this.loose = true;
         }
         super.openChildBuilder(childBuilder);
@@ -104,7 +104,7 @@ abstract class ListItemBuilder extends ContainerBlockBuilder {
  
     @Override
     protected void postprocessLine(InputSequence input) {
-        this.previousInput = input;
+        this.previousLineBlank = input.isBlank();
     }
     
     @Override
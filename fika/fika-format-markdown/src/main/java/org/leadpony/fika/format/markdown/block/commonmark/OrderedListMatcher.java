@@ -31,6 +31,11 @@ public class OrderedListMatcher extends AbstractListMatcher {
         return BasicBlockType.ORDERED_LIST;
     }
 
+    @Override
+    public char[] triggerLetters() {
+        return new char[] { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9' };
+    }
+
     @Override
     public Set<? extends BlockType> typesToInterrupt() {
         return EnumSet.of(
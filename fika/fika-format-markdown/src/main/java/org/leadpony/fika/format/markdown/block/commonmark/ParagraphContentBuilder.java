@@ -15,22 +15,28 @@
  */
 package org.leadpony.fika.format.markdown.block.commonmark;
 
-import static org.leadpony.fika.format.markdown.common.Strings.trimLeadingWhitespace;
-import static org.leadpony.fika.format.markdown.common.Strings.trimWhitespace;
+import static org.leadpony.fika.format.markdown.common.Characters.isWhitespace;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 import org.leadpony.fika.format.markdown.common.InputSequence;
 
 /**
  * Builder of content in paragraph.
  * 
+ * <p>
+ * All lines are accumulated in a single buffer with their leading whitespace
+ * removed, so that the content can be extracted with a single copy.
+ * </p>
+ * 
  * @author leadpony
  */
 class ParagraphContentBuilder {
 
-    private final List<String> lines = new ArrayList<>();
+    private final StringBuilder buffer = new StringBuilder();
+    // the offsets of the lines in the buffer.
+    private int[] lineOffsets = new int[4];
+    private int lineCount;
     
     /**
      * Adds a new input to this content.
@@ -38,7 +44,21 @@ class ParagraphContentBuilder {
      * @param input the input to add.
      */
     public void addLine(InputSequence input) {
-        this.lines.add(input.toSourceString());
+        if (lineCount == lineOffsets.length) {
+            lineOffsets = Arrays.copyOf(lineOffsets, lineCount * 2);
+        }
+        final StringBuilder b = this.buffer;
+        final int offset = b.length();
+        lineOffsets[lineCount++] = offset;
+        input.appendSourceTo(b);
+        int leading = offset;
+        while (leading < b.length() && isWhitespace(b.charAt(leading))) {
+            ++leading;
+        }
+        if (leading > offset) {
+            b.delete(offset, leading);
+        }
+        b.append('\n');
     }
     
     /**
@@ -60,11 +80,15 @@ class ParagraphContentBuilder {
      * @return the content of the paragraph.
      */
     public String toContent(int linesToSkip) {
-        StringBuilder b = new StringBuilder();
-        for (int i = linesToSkip; i < lines.size(); ++i) {
-            String line = lines.get(i);
-            b.append(trimLeadingWhitespace(line)).append('\n');
+        final StringBuilder b = this.buffer;
+        int beginIndex = (linesToSkip < lineCount) ? lineOffsets[linesToSkip] : b.length();
+        int endIndex = b.length();
+        while (beginIndex < endIndex && isWhitespace(b.charAt(beginIndex))) {
+            ++beginIndex;
+        }
+        while (endIndex > beginIndex && isWhitespace(b.charAt(endIndex - 1))) {
+            --endIndex;
         }
-        return trimWhitespace(b.toString());
+        return b.substring(beginIndex, endIndex);
     }
 }
@@ -39,6 +39,11 @@ public class SetextHeadingMatcher implements BlockMatcher {
         return BasicBlockType.SETEXT_HEADING;
     }
 
+    @Override
+    public char[] triggerLetters() {
+        return new char[] { '=', '-' };
+    }
+
     @Override
     public Set<? extends BlockType> typesToReplace() {
         return EnumSet.of(BasicBlockType.PARAGRAPH);
@@ -30,13 +30,16 @@ import org.leadpony.fika.format.markdown.common.InputSequence;
  * @author leadpony
  */
 public class ThematicBreakMatcher implements BlockMatcher {
-    
-    private final ThematicBreakBuilder builder = new ThematicBreakBuilder();
 
     @Override
     public BlockType blockType() {
         return BasicBlockType.THEMATIC_BREAK;
     }
+
+    @Override
+    public char[] triggerLetters() {
+        return new char[] { '-', '_', '*' };
+    }
     
     @Override
     public Set<? extends BlockType> typesToInterrupt() {
@@ -49,7 +52,7 @@ public class ThematicBreakMatcher implements BlockMatcher {
 
     @Override
     public BlockBuilder newBuilder(InputSequence input) {
-        return testLine(input) ? builder : null;
+        return testLine(input) ? new ThematicBreakBuilder() : null;
     }
 
     @Override
@@ -66,9 +69,13 @@ public class ThematicBreakMatcher implements BlockMatcher {
         return testLine(input, i + 1, lineChar);
     }
 
+    /*
+     * Scans the line backward so that the line of nested list items,
+     * which ends with their content, is rejected at once.
+     */
     private static boolean testLine(InputSequence input, int offset, char lineChar) {
         int dashes = 1;
-        for (int i = offset; i < input.length(); ++i) {
+        for (int i = input.length() - 1; i >= offset; --i) {
             char c = input.charAt(i);
             if (c == '\u0020' || c == '\t') {
                 continue;
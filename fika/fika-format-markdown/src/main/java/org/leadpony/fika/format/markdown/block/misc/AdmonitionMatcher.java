@@ -45,6 +45,11 @@ public class AdmonitionMatcher implements BlockMatcher {
         return BasicBlockType.ADMONITION;
     }
 
+    @Override
+    public char[] triggerLetters() {
+        return new char[] { '!' };
+    }
+
     @Override
     public BlockBuilder newBuilder(InputSequence input) {
         final int spaces = input.countLeadingSpaces(0, 3);
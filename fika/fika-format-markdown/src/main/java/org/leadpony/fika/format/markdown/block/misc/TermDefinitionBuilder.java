@@ -31,7 +31,7 @@ class TermDefinitionBuilder extends ContainerBlockBuilder {
 
     private final int indentSize;
     private boolean loose;
-    private InputSequence previousInput;
+    private boolean previousLineBlank;
     
     TermDefinitionBuilder(int identSize) {
         this.indentSize = identSize;
@@ -65,7 +65,7 @@ class TermDefinitionBuilder extends ContainerBlockBuilder {
 
     @Override
     protected void postprocessLine(InputSequence input) {
-        this.previousInput = input;
+        this.previousLineBlank = input.isBlank();
     }
     
     @Override
@@ -75,7 +75,7 @@ class TermDefinitionBuilder extends ContainerBlockBuilder {
 
     @Override
     public void openChildBuilder(BlockBuilder childBuilder) {
-        if (hasCompletedChildren() && this.previousInput.isBlank()) {
+        if (hasCompletedChildren() && this.previousLineBlank) {
             this.loose = true;
         }
         super.openChildBuilder(childBuilder);
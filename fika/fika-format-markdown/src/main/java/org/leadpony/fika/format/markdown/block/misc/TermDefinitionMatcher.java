@@ -36,6 +36,11 @@ public class TermDefinitionMatcher implements BlockMatcher {
         return BasicBlockType.TERM_DEFINITIION;
     }
 
+    @Override
+    public char[] triggerLetters() {
+        return new char[] { ':' };
+    }
+
     @Override
     public Set<? extends BlockType> typesToInterrupt() {
         return EnumSet.of(BasicBlockType.TERM, BasicBlockType.TERM_DEFINITIION);
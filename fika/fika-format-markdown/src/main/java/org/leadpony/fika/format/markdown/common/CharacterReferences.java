@@ -0,0 +1,152 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.format.markdown.common;
+
+import static org.leadpony.fika.format.markdown.common.Characters.sanitize;
+
+/**
+ * Recognizer of entity and numeric character references,
+ * which scans the input in place without regular expressions.
+ *
+ * @author leadpony
+ */
+public final class CharacterReferences {
+
+    // the maximum number of digits in a numeric character reference.
+    private static final int MAX_DIGITS = 8;
+
+    /**
+     * Recognizes the syntax of a character reference starting at the specified
+     * index. Whether an entity with the name exists is not checked.
+     *
+     * @param s     the sequence to scan.
+     * @param index the index of the ampersand.
+     * @return the length of the reference including the ampersand and the
+     *         semicolon, or 0 if there is no reference.
+     */
+    public static int recognize(CharSequence s, int index) {
+        final int length = s.length();
+        if (index >= length || s.charAt(index) != '&') {
+            return 0;
+        }
+        int i = index + 1;
+        if (i < length && s.charAt(i) == '#') {
+            ++i;
+            boolean hex = false;
+            if (i < length && (s.charAt(i) == 'x' || s.charAt(i) == 'X')) {
+                hex = true;
+                ++i;
+            }
+            final int start = i;
+            while (i < length && i - start < MAX_DIGITS && digitOf(s.charAt(i), hex) >= 0) {
+                ++i;
+            }
+            if (i == start) {
+                return 0;
+            }
+        } else {
+            final int start = i;
+            while (i < length && isAsciiAlphanumeric(s.charAt(i))) {
+                ++i;
+            }
+            if (i == start) {
+                return 0;
+            }
+        }
+        if (i < length && s.charAt(i) == ';') {
+            return i + 1 - index;
+        }
+        return 0;
+    }
+
+    /**
+     * Checks if the recognized reference is a numeric character reference.
+     *
+     * @param s     the sequence containing the reference.
+     * @param index the index of the ampersand.
+     * @return {@code true} if the reference is numeric.
+     */
+    public static boolean isNumeric(CharSequence s, int index) {
+        return s.charAt(index + 1) == '#';
+    }
+
+    /**
+     * Returns the code point of the recognized numeric character reference.
+     *
+     * @param s      the sequence containing the reference.
+     * @param index  the index of the ampersand.
+     * @param length the length of the reference.
+     * @return the code point, replaced if invalid.
+     */
+    public static int codePointOf(CharSequence s, int index, int length) {
+        int i = index + 2;
+        final int end = index + length - 1;
+        boolean hex = false;
+        char c = s.charAt(i);
+        if (c == 'x' || c == 'X') {
+            hex = true;
+            ++i;
+        }
+        final int radix = hex ? 16 : 10;
+        long value = 0;
+        while (i < end) {
+            value = value * radix + digitOf(s.charAt(i++), hex);
+        }
+        return sanitize(value > Character.MAX_CODE_POINT ? -1 : (int) value);
+    }
+
+    /**
+     * Resolves the recognized character reference.
+     *
+     * @param s      the sequence containing the reference.
+     * @param index  the index of the ampersand.
+     * @param length the length of the reference.
+     * @param builder the builder to which the resolved characters will be appended.
+     * @return {@code true} if resolved, {@code false} if the entity is unknown.
+     */
+    public static boolean resolve(CharSequence s, int index, int length, StringBuilder builder) {
+        if (isNumeric(s, index)) {
+            builder.appendCodePoint(codePointOf(s, index, length));
+            return true;
+        }
+        String resolved = EntityResolver.get().resolve(s, index + 1, index + length - 1);
+        if (resolved == null) {
+            return false;
+        }
+        builder.append(resolved);
+        return true;
+    }
+
+    private static int digitOf(char c, boolean hex) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        } else if (hex) {
+            if (c >= 'a' && c <= 'f') {
+                return c - 'a' + 10;
+            } else if (c >= 'A' && c <= 'F') {
+                return c - 'A' + 10;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isAsciiAlphanumeric(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    private CharacterReferences() {
+    }
+}
@@ -20,34 +20,122 @@ import java.io.InputStream;
 import java.util.Properties;
 
 /**
+ * Resolver of named character references.
+ *
+ * <p>
+ * The entities are loaded lazily on first use into an immutable hash table
+ * whose names share a single char array. Lookups neither lock nor allocate,
+ * and accept any range of a {@link CharSequence}.
+ * </p>
+ *
  * @author leadpony
  */
-public class EntityResolver {
+public final class EntityResolver {
 
-    private static final EntityResolver instance = new EntityResolver();
     private static final String RESOURCE_NAME = "entities.properties";
-    
-    private final Properties entities = new Properties();
+
+    // all entity names concatenated.
+    private final char[] names;
+    // the offsets of the names, followed by the total length.
+    private final int[] offsets;
+    private final String[] values;
+    // the indices of the entities plus one, or zero for empty slots.
+    private final int[] slots;
+    private final int mask;
 
     public static EntityResolver get() {
-        return instance;
+        return Holder.INSTANCE;
     }
-    
-    private EntityResolver() {
-        populateEntities();
+
+    private EntityResolver(Properties entities) {
+        final int size = entities.size();
+        this.offsets = new int[size + 1];
+        this.values = new String[size];
+        int capacity = Integer.highestOneBit(Math.max(size, 1) * 2) * 2;
+        this.slots = new int[capacity];
+        this.mask = capacity - 1;
+
+        StringBuilder b = new StringBuilder();
+        int index = 0;
+        for (String name : entities.stringPropertyNames()) {
+            offsets[index] = b.length();
+            b.append(name);
+            values[index] = entities.getProperty(name);
+            int slot = hash(name, 0, name.length()) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = index + 1;
+            index++;
+        }
+        offsets[size] = b.length();
+        this.names = new char[b.length()];
+        b.getChars(0, b.length(), this.names, 0);
     }
-    
+
     public String resolve(String s) {
-        return entities.getProperty(s);
+        return resolve(s, 0, s.length());
+    }
+
+    /**
+     * Resolves the entity whose name is the specified range of the sequence.
+     *
+     * @param s          the sequence containing the name of the entity.
+     * @param beginIndex the beginning index of the name, inclusive.
+     * @param endIndex   the ending index of the name, exclusive.
+     * @return the characters of the entity, or {@code null} if not found.
+     */
+    public String resolve(CharSequence s, int beginIndex, int endIndex) {
+        int slot = hash(s, beginIndex, endIndex) & mask;
+        int entry;
+        while ((entry = slots[slot]) != 0) {
+            if (nameEquals(entry - 1, s, beginIndex, endIndex)) {
+                return values[entry - 1];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
     }
-    
-    private void populateEntities() {
-        try (InputStream in = getClass().getResourceAsStream(RESOURCE_NAME)) {
+
+    private boolean nameEquals(int index, CharSequence s, int beginIndex, int endIndex) {
+        int offset = offsets[index];
+        if (offsets[index + 1] - offset != endIndex - beginIndex) {
+            return false;
+        }
+        for (int i = beginIndex; i < endIndex; i++) {
+            if (names[offset++] != s.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(CharSequence s, int beginIndex, int endIndex) {
+        int h = 0;
+        for (int i = beginIndex; i < endIndex; i++) {
+            h = 31 * h + s.charAt(i);
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static EntityResolver load() {
+        Properties entities = new Properties();
+        try (InputStream in = EntityResolver.class.getResourceAsStream(RESOURCE_NAME)) {
             if (in != null) {
                 entities.load(in);
             }
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
+        return new EntityResolver(entities);
+    }
+
+    /**
+     * Holder of the singleton, which is loaded on first use.
+     *
+     * @author leadpony
+     */
+    private static class Holder {
+        static final EntityResolver INSTANCE = load();
     }
 }
@@ -0,0 +1,397 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.format.markdown.common;
+
+import static org.leadpony.fika.format.markdown.common.Characters.isWhitespace;
+
+/**
+ * Scanner of raw HTML constructs.
+ *
+ * <p>
+ * Each method scans the input in place starting at the specified index,
+ * and returns the length of the construct found, or 0 if there is none.
+ * The scanners run in time linear to the length of the construct and never
+ * backtrack.
+ * </p>
+ * <p>
+ * Processing instructions, declarations, and CDATA sections are terminated
+ * by the first closing sequence found after the opening one, which may be
+ * placed at the end of the input. When the same input is scanned repeatedly
+ * at different positions, a {@link Memo} records the positions from which
+ * each closing sequence is known to be absent,
+ * so that the input is never searched twice for the missing sequence.
+ * </p>
+ *
+ * @author leadpony
+ */
+public final class HtmlScanner {
+
+    private static final int NO_MATCH = -1;
+
+    /**
+     * Scans any of open tag, closing tag, HTML comment, processing instruction,
+     * declaration, or CDATA section.
+     *
+     * @param s     the input to scan.
+     * @param index the index of the less-than sign.
+     * @return the length of the construct found, or 0.
+     */
+    public static int scanHtml(CharSequence s, int index) {
+        return scanHtml(s, index, null);
+    }
+
+    /**
+     * Scans any of open tag, closing tag, HTML comment, processing instruction,
+     * declaration, or CDATA section, using the results of the previous scans
+     * of the same input.
+     *
+     * @param s     the input to scan.
+     * @param index the index of the less-than sign.
+     * @param memo  the memo of the previous scans of the same input, may be {@code null}.
+     * @return the length of the construct found, or 0.
+     */
+    public static int scanHtml(CharSequence s, int index, Memo memo) {
+        if (!hasChar(s, index, '<')) {
+            return 0;
+        }
+        int end;
+        char c = charAt(s, index + 1);
+        if (c == '/') {
+            end = closingTag(s, index);
+        } else if (c == '!') {
+            end = comment(s, index);
+            if (end == NO_MATCH) {
+                end = cdataSection(s, index, memo);
+            }
+            if (end == NO_MATCH) {
+                end = declaration(s, index, memo);
+            }
+        } else if (c == '?') {
+            end = processingInstruction(s, index, memo);
+        } else {
+            end = openTag(s, index);
+        }
+        return lengthOf(end, index);
+    }
+
+    /**
+     * Scans an open tag.
+     *
+     * @param s     the input to scan.
+     * @param index the index of the less-than sign.
+     * @return the length of the tag found, or 0.
+     */
+    public static int scanOpenTag(CharSequence s, int index) {
+        return lengthOf(openTag(s, index), index);
+    }
+
+    /**
+     * Scans a closing tag.
+     *
+     * @param s     the input to scan.
+     * @param index the index of the less-than sign.
+     * @return the length of the tag found, or 0.
+     */
+    public static int scanClosingTag(CharSequence s, int index) {
+        return lengthOf(closingTag(s, index), index);
+    }
+
+    /**
+     * Scans a tag name.
+     *
+     * @param s     the input to scan.
+     * @param index the index of the first letter of the name.
+     * @return the length of the tag name found, or 0.
+     */
+    public static int scanTagName(CharSequence s, int index) {
+        return lengthOf(tagName(s, index), index);
+    }
+
+    /* open tag and closing tag */
+
+    private static int openTag(CharSequence s, int index) {
+        if (!hasChar(s, index, '<')) {
+            return NO_MATCH;
+        }
+        int i = tagName(s, index + 1);
+        if (i == NO_MATCH) {
+            return NO_MATCH;
+        }
+        for (;;) {
+            int next = attribute(s, i);
+            if (next == NO_MATCH) {
+                break;
+            }
+            i = next;
+        }
+        i = skipWhitespace(s, i);
+        if (hasChar(s, i, '/')) {
+            ++i;
+        }
+        return hasChar(s, i, '>') ? i + 1 : NO_MATCH;
+    }
+
+    private static int closingTag(CharSequence s, int index) {
+        if (!hasChar(s, index, '<') || !hasChar(s, index + 1, '/')) {
+            return NO_MATCH;
+        }
+        int i = tagName(s, index + 2);
+        if (i == NO_MATCH) {
+            return NO_MATCH;
+        }
+        i = skipWhitespace(s, i);
+        return hasChar(s, i, '>') ? i + 1 : NO_MATCH;
+    }
+
+    private static int tagName(CharSequence s, int index) {
+        if (!isAsciiLetter(charAt(s, index))) {
+            return NO_MATCH;
+        }
+        int i = index + 1;
+        final int length = s.length();
+        while (i < length) {
+            char c = s.charAt(i);
+            if (!isAsciiLetter(c) && !isAsciiDigit(c) && c != '-') {
+                break;
+            }
+            ++i;
+        }
+        return i;
+    }
+
+    private static int attribute(CharSequence s, int index) {
+        int i = skipWhitespace(s, index);
+        if (i == index) {
+            return NO_MATCH;
+        }
+        i = attributeName(s, i);
+        if (i == NO_MATCH) {
+            return NO_MATCH;
+        }
+        int next = attributeValueSpec(s, i);
+        return (next == NO_MATCH) ? i : next;
+    }
+
+    private static int attributeName(CharSequence s, int index) {
+        char c = charAt(s, index);
+        if (!isAsciiLetter(c) && c != '_' && c != ':') {
+            return NO_MATCH;
+        }
+        int i = index + 1;
+        final int length = s.length();
+        while (i < length) {
+            c = s.charAt(i);
+            if (!isAsciiLetter(c) && !isAsciiDigit(c)
+                    && c != '_' && c != '.' && c != ':' && c != '-') {
+                break;
+            }
+            ++i;
+        }
+        return i;
+    }
+
+    private static int attributeValueSpec(CharSequence s, int index) {
+        int i = skipWhitespace(s, index);
+        if (!hasChar(s, i, '=')) {
+            return NO_MATCH;
+        }
+        i = skipWhitespace(s, i + 1);
+        char c = charAt(s, i);
+        if (c == '"' || c == '\'') {
+            int end = indexOf(s, c, i + 1);
+            return (end == NO_MATCH) ? NO_MATCH : end + 1;
+        }
+        final int start = i;
+        final int length = s.length();
+        while (i < length) {
+            c = s.charAt(i);
+            if (isWhitespace(c) || c == '"' || c == '\'' || c == '='
+                    || c == '<' || c == '>' || c == '`') {
+                break;
+            }
+            ++i;
+        }
+        return (i > start) ? i : NO_MATCH;
+    }
+
+    /* other constructs */
+
+    /*
+     * The text of the comment does not start with ">" or "->",
+     * does not end with "-", and does not contain "--".
+     * The empty comment "<!---->" is also allowed.
+     */
+    private static int comment(CharSequence s, int index) {
+        if (!startsWith(s, index, "<!--")) {
+            return NO_MATCH;
+        }
+        final int start = index + 4;
+        if (startsWith(s, start, ">") || startsWith(s, start, "->")) {
+            return NO_MATCH;
+        }
+        int i = indexOf(s, "--", start);
+        if (i == NO_MATCH || !hasChar(s, i + 2, '>')) {
+            return NO_MATCH;
+        }
+        return i + 3;
+    }
+
+    private static int processingInstruction(CharSequence s, int index, Memo memo) {
+        if (!startsWith(s, index, "<?")) {
+            return NO_MATCH;
+        }
+        final int start = index + 2;
+        if (memo != null && start >= memo.noProcessingInstructionEnd) {
+            return NO_MATCH;
+        }
+        int i = indexOf(s, "?>", start);
+        if (i == NO_MATCH) {
+            if (memo != null) {
+                memo.noProcessingInstructionEnd = start;
+            }
+            return NO_MATCH;
+        }
+        return i + 2;
+    }
+
+    private static int declaration(CharSequence s, int index, Memo memo) {
+        if (!startsWith(s, index, "<!")) {
+            return NO_MATCH;
+        }
+        int i = index + 2;
+        final int start = i;
+        while (isAsciiLetter(charAt(s, i))) {
+            ++i;
+        }
+        if (i == start || !isWhitespace(charAt(s, i))) {
+            return NO_MATCH;
+        }
+        if (memo != null && i >= memo.noDeclarationEnd) {
+            return NO_MATCH;
+        }
+        int end = indexOf(s, '>', i);
+        if (end == NO_MATCH) {
+            if (memo != null) {
+                memo.noDeclarationEnd = i;
+            }
+            return NO_MATCH;
+        }
+        return end + 1;
+    }
+
+    private static int cdataSection(CharSequence s, int index, Memo memo) {
+        if (!startsWith(s, index, "<![CDATA[")) {
+            return NO_MATCH;
+        }
+        final int start = index + 9;
+        if (memo != null && start >= memo.noCdataSectionEnd) {
+            return NO_MATCH;
+        }
+        int i = indexOf(s, "]]>", start);
+        if (i == NO_MATCH) {
+            if (memo != null) {
+                memo.noCdataSectionEnd = start;
+            }
+            return NO_MATCH;
+        }
+        return i + 3;
+    }
+
+    /* helpers */
+
+    private static int lengthOf(int end, int index) {
+        return (end == NO_MATCH) ? 0 : end - index;
+    }
+
+    private static char charAt(CharSequence s, int index) {
+        return (index < s.length()) ? s.charAt(index) : '\0';
+    }
+
+    private static boolean hasChar(CharSequence s, int index, char c) {
+        return index < s.length() && s.charAt(index) == c;
+    }
+
+    private static boolean startsWith(CharSequence s, int index, String prefix) {
+        if (index + prefix.length() > s.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); ++i) {
+            if (s.charAt(index + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(CharSequence s, char c, int fromIndex) {
+        final int length = s.length();
+        for (int i = fromIndex; i < length; ++i) {
+            if (s.charAt(i) == c) {
+                return i;
+            }
+        }
+        return NO_MATCH;
+    }
+
+    private static int indexOf(CharSequence s, String target, int fromIndex) {
+        final char first = target.charAt(0);
+        final int last = s.length() - target.length();
+        for (int i = fromIndex; i <= last; ++i) {
+            if (s.charAt(i) == first && startsWith(s, i, target)) {
+                return i;
+            }
+        }
+        return NO_MATCH;
+    }
+
+    private static int skipWhitespace(CharSequence s, int index) {
+        final int length = s.length();
+        int i = index;
+        while (i < length && isWhitespace(s.charAt(i))) {
+            ++i;
+        }
+        return i;
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private HtmlScanner() {
+    }
+
+    /**
+     * Memo of the scans of an input.
+     *
+     * <p>
+     * Each field holds the lowest position from which the closing sequence
+     * of the construct was searched for and not found.
+     * A memo must not be shared by different inputs.
+     * </p>
+     *
+     * @author leadpony
+     */
+    public static final class Memo {
+
+        private int noProcessingInstructionEnd = Integer.MAX_VALUE;
+        private int noDeclarationEnd = Integer.MAX_VALUE;
+        private int noCdataSectionEnd = Integer.MAX_VALUE;
+    }
+}
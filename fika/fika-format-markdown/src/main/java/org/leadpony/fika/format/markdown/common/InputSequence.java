@@ -17,18 +17,11 @@ package org.leadpony.fika.format.markdown.common;
 
 import static org.leadpony.fika.format.markdown.common.Characters.SPACE;
 
-import java.util.regex.Pattern;
-
 /**
  * @author leadpony
  */
 public interface InputSequence extends CharSequence {
     
-    /**
-     * A regex pattern representing a space or a tab.
-     */
-    Pattern BLANK_PATTERN = Pattern.compile("\\p{Blank}*");
-    
     public static InputSequence withOffset(String string, int offset) {
         return new OffsetInputSequence(string, offset);
     }
@@ -101,10 +94,14 @@ public interface InputSequence extends CharSequence {
      * @return true if this content is blank.
      */
     default boolean isBlank() {
-        if (isEmpty()) {
-            return true;
+        final int length = length();
+        for (int i = 0; i < length; ++i) {
+            char c = charAt(i);
+            if (c != SPACE && c != '\t') {
+                return false;
+            }
         }
-        return BLANK_PATTERN.matcher(this).matches();
+        return true;
     }
     
     default InputSequence subSequence(int beginIndex) {
@@ -137,11 +134,11 @@ public interface InputSequence extends CharSequence {
     }
     
     default int countLeadingSpaces() {
-        return countLeading(SPACE, 0, length());
+        return countLeadingSpaces(0, length());
     }
     
     default int countLeadingSpaces(int beginIndex) {
-        return countLeading(SPACE, beginIndex, length());
+        return countLeadingSpaces(beginIndex, length());
     }
 
     default int countLeadingSpaces(int beginIndex, int endIndex) {
@@ -173,7 +170,7 @@ public interface InputSequence extends CharSequence {
     }
     
     default boolean hasLeadingSpaces(int count) {
-        return hasLeading(SPACE, count);
+        return countLeadingSpaces(0, count) >= count;
     }
     
     default int coundTrailing(char c) {
@@ -200,4 +197,13 @@ public interface InputSequence extends CharSequence {
     default String toSourceString() {
         return toString();
     }
+
+    /**
+     * Appends the source characters of this sequence to the specified builder.
+     *
+     * @param builder the builder to which the characters will be appended.
+     */
+    default void appendSourceTo(StringBuilder builder) {
+        builder.append(toSourceString());
+    }
 }
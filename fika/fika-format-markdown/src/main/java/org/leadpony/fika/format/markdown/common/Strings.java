@@ -17,9 +17,7 @@ package org.leadpony.fika.format.markdown.common;
 
 import static org.leadpony.fika.format.markdown.common.Characters.isPunctuation;
 import static org.leadpony.fika.format.markdown.common.Characters.isWhitespace;
-import static org.leadpony.fika.format.markdown.common.Characters.sanitize;
 
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
@@ -93,10 +91,6 @@ public final class Strings {
         return CONSECUTIVE_WHITESPACE.matcher(s).replaceAll("\u0020");
     }
     
-    public static final Pattern CHARACTER_REFERENCE_PATTERN = Pattern.compile(
-            "&((#x([0-9a-f]{1,8}))|(#(\\d{1,8}))|(\\w+));",
-            Pattern.CASE_INSENSITIVE);
-
     /**
      * Expands entity and numeric character references in specified string.
      * 
@@ -104,38 +98,34 @@ public final class Strings {
      * @return expanded string.
      */
     public static String expandReferences(String s) {
-        Matcher m = CHARACTER_REFERENCE_PATTERN.matcher(s);
-        if (!m.find()) {
+        int next = s.indexOf('&');
+        if (next < 0) {
             return s;
         }
-        StringBuilder b = new StringBuilder();
-        EntityResolver resolver = EntityResolver.get();
+        StringBuilder b = null;
         int last = 0;
-        do {
-            b.append(s.substring(last, m.start()));
-            if (m.group(3) != null) {
-                // Hexadecimal numeric character
-                int c = Integer.parseInt(m.group(3), 16);
-                b.appendCodePoint(sanitize(c));
-            } else if (m.group(5) != null) {
-                // Decimal numeric character
-                int c = Integer.parseInt(m.group(5));
-                b.appendCodePoint(sanitize(c));
-            } else {
-                // Entity reference
-                String resolved = resolver.resolve(m.group(1));
-                if (resolved != null) {
-                    b.append(resolved);
+        while (next >= 0) {
+            int length = CharacterReferences.recognize(s, next);
+            if (length > 0) {
+                if (b == null) {
+                    b = new StringBuilder(s.length());
+                }
+                int mark = b.length();
+                b.append(s, last, next);
+                if (CharacterReferences.resolve(s, next, length, b)) {
+                    last = next + length;
                 } else {
-                    b.append(m.group(0));
+                    b.setLength(mark);
                 }
+                next = s.indexOf('&', next + length);
+            } else {
+                next = s.indexOf('&', next + 1);
             }
-            last = m.end();
-        } while (m.find());
-        
-        if (last < s.length()) {
-            b.append(s.substring(last));
         }
+        if (b == null) {
+            return s;
+        }
+        b.append(s, last, s.length());
         return b.toString();
     }
     
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.format.markdown.inline;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Index of the backtick runs found in an inline input.
+ *
+ * <p>
+ * The index is built in a single pass over the input.
+ * The positions of the runs are grouped by their lengths,
+ * and each group remembers where the last search ended,
+ * so the searches made from the beginning to the end of the input
+ * take constant time in amortized.
+ * </p>
+ *
+ * @author leadpony
+ */
+public class BacktickIndex {
+
+    private static final char BACKTICK = '`';
+
+    private final Map<Integer, Runs> runsByLength = new HashMap<>();
+
+    /**
+     * Constructs the index of the specified input.
+     *
+     * @param input the input to index.
+     */
+    public BacktickIndex(String input) {
+        final int length = input.length();
+        int i = input.indexOf(BACKTICK);
+        while (i >= 0) {
+            int end = i + 1;
+            while (end < length && input.charAt(end) == BACKTICK) {
+                ++end;
+            }
+            runsByLength.computeIfAbsent(end - i, k -> new Runs()).add(i);
+            i = input.indexOf(BACKTICK, end);
+        }
+    }
+
+    /**
+     * Finds the first backtick run of the specified length
+     * which starts at or after the specified index.
+     *
+     * @param fromIndex the index to start the search from.
+     * @param length the length of the run to find.
+     * @return the index of the run found, or -1 if there is no such run.
+     */
+    public int findRun(int fromIndex, int length) {
+        Runs runs = runsByLength.get(length);
+        if (runs == null) {
+            return -1;
+        }
+        return runs.find(fromIndex);
+    }
+
+    /**
+     * Positions of the runs of the same length.
+     *
+     * @author leadpony
+     */
+    private static class Runs {
+
+        private int[] positions = new int[4];
+        private int size;
+        // the first run not yet passed by the searches.
+        private int next;
+
+        void add(int position) {
+            if (size >= positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+        }
+
+        int find(int fromIndex) {
+            if (next > 0 && positions[next - 1] >= fromIndex) {
+                // Searches backward are rare.
+                next = 0;
+            }
+            while (next < size && positions[next] < fromIndex) {
+                ++next;
+            }
+            return (next < size) ? positions[next] : -1;
+        }
+    }
+}
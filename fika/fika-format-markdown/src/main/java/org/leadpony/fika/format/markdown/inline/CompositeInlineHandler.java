@@ -43,15 +43,10 @@ class CompositeInlineHandler implements InlineHandler {
     }
 
     @Override
-    public void bind(Context context) {
-        throw new UnsupportedOperationException();
-    }
-
-    @Override
-    public int handleContent(String input, int currentIndex) {
+    public int handleContent(Context context, String input, int currentIndex) {
         int consumed = 0;
         for (InlineHandler handler: this.handlers) {
-            consumed = handler.handleContent(input, currentIndex);
+            consumed = handler.handleContent(context, input, currentIndex);
             if (consumed > 0) {
                 return consumed;
             }
@@ -60,7 +55,7 @@ class CompositeInlineHandler implements InlineHandler {
     }
 
     @Override
-    public int handleContent(InputSequence input) {
+    public int handleContent(Context context, InputSequence input) {
         throw new UnsupportedOperationException();
     }
     
@@ -17,6 +17,7 @@ package org.leadpony.fika.format.markdown.inline;
 
 import java.util.List;
 
+import org.leadpony.fika.format.markdown.common.HtmlScanner;
 import org.leadpony.fika.format.markdown.common.LinkDefinitionMap;
 import org.leadpony.fika.core.model.Node;
 import org.leadpony.fika.core.model.NodeFactory;
@@ -30,7 +31,7 @@ import org.leadpony.fika.core.model.Text;
 public class DefaultInlineProcessor
     implements InlineProcessor, InlineHandler.Context, InlineAppender {
 
-    private final InlineHandler[] handlers;
+    private final InlineHandlerTable handlers;
 
     private final NodeFactory nodeFactory;
     private final LinkDefinitionMap linkDefinitionMap;
@@ -43,18 +44,29 @@ public class DefaultInlineProcessor
 
     private String input;
     private int currentIndex;
+    private BacktickIndex backtickIndex;
+    private HtmlScanner.Memo htmlScanMemo;
 
     private int appendedNodeCount;
-    private StringBuilder textBuffer = null;
+    private final StringBuilder textBuffer = new StringBuilder();
+    // the span of the input pending as text, used while the text buffer is empty.
+    private int spanStart;
+    private int spanEnd;
 
     public DefaultInlineProcessor(
             NodeFactory nodeFactory,
             LinkDefinitionMap linkDefinitionMap,
             List<InlineHandler> handlers) {
+        this(nodeFactory, linkDefinitionMap, new InlineHandlerTable(handlers));
+    }
+
+    public DefaultInlineProcessor(
+            NodeFactory nodeFactory,
+            LinkDefinitionMap linkDefinitionMap,
+            InlineHandlerTable handlerTable) {
         this.nodeFactory = nodeFactory;
         this.linkDefinitionMap = linkDefinitionMap;
-        this.handlers = new InlineHandler[MAX_TRIGGER_CODE + 1];
-        installHandlers(handlers);
+        this.handlers = handlerTable;
     }
 
     @Override
@@ -91,6 +103,22 @@ public class DefaultInlineProcessor
         return delimiterProcessor;
     }
 
+    @Override
+    public BacktickIndex getBacktickIndex() {
+        if (backtickIndex == null) {
+            backtickIndex = new BacktickIndex(input);
+        }
+        return backtickIndex;
+    }
+
+    @Override
+    public HtmlScanner.Memo getHtmlScanMemo() {
+        if (htmlScanMemo == null) {
+            htmlScanMemo = new HtmlScanner.Memo();
+        }
+        return htmlScanMemo;
+    }
+
     @Override
     public LinkDefinitionMap getLinkDefinitionMap() {
         return linkDefinitionMap;
@@ -110,73 +138,56 @@ public class DefaultInlineProcessor
 
     @Override
     public final InlineAppender appendContent(char c) {
+        spillSpan();
         this.textBuffer.append(c);
         return this;
     }
 
     @Override
     public InlineAppender appendContent(int codePoint) {
+        spillSpan();
         this.textBuffer.appendCodePoint(codePoint);
         return this;
     }
 
     @Override
     public InlineAppender appendContent(String s) {
+        spillSpan();
         this.textBuffer.append(s);
         return this;
     }
 
     @Override
     public InlineAppender appendContentTo(int length) {
-        int beginIndex = currentIndex;
-        int endIndex = beginIndex + length;
-        String s = input.substring(beginIndex, endIndex);
-        return appendContent(s);
+        appendInput(currentIndex, currentIndex + length);
+        return this;
     }
 
     @Override
     public InlineAppender removeContent(int length) {
-        int newLength = this.textBuffer.length() - length;
-        this.textBuffer.setLength(newLength);
+        if (spanEnd - spanStart >= length) {
+            spanEnd -= length;
+        } else {
+            spillSpan();
+            int newLength = this.textBuffer.length() - length;
+            this.textBuffer.setLength(newLength);
+        }
         return this;
     }
 
     /* helper methods */
 
-    private void installHandlers(List<InlineHandler> handlers) {
-        for (InlineHandler handler: handlers) {
-            installHandler(handler);
-        }
-    }
-
-    /**
-     * Installs an inline handler.
-     *
-     * @param newHandler the inline handler to install.
-     */
-    private void installHandler(InlineHandler newHandler) {
-        for (char letter: newHandler.triggerLetters()) {
-            if (letter >= MAX_TRIGGER_CODE) {
-                throw new IllegalArgumentException();
-            }
-            InlineHandler existingHandler = handlers[letter];
-            if (existingHandler != null) {
-                handlers[letter] = existingHandler.or(newHandler);
-            } else {
-                handlers[letter] = newHandler;
-            }
-        }
-        newHandler.bind(this);
-    }
-
     private void resetProcessor(Text text) {
         this.firstText = text;
         this.parentNode = text.getParentNode();
         this.nextSibling = text.getNextSibling();
         this.input = text.textContent();
         this.currentIndex = 0;
+        this.backtickIndex = null;
+        this.htmlScanMemo = null;
         this.appendedNodeCount = 0;
-        this.textBuffer = new StringBuilder(text.textContent().length());
+        this.textBuffer.setLength(0);
+        this.spanStart = this.spanEnd = 0;
     }
 
     private void parseInlines() {
@@ -187,7 +198,7 @@ public class DefaultInlineProcessor
             char c = input.charAt(index);
             int consumed = 0;
             if (c < MAX_TRIGGER_CODE) {
-                InlineHandler handler = this.handlers[c];
+                InlineHandler handler = this.handlers.get(c);
                 if (handler != null) {
                     consumed = invokeHandler(handler, index);
                 }
@@ -195,7 +206,7 @@ public class DefaultInlineProcessor
             if (consumed > 0) {
                 index += consumed;
             } else {
-                appendContent(c);
+                appendInput(index, index + 1);
                 ++index;
             }
         }
@@ -204,7 +215,7 @@ public class DefaultInlineProcessor
 
     private int invokeHandler(InlineHandler handler, int index) {
         this.currentIndex = index;
-        int consumed = handler.handleContent(this.input, index);
+        int consumed = handler.handleContent(this, this.input, index);
         if (consumed > 0) {
             int newIndex = index + consumed;
             this.currentIndex = newIndex;
@@ -221,23 +232,69 @@ public class DefaultInlineProcessor
         this.appendedNodeCount++;
     }
 
-    private void flushTextBuffer() {
-        String content = "";
-        if (textBuffer.length() > 0) {
-            content = textBuffer.toString();
-            textBuffer.setLength(0);
+    /**
+     * Appends a range of the input as the text content.
+     * The range is kept as a span of the input as long as possible.
+     *
+     * @param beginIndex the beginning index in the input, inclusive.
+     * @param endIndex the ending index in the input, exclusive.
+     */
+    private void appendInput(int beginIndex, int endIndex) {
+        if (spanStart == spanEnd) {
+            if (textBuffer.length() == 0) {
+                spanStart = beginIndex;
+                spanEnd = endIndex;
+                return;
+            }
+        } else if (spanEnd == beginIndex) {
+            spanEnd = endIndex;
+            return;
+        } else {
+            spillSpan();
         }
+        textBuffer.append(input, beginIndex, endIndex);
+    }
+
+    /**
+     * Moves the pending span of the input into the text buffer.
+     */
+    private void spillSpan() {
+        if (spanStart < spanEnd) {
+            textBuffer.append(input, spanStart, spanEnd);
+        }
+        spanStart = spanEnd = 0;
+    }
+
+    private void flushTextBuffer() {
+        final boolean empty = textBuffer.length() == 0 && spanStart == spanEnd;
         if (appendedNodeCount == 0) {
-            if (content.isEmpty()) {
+            if (empty) {
                 firstText.unlink();
-            } else if (!firstText.textContent().equals(content)) {
-                Text text = getNodeFactory().createText(content);
+            } else if (!hasWholeInput()) {
+                Text text = createPendingText();
                 parentNode.replaceChild(text, firstText);
             }
         } else {
-            Text text = getNodeFactory().createText(content);
+            Text text = createPendingText();
             appendOrInsertNode(text);
         }
+        textBuffer.setLength(0);
+        spanStart = spanEnd = 0;
+    }
+
+    private boolean hasWholeInput() {
+        if (spanStart < spanEnd) {
+            return spanStart == 0 && spanEnd == input.length();
+        }
+        return input.contentEquals(textBuffer);
+    }
+
+    private Text createPendingText() {
+        NodeFactory factory = getNodeFactory();
+        if (textBuffer.length() > 0) {
+            return factory.createText(textBuffer.toString());
+        }
+        return factory.createText(input, spanStart, spanEnd);
     }
 
     private void processDelimiters() {
@@ -75,6 +75,26 @@ public abstract class Delimiter extends DelimiterStack.Entry {
 
     public abstract Node makePairWith(Delimiter closer, Object... params);
 
+    /**
+     * Returns the category of this delimiter as a closer.
+     * Two closers of the same delimiter and of the same category
+     * can be paired with exactly the same openers.
+     *
+     * @return the category of this closer.
+     */
+    public int closerCategory() {
+        return 0;
+    }
+
+    /**
+     * Checks if this delimiter is a bracket which opens a link or an image.
+     *
+     * @return {@code true} if this delimiter is a bracket.
+     */
+    public boolean isBracket() {
+        return false;
+    }
+
     @Override
     public String toString() {
         return text.toString();
@@ -92,7 +112,7 @@ public abstract class Delimiter extends DelimiterStack.Entry {
 
     protected static void wrapNodes(Node wrapper, Text opener, Text closer) {
         Node current = opener.getNextSibling();
-        while (current != closer) {
+        while (!current.equals(closer)) {
             Node next = current.getNextSibling();
             wrapper.appendChild(current);
             current = next;
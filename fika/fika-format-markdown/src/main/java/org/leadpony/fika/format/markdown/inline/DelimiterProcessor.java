@@ -41,7 +41,8 @@ public class DelimiterProcessor {
     }
     
     private void pairAll() {
-        Iterator<Delimiter> it = stack.iterator();
+        Delimiter first = (stackBottom != null) ? stackBottom.next() : stack.peekFirst();
+        Iterator<Delimiter> it = stack.iterator(first);
         while (it.hasNext()) {
             Delimiter current = it.next();
             if (current.canBeCloser()) {
@@ -67,28 +68,34 @@ public class DelimiterProcessor {
         }
     }
     
+    /**
+     * Finds the opener for the closer.
+     * 
+     * <p>
+     * The search never goes below the openers bottom for the closer,
+     * which is updated whenever the search fails, so that the closers
+     * of the same kind do not visit the same openers twice.
+     * </p>
+     * 
+     * @param closer the closer.
+     * @return the opener found, or {@code null} if not found.
+     */
     private Delimiter findOpener(Delimiter closer) {
-        final Delimiter bottom = getOpenersBottom(closer.delimiter());
-        Delimiter previous = closer.previous();
-        Delimiter newBottom = previous;
+        final String key = openersBottomKey(closer);
+        final Delimiter bottom = getOpenersBottom(key);
         Iterator<Delimiter> it = stack.descendingIterator(closer);
         // Skips the closer.
         it.next();
         while (it.hasNext()) {
             Delimiter current = it.next();
-            if (current == bottom) {
+            if (current == bottom || current == stackBottom) {
                 break;
-            } else if (current.isSameTypeAs(closer) && current.canBeOpener()) {
-                Delimiter opener = current;
-                if (opener.canBePairedWith(closer)) {
-                    return opener;
-                } else {
-                    newBottom = opener.previous();
-                }
+            } else if (current.canBePairedWith(closer)) {
+                return current;
             }
         }
-        updateOpenersBottom(closer.delimiter(), newBottom);
-        if (newBottom == previous && !closer.canBeOpener()) {
+        updateOpenersBottom(key, closer.previous());
+        if (!closer.canBeOpener()) {
             this.stack.remove(closer);
         }
         return null;
@@ -117,15 +124,19 @@ public class DelimiterProcessor {
         }
     }
     
-    private Delimiter getOpenersBottom(String delimiter) {
-        Delimiter bottom = this.openersBottom.get(delimiter);
+    private static String openersBottomKey(Delimiter closer) {
+        return closer.delimiter() + closer.closerCategory();
+    }
+    
+    private Delimiter getOpenersBottom(String key) {
+        Delimiter bottom = this.openersBottom.get(key);
         if (bottom == null) {
             bottom = this.stackBottom;
         }
         return bottom;
     }
     
-    private void updateOpenersBottom(String delimiter, Delimiter newBottom) {
-        this.openersBottom.put(delimiter, newBottom);
+    private void updateOpenersBottom(String key, Delimiter newBottom) {
+        this.openersBottom.put(key, newBottom);
     }
 }
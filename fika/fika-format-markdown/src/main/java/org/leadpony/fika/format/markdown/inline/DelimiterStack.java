@@ -30,6 +30,11 @@ public class DelimiterStack extends AbstractCollection<Delimiter> {
     private Delimiter last;
     private int size;
     
+    // the last bracket in this stack.
+    private Delimiter lastBracket;
+    // all brackets of the same type up to this one were deactivated.
+    private Delimiter deactivatedBracket;
+    
     public DelimiterStack() {
         this.first = null;
         this.last = null;
@@ -50,6 +55,9 @@ public class DelimiterStack extends AbstractCollection<Delimiter> {
             setPreviousAndNext(e, last, null);
             last = e;
         }
+        if (e.isBracket()) {
+            addBracket(e);
+        }
         this.size++;
         return true;
     }
@@ -59,6 +67,8 @@ public class DelimiterStack extends AbstractCollection<Delimiter> {
         this.first = null;
         this.last = null;
         this.size = 0;
+        this.lastBracket = null;
+        this.deactivatedBracket = null;
     }
     
     @Override
@@ -89,6 +99,9 @@ public class DelimiterStack extends AbstractCollection<Delimiter> {
             setPrevious(next, previous);
         }
         setPreviousAndNext(entry, null, null);
+        if (entry.isBracket()) {
+            removeBracket(entry);
+        }
         this.size--;
         return true;
     }
@@ -118,15 +131,57 @@ public class DelimiterStack extends AbstractCollection<Delimiter> {
         return last;
     }
     
+    /**
+     * Retrieves, but does not remove, the last bracket of this stack, 
+     * or returns null if this stack has no brackets.
+     * 
+     * @return the last bracket in this stack, or {@code null} if there is none.
+     * @see Delimiter#isBracket()
+     */
+    public Delimiter peekLastBracket() {
+        return lastBracket;
+    }
+    
     public void removeAfter(Delimiter newLast) {
         if (newLast == null) {
             clear();
         } else {
+            Delimiter current = newLast.next();
+            while (current != null) {
+                Delimiter next = current.next();
+                if (current.isBracket()) {
+                    removeBracket(current);
+                }
+                this.size--;
+                current = next;
+            }
             this.last = newLast;
             setNext(newLast, null);
         }
     }
     
+    /**
+     * Deactivates all brackets preceding the specified bracket 
+     * which are of the same type as it.
+     * 
+     * <p>
+     * The brackets already deactivated by the previous call 
+     * are not visited again.
+     * </p>
+     * 
+     * @param bracket the bracket in this stack.
+     */
+    public void deactivateBracketsBefore(Delimiter bracket) {
+        Delimiter current = bracket.previousBracket();
+        while (current != null && current != this.deactivatedBracket) {
+            if (current.isSameTypeAs(bracket)) {
+                current.deactive();
+            }
+            current = current.previousBracket();
+        }
+        this.deactivatedBracket = bracket.previousBracket();
+    }
+    
     public Iterator<Delimiter> iterator(Delimiter first) {
         return new AscendingIterator(first);
     }
@@ -139,6 +194,41 @@ public class DelimiterStack extends AbstractCollection<Delimiter> {
         return new DescendingIterator(first);
     }
     
+    private void addBracket(Delimiter bracket) {
+        if (lastBracket != null) {
+            setNextBracket(lastBracket, bracket);
+        }
+        setPreviousAndNextBracket(bracket, lastBracket, null);
+        this.lastBracket = bracket;
+    }
+    
+    private void removeBracket(Delimiter bracket) {
+        final Delimiter previous = bracket.previousBracket();
+        final Delimiter next = ((Entry) bracket).nextBracket;
+        if (previous != null) {
+            setNextBracket(previous, next);
+        }
+        if (next != null) {
+            setPreviousAndNextBracket(next, previous, ((Entry) next).nextBracket);
+        }
+        if (this.lastBracket == bracket) {
+            this.lastBracket = previous;
+        }
+        if (this.deactivatedBracket == bracket) {
+            this.deactivatedBracket = previous;
+        }
+        setPreviousAndNextBracket(bracket, null, null);
+    }
+    
+    private static void setNextBracket(Entry entry, Delimiter next) {
+        entry.nextBracket = next;
+    }
+    
+    private static void setPreviousAndNextBracket(Entry entry, Delimiter previous, Delimiter next) {
+        entry.previousBracket = previous;
+        entry.nextBracket = next;
+    }
+    
     private static void setPrevious(Entry entry, Delimiter previous) {
         entry.previous = previous;
     }
@@ -161,6 +251,8 @@ public class DelimiterStack extends AbstractCollection<Delimiter> {
         
         private Delimiter previous;
         private Delimiter next;
+        private Delimiter previousBracket;
+        private Delimiter nextBracket;
         
         public Delimiter previous() {
             return previous;
@@ -169,6 +261,10 @@ public class DelimiterStack extends AbstractCollection<Delimiter> {
         public Delimiter next() {
             return next;
         }
+        
+        public Delimiter previousBracket() {
+            return previousBracket;
+        }
     }
     
     private static class AscendingIterator implements Iterator<Delimiter> {
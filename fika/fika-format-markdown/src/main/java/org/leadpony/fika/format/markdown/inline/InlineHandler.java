@@ -15,6 +15,7 @@
  */
 package org.leadpony.fika.format.markdown.inline;
 
+import org.leadpony.fika.format.markdown.common.HtmlScanner;
 import org.leadpony.fika.format.markdown.common.InputSequence;
 import org.leadpony.fika.format.markdown.common.LinkDefinitionMap;
 import org.leadpony.fika.core.model.NodeFactory;
@@ -22,6 +23,13 @@ import org.leadpony.fika.core.model.NodeFactory;
 /**
  * The interface for handling inline nodes. 
  * 
+ * <p>
+ * An instance of this interface is shared by all parsers created by the same factory,
+ * which may run in multiple threads.
+ * The implementations therefore must not hold any per-document state,
+ * which should be obtained from the {@link Context} given to each invocation.
+ * </p>
+ * 
  * @author leadpony
  */
 public interface InlineHandler {
@@ -49,14 +57,27 @@ public interface InlineHandler {
         return handlerType().precedence();
     }
     
-    void bind(Context context);
-
-    default int handleContent(InputSequence input) {
+    /**
+     * Handles the content starting at the current position.
+     * 
+     * @param context the context of the current inline processing.
+     * @param input the input starting at the triggering letter.
+     * @return the number of the characters consumed, or 0 if not handled.
+     */
+    default int handleContent(Context context, InputSequence input) {
         return 0;
     }
     
-    default int handleContent(String input, int currentIndex) {
-        return handleContent(InputSequence.withOffset(input, currentIndex));
+    /**
+     * Handles the content starting at the current position.
+     * 
+     * @param context the context of the current inline processing.
+     * @param input the whole input.
+     * @param currentIndex the index of the triggering letter.
+     * @return the number of the characters consumed, or 0 if not handled.
+     */
+    default int handleContent(Context context, String input, int currentIndex) {
+        return handleContent(context, InputSequence.withOffset(input, currentIndex));
     }
     
     default InlineHandler or(InlineHandler other) {
@@ -91,5 +112,21 @@ public interface InlineHandler {
         DelimiterProcessor getDelimiterProcessor();
         
         LinkDefinitionMap getLinkDefinitionMap();
+
+        /**
+         * Returns the index of the backtick runs in the original input.
+         * The index is built on first request and shared by all handlers.
+         *
+         * @return the index of the backtick runs.
+         */
+        BacktickIndex getBacktickIndex();
+
+        /**
+         * Returns the memo of the raw HTML scans of the original input.
+         * The memo is created on first request and shared by all handlers.
+         *
+         * @return the memo of the raw HTML scans.
+         */
+        HtmlScanner.Memo getHtmlScanMemo();
     }
 }
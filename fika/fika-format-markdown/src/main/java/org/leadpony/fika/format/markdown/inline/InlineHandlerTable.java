@@ -0,0 +1,74 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.format.markdown.inline;
+
+import static org.leadpony.fika.format.markdown.inline.InlineProcessor.MAX_TRIGGER_CODE;
+
+import java.util.List;
+
+/**
+ * Immutable dispatch table of inline handlers,
+ * which can be shared by multiple inline processors.
+ *
+ * @author leadpony
+ */
+public final class InlineHandlerTable {
+
+    private final InlineHandler[] handlers;
+
+    /**
+     * Constructs this table.
+     *
+     * @param handlers the inline handlers to register.
+     * @throws IllegalArgumentException if any of the handlers
+     *         is triggered by a letter outside of ASCII.
+     */
+    public InlineHandlerTable(List<InlineHandler> handlers) {
+        this.handlers = new InlineHandler[MAX_TRIGGER_CODE + 1];
+        for (InlineHandler handler: handlers) {
+            installHandler(handler);
+        }
+    }
+
+    /**
+     * Returns the handler triggered by the given letter.
+     *
+     * @param letter the triggering letter, which must be less than {@link InlineProcessor#MAX_TRIGGER_CODE}.
+     * @return the handler found, or {@code null} if there is no handler for the letter.
+     */
+    InlineHandler get(char letter) {
+        return handlers[letter];
+    }
+
+    /**
+     * Installs an inline handler.
+     *
+     * @param newHandler the inline handler to install.
+     */
+    private void installHandler(InlineHandler newHandler) {
+        for (char letter: newHandler.triggerLetters()) {
+            if (letter >= MAX_TRIGGER_CODE) {
+                throw new IllegalArgumentException();
+            }
+            InlineHandler existingHandler = handlers[letter];
+            if (existingHandler != null) {
+                handlers[letter] = existingHandler.or(newHandler);
+            } else {
+                handlers[letter] = newHandler;
+            }
+        }
+    }
+}
@@ -18,7 +18,7 @@ package org.leadpony.fika.format.markdown.inline.commonmark;
 import static org.leadpony.fika.format.markdown.common.Characters.isUnicodePunctuation;
 import static org.leadpony.fika.format.markdown.common.Characters.isUnicodeWhitespace;
 
-import org.leadpony.fika.format.markdown.inline.AbstractInlineHandler;
+import org.leadpony.fika.format.markdown.inline.InlineHandler;
 import org.leadpony.fika.format.markdown.inline.Delimiter;
 import org.leadpony.fika.format.markdown.inline.DelimiterRun;
 import org.leadpony.fika.core.model.Node;
@@ -27,7 +27,7 @@ import org.leadpony.fika.core.model.Text;
 /**
  * @author leadpony
  */
-abstract class AbstractEmphasisHandler extends AbstractInlineHandler {
+abstract class AbstractEmphasisHandler implements InlineHandler {
 
     private static final int MAX_LENGTH_TO_PAIR = 2;
 
@@ -43,21 +43,21 @@ abstract class AbstractEmphasisHandler extends AbstractInlineHandler {
     }
 
     @Override
-    public int handleContent(String input, int currentIndex) {
+    public int handleContent(Context context, String input, int currentIndex) {
         final char delimiter = input.charAt(currentIndex);
         final int length = countRunLength(input, currentIndex, delimiter);
-        Text text = buildTextNode(input, currentIndex, length);
+        Text text = buildTextNode(context, input, currentIndex, length);
 
         final int preceding = extractPrecedingChar(input, currentIndex);
         final int following = extractFollowingChar(input, currentIndex, length);
 
         Delimiter run = buildDelimiterRun(text, preceding, following);
-        getAppender().appendNode(text);
-        getDelimiterStack().add(run);
+        context.getAppender().appendNode(text);
+        context.getDelimiterStack().add(run);
         return length;
     }
 
-    private int countRunLength(String input, int currentIndex, char delimiter) {
+    private static int countRunLength(String input, int currentIndex, char delimiter) {
         int length = 1;
         for (int i = currentIndex + 1; i < input.length(); ++i) {
             if (input.charAt(i) == delimiter) {
@@ -69,9 +69,9 @@ abstract class AbstractEmphasisHandler extends AbstractInlineHandler {
         return length;
     }
 
-    private Text buildTextNode(String input, int start, int length) {
+    private static Text buildTextNode(Context context, String input, int start, int length) {
         String content = input.substring(start, start + length);
-        return getNodeFactory().createText(content);
+        return context.getNodeFactory().createText(content);
     }
 
     private static int extractPrecedingChar(String input, int index) {
@@ -147,7 +147,7 @@ abstract class AbstractEmphasisHandler extends AbstractInlineHandler {
      *
      * @author leadpony
      */
-    class EmphasisDelimiterRun extends DelimiterRun {
+    static class EmphasisDelimiterRun extends DelimiterRun {
 
         private final String delimiter;
         private int length;
@@ -193,11 +193,23 @@ abstract class AbstractEmphasisHandler extends AbstractInlineHandler {
             return true;
         }
 
+        /**
+         * {@inheritDoc}
+         *
+         * The category reflects everything the multiple-of-3 rule
+         * depends on, that is, whether this run can be an opener
+         * and the remainder of its length divided by 3.
+         */
+        @Override
+        public int closerCategory() {
+            return (canBeOpener() ? 3 : 0) + length() % 3;
+        }
+
         @Override
         protected int removeDelimiters(int length) {
             String content = text().textContent();
             content = content.substring(0, content.length() - length);
-            Text newText = getNodeFactory().createText(content);
+            Text newText = text().factory().createText(content);
             replaceText(newText);
             this.length = content.length();
             return this.length;
@@ -205,7 +217,7 @@ abstract class AbstractEmphasisHandler extends AbstractInlineHandler {
 
         @Override
         protected Node buildWrapNode(int lengthPaired) {
-            return getNodeFactory().createEmphasis(lengthPaired);
+            return text().factory().createEmphasis(lengthPaired);
         }
     }
 }
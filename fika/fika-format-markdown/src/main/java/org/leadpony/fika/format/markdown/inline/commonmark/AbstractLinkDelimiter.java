@@ -56,6 +56,11 @@ abstract class AbstractLinkDelimiter extends Delimiter {
         return false;
     }
 
+    @Override
+    public boolean isBracket() {
+        return true;
+    }
+
     @Override
     public boolean isSameTypeAs(Delimiter other) {
         String delimiter = other.delimiter();
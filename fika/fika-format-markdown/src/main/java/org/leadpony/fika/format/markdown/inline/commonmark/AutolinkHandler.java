@@ -20,9 +20,10 @@ import java.util.regex.Pattern;
 
 import org.leadpony.fika.format.markdown.common.InputSequence;
 import org.leadpony.fika.format.markdown.common.UrlEncoder;
-import org.leadpony.fika.format.markdown.inline.AbstractInlineHandler;
+import org.leadpony.fika.format.markdown.inline.InlineHandler;
 import org.leadpony.fika.format.markdown.inline.HandlerType;
 import org.leadpony.fika.core.model.Link;
+import org.leadpony.fika.core.model.NodeFactory;
 import org.leadpony.fika.core.model.Text;
 
 /**
@@ -30,7 +31,7 @@ import org.leadpony.fika.core.model.Text;
  *
  * @author leadpony
  */
-public class AutolinkHandler extends AbstractInlineHandler {
+public class AutolinkHandler implements InlineHandler {
 
     private static final char TRIGGER_LETTER = '<';
 
@@ -57,37 +58,40 @@ public class AutolinkHandler extends AbstractInlineHandler {
     }
 
     @Override
-    public int handleContent(InputSequence input) {
+    public int handleContent(Context context, InputSequence input) {
         int end = 0;
         Matcher m = URL_PATTERN.matcher(input);
         if (m.lookingAt()) {
             end = m.end();
-            getAppender().appendNode(buildUriAutoLink(input.substring(1, end - 1)));
+            context.getAppender().appendNode(
+                    buildUriAutoLink(context, input.substring(1, end - 1)));
             return end;
         } else {
             m = EMAIL_PATTERN.matcher(input);
             if (m.lookingAt()) {
                 end = m.end();
-                getAppender().appendNode(buildEmailAutoLink(input.substring(1, end - 1)));
+                context.getAppender().appendNode(
+                        buildEmailAutoLink(context, input.substring(1, end - 1)));
             }
         }
         return end;
     }
 
-    private Link buildUriAutoLink(String str) {
-        return buildAutoLink(str, str);
+    private static Link buildUriAutoLink(Context context, String str) {
+        return buildAutoLink(context, str, str);
     }
 
-    private Link buildEmailAutoLink(String str) {
+    private static Link buildEmailAutoLink(Context context, String str) {
         String url = "mailto:" + str;
-        return buildAutoLink(url, str);
+        return buildAutoLink(context, url, str);
     }
 
-    private Link buildAutoLink(String url, String label) {
+    private static Link buildAutoLink(Context context, String url, String label) {
         UrlEncoder encoder = new UrlEncoder();
         String destination = encoder.encode(url);
-        Link newNode = getNodeFactory().createLink(destination, null);
-        Text text = getNodeFactory().createText(label);
+        NodeFactory factory = context.getNodeFactory();
+        Link newNode = factory.createLink(destination, null);
+        Text text = factory.createText(label);
         newNode.appendChild(text);
         return newNode;
     }
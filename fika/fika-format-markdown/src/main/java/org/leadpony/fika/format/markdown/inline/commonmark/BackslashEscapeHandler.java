@@ -17,13 +17,13 @@ package org.leadpony.fika.format.markdown.inline.commonmark;
 
 import static org.leadpony.fika.format.markdown.common.Characters.isPunctuation;
 
-import org.leadpony.fika.format.markdown.inline.AbstractInlineHandler;
+import org.leadpony.fika.format.markdown.inline.InlineHandler;
 import org.leadpony.fika.format.markdown.inline.HandlerType;
 
 /**
  * @author leadpony
  */
-public class BackslashEscapeHandler extends AbstractInlineHandler {
+public class BackslashEscapeHandler implements InlineHandler {
 
     private static final char TRIGGER_LETTER = '\\';
     
@@ -38,11 +38,11 @@ public class BackslashEscapeHandler extends AbstractInlineHandler {
     }
     
     @Override
-    public int handleContent(String input, int currentIndex) {
+    public int handleContent(Context context, String input, int currentIndex) {
         if (currentIndex + 1 < input.length()) {
             char c = input.charAt(currentIndex + 1);
             if (isPunctuation(c)) {
-                getAppender().appendContent(c);
+                context.getAppender().appendContent(c);
                 return 2;
             }
         }
@@ -15,13 +15,13 @@
  */
 package org.leadpony.fika.format.markdown.inline.commonmark;
 
-import org.leadpony.fika.format.markdown.inline.AbstractInlineHandler;
+import org.leadpony.fika.format.markdown.inline.InlineHandler;
 import org.leadpony.fika.format.markdown.inline.HandlerType;
 
 /**
  * @author leadpony
  */
-public class BackslashLineBreakHandler extends AbstractInlineHandler {
+public class BackslashLineBreakHandler implements InlineHandler {
 
     private static final char TRIGGER_LETTER = '\\';
     
@@ -36,11 +36,11 @@ public class BackslashLineBreakHandler extends AbstractInlineHandler {
     }
 
     @Override
-    public int handleContent(String input, int currentIndex) {
+    public int handleContent(Context context, String input, int currentIndex) {
         if (currentIndex + 1 < input.length()) {
             char c = input.charAt(currentIndex + 1);
             if (c == '\n') {
-                getAppender().appendNode(getNodeFactory().createHardLineBreak());
+                context.getAppender().appendNode(context.getNodeFactory().createHardLineBreak());
                 return 2;
             }
         }
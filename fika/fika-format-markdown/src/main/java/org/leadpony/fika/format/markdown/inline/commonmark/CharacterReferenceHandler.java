@@ -15,20 +15,16 @@
  */
 package org.leadpony.fika.format.markdown.inline.commonmark;
 
-import static org.leadpony.fika.format.markdown.common.Characters.sanitize;
-import static org.leadpony.fika.format.markdown.common.Strings.CHARACTER_REFERENCE_PATTERN;
-
-import java.util.regex.Matcher;
-
+import org.leadpony.fika.format.markdown.common.CharacterReferences;
 import org.leadpony.fika.format.markdown.common.EntityResolver;
 import org.leadpony.fika.format.markdown.common.InputSequence;
-import org.leadpony.fika.format.markdown.inline.AbstractInlineHandler;
+import org.leadpony.fika.format.markdown.inline.InlineHandler;
 import org.leadpony.fika.format.markdown.inline.HandlerType;
 
 /**
  * @author leadpony
  */
-public class CharacterReferenceHandler extends AbstractInlineHandler {
+public class CharacterReferenceHandler implements InlineHandler {
 
     private static final char TRIGGER_LETTER = '&';
     
@@ -45,35 +41,31 @@ public class CharacterReferenceHandler extends AbstractInlineHandler {
     }
     
     @Override
-    public int handleContent(InputSequence input) {
-        Matcher m = CHARACTER_REFERENCE_PATTERN.matcher(input);
-        if (m.find()) {
-            return resolveReference(m);
-        } else {
+    public int handleContent(Context context, InputSequence input) {
+        return handleContent(context, input, 0);
+    }
+
+    @Override
+    public int handleContent(Context context, String input, int currentIndex) {
+        return handleContent(context, (CharSequence) input, currentIndex);
+    }
+
+    private int handleContent(Context context, CharSequence input, int index) {
+        final int length = CharacterReferences.recognize(input, index);
+        if (length == 0) {
             return 0;
         }
-    }
-    
-    private int resolveReference(Matcher m) {
-        final int end = m.end();
-        if (m.group(3) != null) {
-            // Hexadecimal numeric character
-            int c = Integer.parseInt(m.group(3), 16);
-            getAppender().appendContent(sanitize(c));
-            return end;
-        } else if (m.group(5) != null) {
-            // Decimal numeric character
-            int c = Integer.parseInt(m.group(5));
-            getAppender().appendContent(sanitize(c));
-            return end;
-        } else {
-            // Entity reference
-            String resolved = resolver.resolve(m.group(1));
-            if (resolved != null) {
-                getAppender().appendContent(resolved);
-                return end;
-            }
+        if (CharacterReferences.isNumeric(input, index)) {
+            int c = CharacterReferences.codePointOf(input, index, length);
+            context.getAppender().appendContent(c);
+            return length;
+        }
+        // Entity reference
+        String resolved = resolver.resolve(input, index + 1, index + length - 1);
+        if (resolved == null) {
+            return 0;
         }
-        return 0;
+        context.getAppender().appendContent(resolved);
+        return length;
     }
 }
@@ -15,24 +15,18 @@
  */
 package org.leadpony.fika.format.markdown.inline.commonmark;
 
-import java.util.regex.Pattern;
+import static org.leadpony.fika.format.markdown.common.Characters.isWhitespace;
 
-import org.leadpony.fika.format.markdown.common.InputSequence;
-import org.leadpony.fika.format.markdown.inline.AbstractInlineHandler;
+import org.leadpony.fika.format.markdown.inline.InlineHandler;
 import org.leadpony.fika.format.markdown.inline.HandlerType;
 import org.leadpony.fika.core.model.CodeSpan;
 
 /**
  * @author leadpony
  */
-public class CodeSpanHandler extends AbstractInlineHandler {
+public class CodeSpanHandler implements InlineHandler {
 
     private static final char BACKTICK = '`';
-    private static final Pattern LEADING_SPACE_OR_LINE_ENDING = 
-            Pattern.compile("^[\\u0020\\r\\n]+");
-    private static final Pattern TRAILING_SPACE_OR_LINE_ENDING = 
-            Pattern.compile("[\\u0020\\r\\n]+$");
-    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
     
     @Override
     public char[] triggerLetters() {
@@ -45,34 +39,74 @@ public class CodeSpanHandler extends AbstractInlineHandler {
     }
     
     @Override
-    public int handleContent(InputSequence input) {
-        final int backticks = input.countLeading(BACKTICK);
-        final int start = backticks;
-        int i = start;
-        for (;;) {
-            i = input.indexOf(BACKTICK, i);
-            if (i < 0) {
-                break;
-            }
-            int found = input.countLeading(BACKTICK, i);
-            if (found == backticks) {
-                getAppender().appendNode(buildNode(input, start, i));
-                return i + backticks;
-            }
-            i += found;
+    public int handleContent(Context context, String input, int currentIndex) {
+        final int backticks = countBackticks(input, currentIndex);
+        final int start = currentIndex + backticks;
+        final int end = context.getBacktickIndex().findRun(start, backticks);
+        if (end >= 0) {
+            context.getAppender().appendNode(buildNode(context, input, start, end));
+            return end + backticks - currentIndex;
         }
-        getAppender().appendContentTo(backticks);
+        context.getAppender().appendContentTo(backticks);
         return backticks;
     }
     
-    private CodeSpan buildNode(InputSequence input, int start, int end) {
-        String code = normalizeCode(input.substring(start, end));
-        return getNodeFactory().createCodeSpan(code);
+    private static int countBackticks(String input, int index) {
+        int i = index;
+        while (i < input.length() && input.charAt(i) == BACKTICK) {
+            ++i;
+        }
+        return i - index;
+    }
+    
+    private static CodeSpan buildNode(Context context, String input, int start, int end) {
+        String code = normalizeCode(input, start, end);
+        return context.getNodeFactory().createCodeSpan(code);
+    }
+    
+    /**
+     * Strips leading and trailing spaces and line endings,
+     * and collapses the interior whitespace into single spaces.
+     * 
+     * @param input the input.
+     * @param start the start index of the code.
+     * @param end the end index of the code.
+     * @return the normalized code.
+     */
+    private static String normalizeCode(String input, int start, int end) {
+        while (start < end && isSpaceOrLineEnding(input.charAt(start))) {
+            ++start;
+        }
+        while (end > start && isSpaceOrLineEnding(input.charAt(end - 1))) {
+            --end;
+        }
+        StringBuilder builder = null;
+        for (int i = start; i < end; ++i) {
+            char c = input.charAt(i);
+            if (!isWhitespace(c)) {
+                if (builder != null) {
+                    builder.append(c);
+                }
+                continue;
+            }
+            int next = i + 1;
+            while (next < end && isWhitespace(input.charAt(next))) {
+                ++next;
+            }
+            if (builder == null) {
+                if (c == '\u0020' && next == i + 1) {
+                    continue;
+                }
+                builder = new StringBuilder(end - start);
+                builder.append(input, start, i);
+            }
+            builder.append('\u0020');
+            i = next - 1;
+        }
+        return (builder != null) ? builder.toString() : input.substring(start, end);
     }
     
-    private static String normalizeCode(String string) {
-        string = LEADING_SPACE_OR_LINE_ENDING.matcher(string).replaceAll("");
-        string = TRAILING_SPACE_OR_LINE_ENDING.matcher(string).replaceAll("");
-        return WHITESPACE.matcher(string).replaceAll("\u0020");
+    private static boolean isSpaceOrLineEnding(char c) {
+        return c == '\u0020' || c == '\r' || c == '\n';
     }
 }
@@ -33,17 +33,17 @@ public class ImageHandler extends LinkHandler {
     }
 
     @Override
-    public int handleContent(String input, int offset) {
+    public int handleContent(Context context, String input, int offset) {
         if (input.length() <= offset + 1 || input.charAt(offset + 1) != '[') {
             return 0;
         }
-        Text text = buildNode(OPENING_CONTENT);
-        getAppender().appendNode(text);
-        getDelimiterStack().add(new ImageDelimiter(text, offset));
+        Text text = buildNode(context, OPENING_CONTENT);
+        context.getAppender().appendNode(text);
+        context.getDelimiterStack().add(new ImageDelimiter(text, offset));
         return OPENING_CONTENT.length();
     }
 
-    class ImageDelimiter extends AbstractLinkDelimiter {
+    static class ImageDelimiter extends AbstractLinkDelimiter {
 
         ImageDelimiter(Text text, int position) {
             super(text, position);
@@ -51,7 +51,7 @@ public class ImageHandler extends LinkHandler {
 
         @Override
         protected Node buildWrapNode(LinkDefinition definition) {
-            return getNodeFactory().createImage(definition.destination(), definition.title());
+            return text().factory().createImage(definition.destination(), definition.title());
         }
     }
 }
@@ -29,6 +29,11 @@ import org.leadpony.fika.format.markdown.common.LinkDefinition;
  */
 class InlineLinkParser {
     
+    /**
+     * The maximum nesting level of parentheses in link destination.
+     */
+    private static final int MAX_PARENTHESES = 32;
+
     @SuppressWarnings("serial")
     private static class SyntaxException extends RuntimeException {
     }
@@ -104,7 +109,9 @@ class InlineLinkParser {
             if (c == '\\') {
                 escape();
             } else if (c == '(') {
-                ++parentheses;
+                if (++parentheses > MAX_PARENTHESES) {
+                    throw new SyntaxException();
+                }
             } else if (c == ')') {
                 if (parentheses > 0) {
                     --parentheses;
@@ -126,7 +133,7 @@ class InlineLinkParser {
         int begin = index();
         while (hasNext()) {
             char c = next();
-            if (isWhitespace(c)) {
+            if (isWhitespace(c) || c == '<') {
                 break;
             } else if (c == '\\') {
                 escape();
@@ -148,6 +155,8 @@ class InlineLinkParser {
                 escape();
             } else if (c == closer) {
                 return toString(begin, index() - 1);
+            } else if (c == opener && opener == '(') {
+                break;
             }
         }
         throw new SyntaxException();
@@ -15,14 +15,14 @@
  */
 package org.leadpony.fika.format.markdown.inline.commonmark;
 
-import org.leadpony.fika.format.markdown.inline.AbstractInlineHandler;
+import org.leadpony.fika.format.markdown.inline.InlineHandler;
 import org.leadpony.fika.format.markdown.inline.HandlerType;
 import org.leadpony.fika.format.markdown.inline.InlineAppender;
 
 /**
  * @author leadpony
  */
-public class LineBreakHandler extends AbstractInlineHandler {
+public class LineBreakHandler implements InlineHandler {
 
     private static final char TRIGGER_LETTER = '\n';
     
@@ -37,14 +37,14 @@ public class LineBreakHandler extends AbstractInlineHandler {
     }
     
     @Override
-    public int handleContent(String input, int currentIndex) {
-        InlineAppender appender = getAppender();
+    public int handleContent(Context context, String input, int currentIndex) {
+        InlineAppender appender = context.getAppender();
         int precedingSpaces = countPrecedingSpaces(input, currentIndex);
         int followingSpaces = countFollowingSpaces(input, currentIndex);
         if (precedingSpaces > 0) {
             appender.removeContent(precedingSpaces);
             if (precedingSpaces >= 2 && currentIndex < input.length() - 1) {
-                appender.appendNode(getNodeFactory().createHardLineBreak());
+                appender.appendNode(context.getNodeFactory().createHardLineBreak());
                 return 1 + followingSpaces;
             }
         }
@@ -17,13 +17,10 @@ package org.leadpony.fika.format.markdown.inline.commonmark;
 
 import static org.leadpony.fika.format.markdown.common.Strings.trimWhitespace;
 
-import java.util.Iterator;
-
 import org.leadpony.fika.format.markdown.common.InputSequence;
 import org.leadpony.fika.format.markdown.common.LinkDefinition;
-import org.leadpony.fika.format.markdown.inline.AbstractInlineHandler;
+import org.leadpony.fika.format.markdown.inline.InlineHandler;
 import org.leadpony.fika.format.markdown.inline.Delimiter;
-import org.leadpony.fika.format.markdown.inline.DelimiterStack;
 import org.leadpony.fika.format.markdown.inline.HandlerType;
 import org.leadpony.fika.format.markdown.inline.commonmark.LinkHandler.LinkDelimiter;
 import org.leadpony.fika.core.model.Node;
@@ -32,10 +29,15 @@ import org.leadpony.fika.core.model.Text;
 /**
  * @author leadpony
  */
-public class LinkCloserHandler extends AbstractInlineHandler {
+public class LinkCloserHandler implements InlineHandler {
 
     private static final char TRIGGER_LETTER = ']';
 
+    /**
+     * The maximum number of characters inside the brackets of a link label.
+     */
+    private static final int MAX_LABEL_LENGTH = 999;
+
     @Override
     public char[] triggerLetters() {
         return new char[] { TRIGGER_LETTER };
@@ -47,149 +49,154 @@ public class LinkCloserHandler extends AbstractInlineHandler {
     }
 
     @Override
-    public int handleContent(String input, int currentIndex) {
-        Text text = buildNode(AbstractLinkDelimiter.CLOSING_CONTENT);
-        getAppender().appendNode(text);
+    public int handleContent(Context context, String input, int currentIndex) {
+        Text text = buildNode(context, AbstractLinkDelimiter.CLOSING_CONTENT);
+        context.getAppender().appendNode(text);
         Delimiter closer = new ClosingDelimiter(text, currentIndex);
-        Delimiter opener = findOpener(closer);
+        Delimiter opener = findOpener(context, closer);
         if (opener != null) {
             if (opener.isActive()) {
                 InputSequence offsetted = InputSequence.withOffset(input, currentIndex + 1);
-                int consumed = parseLink(offsetted, opener, closer);
+                int consumed = parseLink(context, offsetted, opener, closer);
                 if (consumed >= 0) {
                     return 1 + consumed;
                 }
             }
-            getDelimiterStack().remove(opener);
+            context.getDelimiterStack().remove(opener);
         }
         return 1;
     }
 
-    private Text buildNode(String content) {
-        return getNodeFactory().createText(content);
+    private static Text buildNode(Context context, String content) {
+        return context.getNodeFactory().createText(content);
     }
 
-    private int parseLink(InputSequence input, Delimiter opener, Delimiter closer) {
+    private static int parseLink(Context context, InputSequence input, Delimiter opener, Delimiter closer) {
         if (input.length() > 0) {
             char first = input.charAt(0);
             if (first == '(') {
-                return parseInlineLink(input, opener, closer);
+                return parseInlineLink(context, input, opener, closer);
             } else if (first == '[' && input.length() > 1) {
                 if (input.charAt(1) == ']') {
-                    return parseCollapsedReferenceLink(opener, closer);
+                    return parseCollapsedReferenceLink(context, opener, closer);
                 } else {
-                    return parseFullReferenceLink(input, opener, closer);
+                    return parseFullReferenceLink(context, input, opener, closer);
                 }
             }
         }
-        return parseShortcutReferenceLink(opener, closer);
+        return parseShortcutReferenceLink(context, opener, closer);
     }
 
-    private int parseInlineLink(InputSequence input, Delimiter opener, Delimiter closer) {
+    private static int parseInlineLink(Context context, InputSequence input, Delimiter opener, Delimiter closer) {
         InlineLinkParser parser = new InlineLinkParser(input, 0);
         LinkDefinition definition = parser.parse();
         if (definition == null) {
-            return parseShortcutReferenceLink(opener, closer);
+            return parseShortcutReferenceLink(context, opener, closer);
         }
-        makeLink(opener, closer, definition);
+        makeLink(context, opener, closer, definition);
         return parser.index();
     }
 
-    private int parseFullReferenceLink(InputSequence input, Delimiter opener, Delimiter closer) {
+    private static int parseFullReferenceLink(
+            Context context, InputSequence input, Delimiter opener, Delimiter closer) {
+        final int limit = Math.min(input.length(), MAX_LABEL_LENGTH + 1);
         int i = 1;
-        for (; i < input.length(); ++i) {
+        for (; i < limit; ++i) {
             char c = input.charAt(i);
             if (c == ']') {
                 break;
+            } else if (c == '[') {
+                return -1;
             } else if (c == '\\') {
                 ++i;
             }
         }
+        if (i >= limit) {
+            return -1;
+        }
         int end = i;
         String label = trimWhitespace(input.substring(1, end));
         if (label.isEmpty()) {
             return -1;
         }
-        LinkDefinition definition = findDefinition(label);
+        LinkDefinition definition = findDefinition(context, label);
         if (definition != null) {
-            makeLink(opener, closer, definition);
+            makeLink(context, opener, closer, definition);
             return end + 1;
         } else {
             return -1;
         }
     }
 
-    private int parseCollapsedReferenceLink(Delimiter opener, Delimiter closer) {
-        String label = extractLinkLabel(opener, closer);
-        LinkDefinition definition = findDefinition(label);
+    private static int parseCollapsedReferenceLink(Context context, Delimiter opener, Delimiter closer) {
+        String label = extractLinkLabel(context, opener, closer);
+        if (label == null) {
+            return -1;
+        }
+        LinkDefinition definition = findDefinition(context, label);
         if (definition != null) {
-            makeLink(opener, closer, definition);
+            makeLink(context, opener, closer, definition);
             return 2;
         } else {
             return -1;
         }
     }
 
-    private int parseShortcutReferenceLink(Delimiter opener, Delimiter closer) {
-        String label = extractLinkLabel(opener, closer);
-        LinkDefinition definition = findDefinition(label);
+    private static int parseShortcutReferenceLink(Context context, Delimiter opener, Delimiter closer) {
+        String label = extractLinkLabel(context, opener, closer);
+        if (label == null) {
+            return -1;
+        }
+        LinkDefinition definition = findDefinition(context, label);
         if (definition != null) {
-            makeLink(opener, closer, definition);
+            makeLink(context, opener, closer, definition);
             return 0;
         } else {
             return -1;
         }
     }
 
-    private Delimiter findOpener(Delimiter closer) {
-        DelimiterStack stack = getDelimiterStack();
-        Iterator<Delimiter> it = stack.descendingIterator();
-        while (it.hasNext()) {
-            Delimiter current = it.next();
-            if (current.canBeOpener() && current.canBePairedWith(closer)) {
-                return current;
-            }
+    private static Delimiter findOpener(Context context, Delimiter closer) {
+        Delimiter current = context.getDelimiterStack().peekLastBracket();
+        if (current != null && current.canBeOpener() && current.canBePairedWith(closer)) {
+            return current;
         }
         return null;
     }
 
-    private String extractLinkLabel(Delimiter opener, Delimiter closer) {
+    private static String extractLinkLabel(Context context, Delimiter opener, Delimiter closer) {
         AbstractLinkDelimiter linkOpener = (AbstractLinkDelimiter)opener;
         int openerLength = linkOpener.delimiter().length();
         int beginIndex = openerLength + linkOpener.getPosition();
         int endIndex = ((ClosingDelimiter)closer).position;
-        return context().input().substring(beginIndex, endIndex);
+        if (endIndex - beginIndex > MAX_LABEL_LENGTH) {
+            return null;
+        }
+        return context.input().substring(beginIndex, endIndex);
     }
 
-    private LinkDefinition findDefinition(String label) {
-        return context().getLinkDefinitionMap().get(label);
+    private static LinkDefinition findDefinition(Context context, String label) {
+        return context.getLinkDefinitionMap().get(label);
     }
 
-    private Node makeLink(Delimiter opener, Delimiter closer, LinkDefinition definition) {
+    private static Node makeLink(Context context, Delimiter opener, Delimiter closer, LinkDefinition definition) {
         Node newNode = opener.makePairWith(closer, definition);
-        processDelimitersInText(opener);
+        processDelimitersInText(context, opener);
         if (opener instanceof LinkDelimiter) {
-            deactiveOpenersBefore(opener);
+            deactiveOpenersBefore(context, opener);
         }
-        getDelimiterStack().remove(opener);
+        context.getDelimiterStack().remove(opener);
         opener.text().unlink();
         closer.text().unlink();
         return newNode;
     }
 
-    private void deactiveOpenersBefore(Delimiter opener) {
-        DelimiterStack stack = getDelimiterStack();
-        Iterator<Delimiter> it = stack.descendingIterator(opener);
-        while (it.hasNext()) {
-            Delimiter current = it.next();
-            if (current.canBeOpener() && current.isSameTypeAs(opener)) {
-                current.deactive();
-            }
-        }
+    private static void deactiveOpenersBefore(Context context, Delimiter opener) {
+        context.getDelimiterStack().deactivateBracketsBefore(opener);
     }
 
-    private void processDelimitersInText(Delimiter opener) {
-        context().getDelimiterProcessor().processDelimiters(opener);
+    private static void processDelimitersInText(Context context, Delimiter opener) {
+        context.getDelimiterProcessor().processDelimiters(opener);
     }
 
     private static class ClosingDelimiter extends Delimiter {
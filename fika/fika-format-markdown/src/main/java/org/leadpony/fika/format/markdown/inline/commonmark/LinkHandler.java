@@ -16,7 +16,7 @@
 package org.leadpony.fika.format.markdown.inline.commonmark;
 
 import org.leadpony.fika.format.markdown.common.LinkDefinition;
-import org.leadpony.fika.format.markdown.inline.AbstractInlineHandler;
+import org.leadpony.fika.format.markdown.inline.InlineHandler;
 import org.leadpony.fika.format.markdown.inline.HandlerType;
 import org.leadpony.fika.core.model.Node;
 import org.leadpony.fika.core.model.Text;
@@ -24,7 +24,7 @@ import org.leadpony.fika.core.model.Text;
 /**
  * @author leadpony
  */
-public class LinkHandler extends AbstractInlineHandler {
+public class LinkHandler implements InlineHandler {
 
     public static final String OPENING_CONTENT = "[";
 
@@ -41,18 +41,18 @@ public class LinkHandler extends AbstractInlineHandler {
     }
 
     @Override
-    public int handleContent(String input, int currentIndex) {
-        Text text = buildNode(OPENING_CONTENT);
-        getAppender().appendNode(text);
-        getDelimiterStack().add(new LinkDelimiter(text, currentIndex));
+    public int handleContent(Context context, String input, int currentIndex) {
+        Text text = buildNode(context, OPENING_CONTENT);
+        context.getAppender().appendNode(text);
+        context.getDelimiterStack().add(new LinkDelimiter(text, currentIndex));
         return OPENING_CONTENT.length();
     }
 
-    protected Text buildNode(String content) {
-        return getNodeFactory().createText(content);
+    protected static Text buildNode(Context context, String content) {
+        return context.getNodeFactory().createText(content);
     }
 
-    class LinkDelimiter extends AbstractLinkDelimiter {
+    static class LinkDelimiter extends AbstractLinkDelimiter {
 
         LinkDelimiter(Text text, int position) {
             super(text, position);
@@ -60,7 +60,7 @@ public class LinkHandler extends AbstractInlineHandler {
 
         @Override
         protected Node buildWrapNode(LinkDefinition definition) {
-            return getNodeFactory().createLink(definition.destination(), definition.title());
+            return text().factory().createLink(definition.destination(), definition.title());
         }
     }
 }
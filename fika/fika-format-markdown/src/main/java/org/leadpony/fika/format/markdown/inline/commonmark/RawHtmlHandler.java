@@ -15,18 +15,16 @@
  */
 package org.leadpony.fika.format.markdown.inline.commonmark;
 
-import java.util.regex.Matcher;
-
-import org.leadpony.fika.format.markdown.common.HtmlMatchers;
+import org.leadpony.fika.format.markdown.common.HtmlScanner;
 import org.leadpony.fika.format.markdown.common.InputSequence;
-import org.leadpony.fika.format.markdown.inline.AbstractInlineHandler;
+import org.leadpony.fika.format.markdown.inline.InlineHandler;
 import org.leadpony.fika.format.markdown.inline.HandlerType;
 import org.leadpony.fika.core.model.HtmlInline;
 
 /**
  * @author leadpony
  */
-public class RawHtmlHandler extends AbstractInlineHandler {
+public class RawHtmlHandler implements InlineHandler {
 
     private static final char TRIGGER_LETTER = '<';
     
@@ -41,16 +39,26 @@ public class RawHtmlHandler extends AbstractInlineHandler {
     }
     
     @Override
-    public int handleContent(InputSequence input) {
-        Matcher m = HtmlMatchers.newHtmlMatcher(input);
-        if (m.lookingAt()) {
-            getAppender().appendNode(buildNode(m.group()));
-            return m.end();
+    public int handleContent(Context context, InputSequence input) {
+        final int length = HtmlScanner.scanHtml(input, 0);
+        if (length > 0) {
+            String html = input.subSequence(0, length).toString();
+            context.getAppender().appendNode(buildNode(context, html));
+        }
+        return length;
+    }
+
+    @Override
+    public int handleContent(Context context, String input, int currentIndex) {
+        final int length = HtmlScanner.scanHtml(input, currentIndex, context.getHtmlScanMemo());
+        if (length > 0) {
+            String html = input.substring(currentIndex, currentIndex + length);
+            context.getAppender().appendNode(buildNode(context, html));
         }
-        return 0;
+        return length;
     }
     
-    private HtmlInline buildNode(String html) {
-        return getNodeFactory().createHtmlInline(html);
+    private static HtmlInline buildNode(Context context, String html) {
+        return context.getNodeFactory().createHtmlInline(html);
     }
 }
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.format.markdown.parser;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+import org.leadpony.fika.format.markdown.block.InlineQueue;
+import org.leadpony.fika.format.markdown.inline.InlineProcessor;
+
+/**
+ * Task processing the inlines in a range of the queue on a fork-join pool.
+ *
+ * <p>
+ * The range is split in halves until it becomes small enough,
+ * and each leaf task processes its range with its own inline processor.
+ * The text nodes in the queue belong to different blocks,
+ * and replacing a text node with inlines modifies only the child list of its block,
+ * so no synchronization is required between the tasks.
+ * This holds only while the nodes do not memoize their text content,
+ * because a memoizing node discards the text memoized by all its ancestors,
+ * which are shared by the tasks.
+ * {@link MarkdownParser} therefore processes the inlines sequentially for such nodes.
+ * The link definitions are read only after the block phase.
+ * </p>
+ *
+ * @author leadpony
+ */
+@SuppressWarnings("serial")
+class InlineTask extends RecursiveAction {
+
+    /**
+     * The number of the text nodes processed by a leaf task.
+     */
+    static final int THRESHOLD = 128;
+
+    private final InlineQueue queue;
+    private final int beginIndex;
+    private final int endIndex;
+    private final Supplier<InlineProcessor> processorSupplier;
+
+    InlineTask(InlineQueue queue, Supplier<InlineProcessor> processorSupplier) {
+        this(queue, 0, queue.size(), processorSupplier);
+    }
+
+    private InlineTask(InlineQueue queue, int beginIndex, int endIndex,
+            Supplier<InlineProcessor> processorSupplier) {
+        this.queue = queue;
+        this.beginIndex = beginIndex;
+        this.endIndex = endIndex;
+        this.processorSupplier = processorSupplier;
+    }
+
+    @Override
+    protected void compute() {
+        if (endIndex - beginIndex <= THRESHOLD) {
+            InlineProcessor processor = processorSupplier.get();
+            for (int i = beginIndex; i < endIndex; i++) {
+                processor.processInlines(queue.get(i));
+            }
+        } else {
+            int middle = (beginIndex + endIndex) >>> 1;
+            invokeAll(
+                new InlineTask(queue, beginIndex, middle, processorSupplier),
+                new InlineTask(queue, middle, endIndex, processorSupplier));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.format.markdown.parser;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reader of the lines in the source.
+ * 
+ * <p>
+ * The source is read into a reusable buffer and each line is exposed
+ * as a range in the buffer, without creating any string.
+ * A line is terminated by a line feed, a carriage return,
+ * or a carriage return followed immediately by a line feed,
+ * and the terminator is not included in the line.
+ * The range of the line is valid only until the next call of {@link #nextLine()}.
+ * </p>
+ * 
+ * @author leadpony
+ */
+class LineReader {
+    
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    
+    private final Reader reader;
+    private char[] buffer;
+    // the number of the valid characters in the buffer.
+    private int limit;
+    // the index of the next character to scan.
+    private int position;
+    private boolean endOfInput;
+    // true if the last line was terminated by a carriage return.
+    private boolean skipLineFeed;
+    
+    private int lineStart;
+    private int lineEnd;
+    
+    LineReader(Reader reader) {
+        this(reader, DEFAULT_BUFFER_SIZE);
+    }
+
+    LineReader(Reader reader, int bufferSize) {
+        this.reader = reader;
+        this.buffer = new char[bufferSize];
+    }
+    
+    /**
+     * Advances to the next line.
+     * 
+     * @return {@code true} if the next line was found, 
+     *         {@code false} if the end of the input was reached.
+     * @throws IOException if an I/O error occurred.
+     */
+    boolean nextLine() throws IOException {
+        int start = this.position;
+        int index = start;
+        for (;;) {
+            if (index >= this.limit) {
+                if (this.endOfInput) {
+                    break;
+                }
+                int shift = fill(start);
+                start -= shift;
+                index -= shift;
+                continue;
+            }
+            char c = this.buffer[index];
+            if (this.skipLineFeed) {
+                this.skipLineFeed = false;
+                if (c == '\n') {
+                    start = ++index;
+                    continue;
+                }
+            }
+            if (c == '\n' || c == '\r') {
+                this.skipLineFeed = (c == '\r');
+                setLine(start, index, index + 1);
+                return true;
+            }
+            index++;
+        }
+        this.position = index;
+        if (start < index) {
+            setLine(start, index, index);
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Returns the buffer containing the current line.
+     * 
+     * @return the buffer containing the current line.
+     */
+    char[] buffer() {
+        return buffer;
+    }
+    
+    /**
+     * Returns the index of the first character of the current line.
+     * 
+     * @return the index of the first character, inclusive.
+     */
+    int lineStart() {
+        return lineStart;
+    }
+
+    /**
+     * Returns the index of the last character of the current line.
+     * 
+     * @return the index of the last character, exclusive.
+     */
+    int lineEnd() {
+        return lineEnd;
+    }
+    
+    private void setLine(int start, int end, int next) {
+        this.lineStart = start;
+        this.lineEnd = end;
+        this.position = next;
+    }
+    
+    /**
+     * Reads more characters into the buffer, 
+     * moving the current line to the beginning of the buffer.
+     * 
+     * @param start the index of the first character of the current line.
+     * @return the distance by which the characters were moved.
+     * @throws IOException if an I/O error occurred.
+     */
+    private int fill(int start) throws IOException {
+        int remaining = this.limit - start;
+        if (start > 0) {
+            System.arraycopy(this.buffer, start, this.buffer, 0, remaining);
+        } else if (remaining == this.buffer.length) {
+            char[] newBuffer = new char[this.buffer.length * 2];
+            System.arraycopy(this.buffer, 0, newBuffer, 0, remaining);
+            this.buffer = newBuffer;
+        }
+        this.limit = remaining;
+        int read = this.reader.read(this.buffer, remaining, this.buffer.length - remaining);
+        if (read < 0) {
+            this.endOfInput = true;
+        } else {
+            this.limit += read;
+        }
+        return start;
+    }
+}
@@ -15,24 +15,28 @@
  */
 package org.leadpony.fika.format.markdown.parser;
 
-import java.io.BufferedReader;
+import static java.util.Objects.requireNonNull;
+
 import java.io.IOException;
 import java.io.Reader;
-import java.util.List;
-import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
-import org.leadpony.fika.format.markdown.block.BlockMatcher;
+import org.leadpony.fika.format.markdown.block.BlockMatcherTable;
 import org.leadpony.fika.format.markdown.block.BlockProcessor;
 import org.leadpony.fika.format.markdown.block.DefaultBlockProcessor;
+import org.leadpony.fika.format.markdown.block.InlineQueue;
 import org.leadpony.fika.format.markdown.common.LinkDefinitionMap;
 import org.leadpony.fika.format.markdown.inline.DefaultInlineProcessor;
-import org.leadpony.fika.format.markdown.inline.InlineHandler;
+import org.leadpony.fika.format.markdown.inline.InlineHandlerTable;
 import org.leadpony.fika.format.markdown.inline.InlineProcessor;
+import org.leadpony.fika.core.core.NodeHandler;
 import org.leadpony.fika.core.core.Parser;
 import org.leadpony.fika.core.core.ParsingException;
 import org.leadpony.fika.core.model.Document;
+import org.leadpony.fika.core.model.Node;
 import org.leadpony.fika.core.model.NodeFactory;
 import org.leadpony.fika.core.model.Text;
+import org.leadpony.fika.format.base.model.DefaultNodeFactory;
 
 /**
  * The parser for parsing the source written in Markdown.
@@ -47,6 +51,8 @@ class MarkdownParser implements Parser {
     private boolean alreadyRead;
     private boolean alreadyClosed;
 
+    private final NodeFactory nodeFactory;
+
     // link reference definitions.
     private final LinkDefinitionMap linkDefinitions;
 
@@ -56,14 +62,19 @@ class MarkdownParser implements Parser {
     // inline processor.
     private final InlineProcessor inlineProcessor;
 
-    public MarkdownParser(Reader reader, NodeFactory nodeFactory, Set<FeatureProvider> featureSet) {
+    // inline handlers shared by the inline processors.
+    private final InlineHandlerTable handlerTable;
+    private final boolean parallelInlines;
+
+    public MarkdownParser(Reader reader, NodeFactory nodeFactory, ParserPlan plan) {
         this.reader = reader;
         this.alreadyRead = this.alreadyClosed = false;
+        this.nodeFactory = nodeFactory;
         this.linkDefinitions = new LinkDefinitionMap();
-        ParserBuilder builder = new ParserBuilder();
-        registerFeatures(featureSet, builder);
-        this.blockProcessor = buildBlockProcessor(nodeFactory, builder.matchers());
-        this.inlineProcessor = buildInlineProcessor(nodeFactory, builder.handlers());
+        this.blockProcessor = buildBlockProcessor(nodeFactory, plan.matcherTable());
+        this.inlineProcessor = buildInlineProcessor(nodeFactory, plan.handlerTable());
+        this.handlerTable = plan.handlerTable();
+        this.parallelInlines = plan.parallelInlines() && !isMemoizingTextContent(nodeFactory);
     }
 
     @Override
@@ -83,6 +94,7 @@ class MarkdownParser implements Parser {
         if (this.alreadyRead || this.alreadyClosed) {
             throw new IllegalStateException();
         }
+        this.alreadyRead = true;
         try {
             Document doc = processAllBlocks();
             processAllInlines(this.blockProcessor.getInlines());
@@ -92,37 +104,96 @@ class MarkdownParser implements Parser {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * This parser reports each top-level block as soon as the block is completed,
+     * and the block is not attached to the document reported.
+     * Note that a link reference definition is effective only for the links
+     * which appear after the definition when the document is parsed by this method.
+     * </p>
+     */
+    @Override
+    public void parse(NodeHandler handler) {
+        requireNonNull(handler, "handler must not be null.");
+        if (this.alreadyRead || this.alreadyClosed) {
+            throw new IllegalStateException();
+        }
+        this.alreadyRead = true;
+        Document doc = this.nodeFactory.createDocument();
+        handler.enterNode(doc);
+        this.blockProcessor.setBlockConsumer(block -> handleBlock(block, handler));
+        try {
+            processAllBlocks();
+        } catch (IOException e) {
+            throw new ParsingException(e.getMessage(), e);
+        } finally {
+            this.blockProcessor.setBlockConsumer(null);
+        }
+        handler.leaveNode(doc);
+    }
+
     private Document processAllBlocks() throws IOException {
         BlockProcessor processor = this.blockProcessor;
-        BufferedReader reader = new BufferedReader(this.reader);
-        String line = null;
-        while ((line = reader.readLine()) != null) {
-            processor.process(line);
+        LineReader lines = new LineReader(this.reader);
+        while (lines.nextLine()) {
+            processor.process(lines.buffer(), lines.lineStart(), lines.lineEnd());
         }
         return processor.getDocument();
     }
 
-    private void processAllInlines(Set<Text> inlines) {
-        for (Text text: inlines) {
-            processInline(text);
+    private void handleBlock(Node block, NodeHandler handler) {
+        InlineQueue inlines = this.blockProcessor.getInlines();
+        processAllInlines(inlines);
+        inlines.clear();
+        handler.handleTree(block);
+    }
+
+    private void processAllInlines(InlineQueue inlines) {
+        final int size = inlines.size();
+        if (this.parallelInlines && size > InlineTask.THRESHOLD) {
+            processAllInlinesInParallel(inlines);
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            processInline(inlines.get(i));
         }
     }
 
-    private void processInline(Text text) {
-        inlineProcessor.processInlines(text);
+    /**
+     * Processes the inlines on the common fork-join pool.
+     * Each worker uses its own inline processor.
+     *
+     * @param inlines the text nodes to process.
+     */
+    private void processAllInlinesInParallel(InlineQueue inlines) {
+        ForkJoinPool.commonPool().invoke(new InlineTask(inlines,
+                () -> buildInlineProcessor(this.nodeFactory, this.handlerTable)));
     }
 
-    protected BlockProcessor buildBlockProcessor(NodeFactory nodeFactory, List<BlockMatcher> matchers) {
-        return new DefaultBlockProcessor(nodeFactory, linkDefinitions, matchers);
+    /**
+     * Checks if the nodes memoize their text content.
+     * Such nodes discard the text memoized by all their ancestors on every modification,
+     * so the tasks processing different blocks would write to the shared ancestors.
+     *
+     * @param nodeFactory the factory of the nodes.
+     * @return {@code true} if the text content is memoized.
+     */
+    private static boolean isMemoizingTextContent(NodeFactory nodeFactory) {
+        return (nodeFactory instanceof DefaultNodeFactory)
+                && ((DefaultNodeFactory) nodeFactory).isMemoizingTextContent();
     }
 
-    protected InlineProcessor buildInlineProcessor(NodeFactory nodeFactory, List<InlineHandler> handlers) {
-        return new DefaultInlineProcessor(nodeFactory, linkDefinitions, handlers);
+    private void processInline(Text text) {
+        inlineProcessor.processInlines(text);
     }
 
-    protected void registerFeatures(Set<FeatureProvider> features, ParserBuilder builder) {
-        for (FeatureProvider feature: features) {
-            feature.provide(builder);
-        }
+    protected BlockProcessor buildBlockProcessor(NodeFactory nodeFactory, BlockMatcherTable matcherTable) {
+        return new DefaultBlockProcessor(nodeFactory, linkDefinitions, matcherTable);
+    }
+
+    protected InlineProcessor buildInlineProcessor(NodeFactory nodeFactory, InlineHandlerTable handlerTable) {
+        return new DefaultInlineProcessor(nodeFactory, linkDefinitions, handlerTable);
     }
 }
@@ -27,27 +27,46 @@ import org.leadpony.fika.core.core.Parser;
 import org.leadpony.fika.core.core.ParserFactory;
 import org.leadpony.fika.core.core.ParserFactoryBuilder;
 import org.leadpony.fika.core.model.NodeFactory;
+import org.leadpony.fika.format.base.model.CompactNodeFactory;
 import org.leadpony.fika.format.base.model.DefaultNodeFactory;
 
 /**
  * Factory of markdown parsers.
  *
+ * <p>
+ * The features are compiled into a parser plan only once when this factory is built,
+ * and the plan is shared by all parsers created by this factory.
+ * </p>
+ *
  * @author leadpony
  */
 class MarkdownParserFactory implements ParserFactory {
 
-    private final Set<FeatureProvider> featureSet;
+    private final ParserPlan plan;
     private final NodeFactory nodeFactory;
 
     MarkdownParserFactory(Builder builder) {
-        this.featureSet = builder.activeFeatureSet;
+        this.plan = compilePlan(builder.activeFeatureSet);
         this.nodeFactory = new DefaultNodeFactory();
     }
 
     @Override
     public Parser createParser(Reader reader) {
         requireNonNull(reader, "reader must not be null.");
-        return new MarkdownParser(reader, this.nodeFactory, this.featureSet);
+        NodeFactory nodeFactory = this.nodeFactory;
+        if (plan.compactNodes()) {
+            // each document owns its storage.
+            nodeFactory = new CompactNodeFactory();
+        }
+        return new MarkdownParser(reader, nodeFactory, this.plan);
+    }
+
+    private static ParserPlan compilePlan(Set<FeatureProvider> featureSet) {
+        ParserBuilder builder = new ParserBuilder();
+        for (FeatureProvider feature : featureSet) {
+            feature.provide(builder);
+        }
+        return builder.build();
     }
 
     /**
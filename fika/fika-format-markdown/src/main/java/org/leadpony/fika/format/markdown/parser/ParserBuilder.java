@@ -21,7 +21,9 @@ import java.util.List;
 import java.util.Set;
 
 import org.leadpony.fika.format.markdown.block.BlockMatcher;
+import org.leadpony.fika.format.markdown.block.BlockMatcherTable;
 import org.leadpony.fika.format.markdown.inline.InlineHandler;
+import org.leadpony.fika.format.markdown.inline.InlineHandlerTable;
 import org.leadpony.fika.format.markdown.inline.commonmark.BackslashEscapeHandler;
 import org.leadpony.fika.format.markdown.inline.commonmark.CharacterReferenceHandler;
 
@@ -33,6 +35,8 @@ public class ParserBuilder {
     private final List<BlockMatcher> matchers = new ArrayList<>(); 
     private final List<InlineHandler> handlers = new ArrayList<>(); 
     private final Set<Class<?>> classes = new HashSet<>();
+    private boolean parallelInlines;
+    private boolean compactNodes;
     
     ParserBuilder() {
         handlers.add(new BackslashEscapeHandler());
@@ -49,6 +53,22 @@ public class ParserBuilder {
         this.classes.add(handler.getClass());
     }
     
+    /**
+     * Enables the parallel processing of inlines,
+     * which is performed on the common fork-join pool.
+     */
+    public void enableParallelInlines() {
+        this.parallelInlines = true;
+    }
+
+    /**
+     * Enables the compact storage of the nodes,
+     * which gives a separate node factory to each parser.
+     */
+    public void enableCompactNodes() {
+        this.compactNodes = true;
+    }
+
     public boolean hasAdded(Class<?> clazz) {
         return classes.contains(clazz);
     }
@@ -60,4 +80,18 @@ public class ParserBuilder {
     List<InlineHandler> handlers() {
         return handlers;
     }
+
+    /**
+     * Builds the parser plan from the matchers and the handlers added so far.
+     *
+     * @return newly built parser plan.
+     */
+    ParserPlan build() {
+        return new ParserPlan(
+                new BlockMatcherTable(matchers),
+                new InlineHandlerTable(handlers),
+                // the compact storage cannot be shared by multiple threads.
+                parallelInlines && !compactNodes,
+                compactNodes);
+    }
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.format.markdown.parser;
+
+import org.leadpony.fika.format.markdown.block.BlockMatcherTable;
+import org.leadpony.fika.format.markdown.inline.InlineHandlerTable;
+
+/**
+ * Immutable plan of parsers precompiled from the active features.
+ *
+ * <p>
+ * A plan is built once per parser factory and shared by all parsers
+ * created by the factory, which may run in multiple threads.
+ * Each parser holds only the state specific to the document to parse.
+ * </p>
+ *
+ * @author leadpony
+ */
+class ParserPlan {
+
+    private final BlockMatcherTable matcherTable;
+    private final InlineHandlerTable handlerTable;
+    private final boolean parallelInlines;
+    private final boolean compactNodes;
+
+    ParserPlan(BlockMatcherTable matcherTable, InlineHandlerTable handlerTable,
+            boolean parallelInlines, boolean compactNodes) {
+        this.matcherTable = matcherTable;
+        this.handlerTable = handlerTable;
+        this.parallelInlines = parallelInlines;
+        this.compactNodes = compactNodes;
+    }
+
+    /**
+     * Returns the table of block matchers.
+     *
+     * @return the table of block matchers.
+     */
+    BlockMatcherTable matcherTable() {
+        return matcherTable;
+    }
+
+    /**
+     * Returns the dispatch table of inline handlers.
+     *
+     * @return the dispatch table of inline handlers.
+     */
+    InlineHandlerTable handlerTable() {
+        return handlerTable;
+    }
+
+    /**
+     * Checks if the inlines should be processed in parallel.
+     *
+     * @return {@code true} if the inlines should be processed in parallel.
+     */
+    boolean parallelInlines() {
+        return parallelInlines;
+    }
+
+    /**
+     * Checks if the nodes should be stored compactly.
+     *
+     * @return {@code true} if the nodes should be stored compactly.
+     */
+    boolean compactNodes() {
+        return compactNodes;
+    }
+}
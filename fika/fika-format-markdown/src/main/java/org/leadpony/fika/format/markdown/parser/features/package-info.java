@@ -16,6 +16,8 @@
 
 /**
  * Provides various kinds of Markdown features.
+ * The features in this package are options which apply to the whole parser,
+ * while those in the subpackages add the syntax of blocks or inlines.
  * 
  * @author leadpony
  */
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.parser.markdown;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.leadpony.fika.core.DocumentService;
+import org.leadpony.fika.core.DocumentWriter;
+import org.leadpony.fika.core.core.BasicFeature;
+import org.leadpony.fika.core.core.Parser;
+import org.leadpony.fika.core.core.ParserFactory;
+import org.leadpony.fika.core.core.ParserService;
+import org.leadpony.fika.core.model.Document;
+
+/**
+ * Tests parsers sharing the same factory in multiple threads.
+ *
+ * @author leadpony
+ */
+public class ParserFactoryTest {
+
+    private static final int THREADS = 4;
+
+    private static final ParserService service = ParserService.get("text/markdown");
+
+    @Test
+    public void createParserShouldBeThreadSafe() throws InterruptedException, ExecutionException {
+        ParserFactory factory = service.createParserFactoryBuilder()
+                .withFeature(BasicFeature.ADMONITION)
+                .withFeature(BasicFeature.DEFINITION_LIST)
+                .build();
+        List<Fixture> fixtures = Fixture.fromJson("/spec.json").collect(Collectors.toList());
+
+        List<String> expected = new ArrayList<>();
+        for (Fixture fixture : fixtures) {
+            expected.add(parseAndWrite(factory, fixture.source()));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    List<String> actual = new ArrayList<>();
+                    for (Fixture fixture : fixtures) {
+                        actual.add(parseAndWrite(factory, fixture.source()));
+                    }
+                    return actual;
+                }));
+            }
+            for (Future<List<String>> future : futures) {
+                assertThat(future.get()).isEqualTo(expected);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void parallelInlinesShouldProduceSameDocument() {
+        ParserFactory sequentialFactory = service.createParserFactory();
+        ParserFactory parallelFactory = service.createParserFactoryBuilder()
+                .withFeature(BasicFeature.PARALLEL_INLINES)
+                .build();
+        String source = Fixture.fromJson("/spec.json")
+                .map(Fixture::source)
+                .collect(Collectors.joining("\n"));
+
+        String expected = parseAndWrite(sequentialFactory, source);
+        String actual = parseAndWrite(parallelFactory, source);
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    public void compactNodesShouldProduceSameDocument() {
+        ParserFactory defaultFactory = service.createParserFactoryBuilder()
+                .withFeature(BasicFeature.ADMONITION)
+                .withFeature(BasicFeature.DEFINITION_LIST)
+                .build();
+        ParserFactory compactFactory = service.createParserFactoryBuilder()
+                .withFeature(BasicFeature.ADMONITION)
+                .withFeature(BasicFeature.DEFINITION_LIST)
+                .withFeature(BasicFeature.COMPACT_NODES)
+                .build();
+        Fixture.fromJson("/spec.json").forEach(fixture -> {
+            String expected = parseAndWrite(defaultFactory, fixture.source());
+            String actual = parseAndWrite(compactFactory, fixture.source());
+            assertThat(actual).isEqualTo(expected);
+        });
+    }
+
+    private static String parseAndWrite(ParserFactory factory, String source) {
+        Document doc;
+        try (Parser parser = factory.createParser(source)) {
+            doc = parser.parse();
+        }
+        StringWriter stringWriter = new StringWriter();
+        DocumentService htmlService = DocumentService.forType("text/html");
+        try (DocumentWriter writer = htmlService.createWriterBuilder(stringWriter)
+                .withFragmentOnly(true).build()) {
+            writer.write(doc);
+        }
+        return stringWriter.toString();
+    }
+}
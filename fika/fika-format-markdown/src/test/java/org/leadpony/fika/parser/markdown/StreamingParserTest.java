@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.parser.markdown;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.leadpony.fika.core.core.NodeHandler;
+import org.leadpony.fika.core.core.Parser;
+import org.leadpony.fika.core.core.ParserFactory;
+import org.leadpony.fika.core.core.ParserService;
+import org.leadpony.fika.core.model.Node;
+import org.leadpony.fika.core.model.Text;
+
+/**
+ * Tests the streaming parse of {@link Parser#parse(NodeHandler)}.
+ *
+ * @author leadpony
+ */
+public class StreamingParserTest {
+
+    private static final ParserService service = ParserService.get("text/markdown");
+    private static final ParserFactory factory = service.createParserFactory();
+
+    /*
+     * Link reference definitions are excluded
+     * because they may follow the links in the streaming parse.
+     */
+    public static Stream<Fixture> provideFixtures() {
+        return Fixture.fromJson("/spec.json")
+                .filter(fixture -> !fixture.source().contains("]:"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideFixtures")
+    public void parseShouldReportSameNodesAsTree(Fixture fixture) {
+        EventRecorder expected = new EventRecorder();
+        try (Parser parser = factory.createParser(fixture.source())) {
+            expected.handleTree(parser.parse());
+        }
+
+        EventRecorder actual = new EventRecorder();
+        try (Parser parser = factory.createParser(fixture.source())) {
+            parser.parse(actual);
+        }
+
+        assertThat(actual.events).isEqualTo(expected.events);
+    }
+
+    private static class EventRecorder implements NodeHandler {
+
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void enterNode(Node node) {
+            if (node instanceof Text) {
+                events.add("text:" + node.textContent());
+            } else {
+                events.add("enter:" + node.getClass().getSimpleName());
+            }
+        }
+
+        @Override
+        public void leaveNode(Node node) {
+            if (!(node instanceof Text)) {
+                events.add("leave:" + node.getClass().getSimpleName());
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.parser.markdown;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.leadpony.fika.core.DocumentException;
+import org.leadpony.fika.core.DocumentService;
+import org.leadpony.fika.core.DocumentWriter;
+import org.leadpony.fika.core.core.Parser;
+import org.leadpony.fika.core.core.ParserFactory;
+import org.leadpony.fika.core.core.ParserService;
+import org.leadpony.fika.core.model.Document;
+import org.leadpony.fika.format.html.writer.Utf8Writer;
+
+/**
+ * Tests writing documents encoded in UTF-8.
+ *
+ * @author leadpony
+ */
+public class Utf8WriterTest {
+
+    private static final ParserFactory parserFactory = ParserService.get("text/markdown").createParserFactory();
+    private static final DocumentService htmlService = DocumentService.forType("text/html");
+
+    @Test
+    public void writeFragmentToBytesShouldEncodeInUtf8() {
+        String source = Fixture.fromJson("/spec.json")
+                .map(Fixture::source)
+                .collect(Collectors.joining("\n"))
+                + "\nété 日本 😀 *🎉*\n";
+        Document doc = parse(source);
+
+        byte[] expected = writeToString(doc).getBytes(StandardCharsets.UTF_8);
+        byte[] actual = htmlService.writeFragmentToBytes(doc);
+
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    public void outputStreamWriterShouldProduceSameBytes() {
+        Document doc = parse("# Title\n\n<p>é</p>\n\n[link](/url \"😀\")\n");
+
+        byte[] expected = writeToString(doc).getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DocumentWriter writer = htmlService.createWriterBuilder(out)
+                .withFragmentOnly(true).build()) {
+            writer.write(doc);
+        }
+
+        assertThat(out.toByteArray()).isEqualTo(expected);
+    }
+
+    @Test
+    public void unpairedHighSurrogateShouldBeReplaced() throws IOException {
+        Utf8Writer writer = new Utf8Writer();
+        writer.write("a\uD83Db");
+        writer.close();
+
+        assertThat(writer.toByteArray()).isEqualTo(bytes("a?b"));
+    }
+
+    @Test
+    public void unpairedLowSurrogateShouldBeReplaced() throws IOException {
+        Utf8Writer writer = new Utf8Writer();
+        writer.write("a\uDE00b");
+        writer.close();
+
+        assertThat(writer.toByteArray()).isEqualTo(bytes("a?b"));
+    }
+
+    @Test
+    public void surrogatePairSplitAcrossWritesShouldBeEncoded() throws IOException {
+        Utf8Writer writer = new Utf8Writer();
+        writer.write("a\uD83D");
+        writer.write("\uDE00b");
+        writer.write('\uD83C');
+        writer.write('\uDF89');
+        writer.close();
+
+        assertThat(writer.toByteArray()).isEqualTo(bytes("a\uD83D\uDE00b\uD83C\uDF89"));
+    }
+
+    @Test
+    public void pendingHighSurrogateShouldBeReplacedOnClose() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Utf8Writer writer = new Utf8Writer(out);
+        writer.write("a\uD83D");
+        writer.close();
+
+        assertThat(out.toByteArray()).isEqualTo(bytes("a?"));
+    }
+
+    @Test
+    public void outputStreamErrorShouldBeReportedAsDocumentException() {
+        Document doc = parse("# Title\n");
+        DocumentWriter writer = htmlService.createWriterBuilder(new FailingOutputStream())
+                .withFragmentOnly(true).build();
+
+        assertThatThrownBy(() -> writer.write(doc))
+                .isInstanceOf(DocumentException.class)
+                .hasCauseInstanceOf(IOException.class);
+        assertThatThrownBy(writer::close)
+                .isInstanceOf(DocumentException.class)
+                .hasCauseInstanceOf(IOException.class);
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Document parse(String source) {
+        try (Parser parser = parserFactory.createParser(source)) {
+            return parser.parse();
+        }
+    }
+
+    private static String writeToString(Document doc) {
+        StringWriter stringWriter = new StringWriter();
+        try (DocumentWriter writer = htmlService.createWriterBuilder(stringWriter)
+                .withFragmentOnly(true).build()) {
+            writer.write(doc);
+        }
+        return stringWriter.toString();
+    }
+
+    /**
+     * An output stream which fails on every operation.
+     */
+    private static class FailingOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            throw new IOException("write failed.");
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            throw new IOException("write failed.");
+        }
+
+        @Override
+        public void close() throws IOException {
+            throw new IOException("close failed.");
+        }
+    }
+}
@@ -17,20 +17,28 @@ package org.leadpony.fika.publication.builder;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
-import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.leadpony.fika.publication.project.Project;
 import org.leadpony.fika.publication.theme.Resource;
 import org.leadpony.fika.publication.theme.Theme;
 import org.leadpony.fika.publication.view.ViewResolver;
 import org.leadpony.fika.publication.view.ViewService;
+import org.leadpony.fika.publication.view.ViewStatistics;
 
 /**
  * Abstract base builder for HTML media.
@@ -39,70 +47,243 @@ import org.leadpony.fika.publication.view.ViewService;
  */
 public abstract class AbstractHtmlBuilder extends AbstractPublicationBuilder {
 
+    /**
+     * The name of the property specifying how the templates are cached
+     * between the builds by the same builder. 
+     * The value must be {@code "strong"}, with which the templates are never reloaded, 
+     * or {@code "validated"}, with which the templates are reloaded
+     * when the template files were modified. The default is {@code "strong"}.
+     */
+    public static final String TEMPLATE_CACHE = "templateCache";
+    
     private static final Logger log = Logger.getLogger(AbstractHtmlBuilder.class.getName());
     
+    private ViewResolver.CachePolicy templateCachePolicy = ViewResolver.CachePolicy.STRONG;
     private Theme theme;
     private ViewResolver viewResolver;
+    private String themeHash;
+    private String templateHash;
 
     protected AbstractHtmlBuilder(Project project) {
         super(project);
     }
     
+    @Override
+    public void setProperty(String name, Object value) {
+        if (TEMPLATE_CACHE.equals(name)) {
+            setTemplateCachePolicy(value);
+        } else {
+            super.setProperty(name, value);
+        }
+    }
+    
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * The view resolver and the templates loaded by it are shared 
+     * by all builds performed by this builder.
+     * A partial build is turned into a full build if the templates were modified.
+     * </p>
+     */
     @Override
     protected void initialize() throws Exception {
         super.initialize();
-        this.theme = Theme.find(Theme.DEFAULT_THEME);
-        this.viewResolver = createViewResolver();
+        if (this.viewResolver == null) {
+            this.theme = Theme.find(Theme.DEFAULT_THEME);
+            this.themeHash = computeThemeHash(this.theme);
+            this.viewResolver = createViewResolver();
+        } else {
+            this.viewResolver.refresh();
+        }
+        String templateHash = computeTemplateHash();
+        if (!templateHash.equals(this.templateHash)) {
+            requireFullBuild();
+        }
+        this.templateHash = templateHash;
     }
     
     @Override
     protected void processResources() throws IOException {
-        int count = copyThemeResources();
-        count += copyResources(sourceDirectory());
-        count += copyResources(templateDirectory());
+        int count;
+        Set<Path> changes = changes();
+        if (changes != null) {
+            count = copyChangedResources(changes);
+        } else {
+            count = copyThemeResources();
+            count += copyResources(sourceDirectory());
+            count += copyResources(templateDirectory());
+        }
         log.fine("Copied " + count + " resource file(s).");
     }
+    
+    /**
+     * Returns the hash of the templates and the project settings
+     * which affect all pages rendered by this builder.
+     * 
+     * @return the hash of the templates.
+     */
+    protected String templateHash() {
+        return templateHash;
+    }
    
     private int copyResources(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
         ResourceFileVisitor visitor = new ResourceFileVisitor(directory);
         Files.walkFileTree(directory, visitor);
         return visitor.filesCopied;
     }
     
-    private void copyFileToTarget(Path file, Path baseDirectory) throws IOException {
+    /**
+     * Copies the changed files which are resources to the sink.
+     * The deleted resources are not copied, and will be pruned 
+     * as their outputs are not recorded by the current build.
+     * 
+     * @param changes the absolute paths of the files changed.
+     * @return the number of the files copied.
+     * @throws IOException if an I/O error occurred.
+     */
+    private int copyChangedResources(Set<Path> changes) throws IOException {
+        int count = 0;
+        for (Path file : changes) {
+            if (!Files.isRegularFile(file)) {
+                continue;
+            }
+            for (Path directory : new Path[] { sourceDirectory(), templateDirectory() }) {
+                if (directory == null) {
+                    continue;
+                }
+                Path base = directory.toAbsolutePath().normalize();
+                if (file.startsWith(base) && resourceSet().contains(base.relativize(file))
+                        && copyFileToTarget(file, base)) {
+                    ++count;
+                }
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Copies a resource file to the sink 
+     * unless the copy in the sink is up to date.
+     * 
+     * @param file the resource file to copy.
+     * @param baseDirectory the directory containing the resource file.
+     * @return {@code true} if the file was copied, {@code false} if skipped.
+     * @throws IOException if an I/O error occurred.
+     */
+    private boolean copyFileToTarget(Path file, Path baseDirectory) throws IOException {
         Path relativePath = baseDirectory.relativize(file);
-        Path targetFile = prepareTarget(relativePath);
-        Files.copy(file, targetFile, StandardCopyOption.REPLACE_EXISTING);
+        String output = outputName(relativePath);
+        BuildManifest.Entry entry = new BuildManifest.Entry(
+                ContentHash.of(file), "", Collections.singleton(outputName(relativizeSource(file))));
+        manifest().record(output, entry);
+        if (manifest().isUpToDate(output, entry, sink())) {
+            return false;
+        }
+        sink().write(output, out -> Files.copy(file, out));
+        return true;
     }
     
     private int copyThemeResources() throws IOException {
         int count = 0;
         for (Resource resource : this.theme.resources()) {
-            copyThemeResource(resource);
-            ++count;
+            if (copyThemeResource(resource)) {
+                ++count;
+            }
         }
         return count;
     }
     
-    private void copyThemeResource(Resource resource) throws IOException {
-        Path relativePath = Paths.get(resource.path());
-        Path targetFile = prepareTarget(relativePath);
+    /**
+     * Copies a theme resource to the sink 
+     * unless the copy in the sink is up to date.
+     * The resource is read again when the sink writes it, instead of being held by this builder.
+     * 
+     * @param resource the theme resource to copy.
+     * @return {@code true} if the resource was copied, {@code false} if skipped.
+     * @throws IOException if an I/O error occurred.
+     */
+    private boolean copyThemeResource(Resource resource) throws IOException {
+        String hash;
         try (InputStream in = resource.newInputStream()) {
             if (in == null) {
                 log.severe("Resource not found: " + resource.path());
-            } else {
-                Files.copy(in, targetFile, StandardCopyOption.REPLACE_EXISTING);
+                return false;
             }
+            hash = new ContentHash().update(in).toString();
+        }
+        String output = outputName(Paths.get(resource.path()));
+        BuildManifest.Entry entry = new BuildManifest.Entry(
+                hash, "", Collections.singleton(this.theme.name() + ":" + resource.path()));
+        manifest().record(output, entry);
+        if (manifest().isUpToDate(output, entry, sink())) {
+            return false;
         }
+        sink().write(output, out -> writeThemeResource(resource, out));
+        return true;
     }
     
-    private Path prepareTarget(Path relativePath) throws IOException {
-        Path targetFile = resolveTarget(relativePath);
-        Path parent = targetFile.getParent();
-        if (parent != null) {
-            Files.createDirectories(parent);
+    private static void writeThemeResource(Resource resource, OutputStream out) throws IOException {
+        try (InputStream in = resource.newInputStream()) {
+            if (in == null) {
+                throw new IOException("Resource not found: " + resource.path());
+            }
+            in.transferTo(out);
         }
-        return targetFile;
+    }
+    
+    /**
+     * Computes the hash of the project file, the theme and the custom templates.
+     * 
+     * @return the hash computed.
+     * @throws IOException if an I/O error occurred while reading the files.
+     */
+    private String computeTemplateHash() throws IOException {
+        ContentHash hash = new ContentHash();
+        hash.update(this.themeHash);
+        Path projectFile = project().path();
+        if (projectFile != null && Files.isRegularFile(projectFile)) {
+            hash.update(Files.readAllBytes(projectFile));
+        }
+        Path directory = templateDirectory();
+        if (directory != null && Files.isDirectory(directory)) {
+            List<Path> files;
+            try (Stream<Path> stream = Files.walk(directory)) {
+                files = stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            }
+            for (Path file : files) {
+                hash.update(outputName(directory.relativize(file)));
+                hash.update(Files.readAllBytes(file));
+            }
+        }
+        return hash.toString();
+    }
+    
+    /**
+     * Computes the hash of the theme and its resources,
+     * together with the version of this library which provides the built-in templates.
+     * The theme is loaded only once by this builder, so is the hash.
+     * 
+     * @param theme the theme to digest.
+     * @return the hash computed.
+     * @throws IOException if an I/O error occurred while reading the resources.
+     */
+    private static String computeThemeHash(Theme theme) throws IOException {
+        ContentHash hash = new ContentHash();
+        hash.update(ContentHash.ofLibrary());
+        hash.update(theme.name());
+        for (Resource resource : theme.resources()) {
+            hash.update(resource.path());
+            try (InputStream in = resource.newInputStream()) {
+                if (in != null) {
+                    hash.update(in);
+                }
+            }
+        }
+        return hash.toString();
     }
     
     protected ViewResolver createViewResolver() {
@@ -111,12 +292,40 @@ public abstract class AbstractHtmlBuilder extends AbstractPublicationBuilder {
         builder.withSharedValue("project", project());
         builder.withSharedValue("theme", this.theme);
         builder.withTemplateDirectory(project().templateDirectory());
+        builder.withCachePolicy(this.templateCachePolicy);
         return builder.build();
     }
     
     protected ViewResolver viewResolver() {
         return viewResolver;
     }
+    
+    /**
+     * Logs the statistics of the views rendered so far.
+     */
+    protected void logViewStatistics() {
+        if (!log.isLoggable(Level.FINE)) {
+            return;
+        }
+        for (Map.Entry<String, ViewStatistics> entry : this.viewResolver.statistics().entrySet()) {
+            if (entry.getValue().count() > 0) {
+                log.fine("Template " + entry.getKey() + " " + entry.getValue() + ".");
+            }
+        }
+    }
+    
+    private void setTemplateCachePolicy(Object value) {
+        if (value instanceof ViewResolver.CachePolicy) {
+            this.templateCachePolicy = (ViewResolver.CachePolicy)value;
+        } else if ("strong".equals(value)) {
+            this.templateCachePolicy = ViewResolver.CachePolicy.STRONG;
+        } else if ("validated".equals(value)) {
+            this.templateCachePolicy = ViewResolver.CachePolicy.VALIDATED;
+        } else {
+            throw new IllegalArgumentException("Invalid template cache: " + value);
+        }
+        this.viewResolver = null;
+    }
 
     private class ResourceFileVisitor extends SimpleFileVisitor<Path> {
 
@@ -127,12 +336,21 @@ public abstract class AbstractHtmlBuilder extends AbstractPublicationBuilder {
             this.directory = directory;
         }
         
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+            if (!dir.equals(this.directory) && !resourceSet().mayContainUnder(this.directory.relativize(dir))) {
+                return FileVisitResult.SKIP_SUBTREE;
+            }
+            return FileVisitResult.CONTINUE;
+        }
+        
         @Override
         public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
             Path relative = this.directory.relativize(file);
             if (resourceSet().contains(relative)) {
-                copyFileToTarget(file, this.directory);
-                this.filesCopied++;
+                if (copyFileToTarget(file, this.directory)) {
+                    this.filesCopied++;
+                }
             }
             return FileVisitResult.CONTINUE;
         }
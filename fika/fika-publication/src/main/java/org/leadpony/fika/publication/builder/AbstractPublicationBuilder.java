@@ -18,6 +18,8 @@ package org.leadpony.fika.publication.builder;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.logging.Logger;
 
 import org.leadpony.fika.publication.project.Project;
@@ -32,11 +34,21 @@ abstract class AbstractPublicationBuilder implements PublicationBuilder {
     private final Project project; 
     private final Path sourceDirectory;
     private Path targetDirectory;
+    private PublicationSink defaultSink;
+    private PublicationSink sink;
+    private boolean incremental = true;
+    private boolean clean;
+    private BuildManifest manifest = BuildManifest.empty();
+    // true if this builder has ever built the publication.
+    private boolean built;
+    // the files changed, or null if the current build is a full build.
+    private Set<Path> changes;
     
     protected AbstractPublicationBuilder(Project project) {
         this.project = project;
         this.sourceDirectory = project.sourceDirectory();
         this.targetDirectory = project.targetDirectory();
+        this.defaultSink = PublicationSink.of(this.targetDirectory);
     }
 
     @Override
@@ -47,23 +59,67 @@ abstract class AbstractPublicationBuilder implements PublicationBuilder {
     @Override
     public void setTargetDirectory(Path path) {
         targetDirectory = path.toAbsolutePath().normalize();
+        defaultSink = PublicationSink.of(targetDirectory);
+    }
+
+    @Override
+    public void setSink(PublicationSink sink) {
+        this.sink = sink;
     }
 
     @Override
     public void setProperty(String name, Object value) {
+        if (INCREMENTAL.equals(name)) {
+            this.incremental = toBoolean(value);
+        } else if (CLEAN.equals(name)) {
+            this.clean = toBoolean(value);
+        }
     }
     
     @Override
     public void build() {
+        build(null);
+    }
+    
+    @Override
+    public void rebuild(Set<Path> changes) {
+        if (changes == null) {
+            throw new NullPointerException("changes must not be null.");
+        }
+        build(changes);
+    }
+    
+    /**
+     * Performs a full build, or a partial build regenerating 
+     * only the outputs affected by the changed files.
+     * 
+     * @param changes the files changed, or {@code null} for a full build.
+     */
+    private void build(Set<Path> changes) {
+        this.changes = changes;
         try {
             initialize();
+            if (this.changes != null) {
+                this.manifest.retainUnaffected(changedSources(this.changes));
+            }
             processResources();
-            compile();
+            try {
+                compile();
+                pruneOutputs();
+            } finally {
+                Path directory = sink().directory();
+                if (directory != null) {
+                    this.manifest.save(directory);
+                }
+            }
         } catch (IOException e) {
             log.severe(e.getMessage());
         } catch (Exception e) {
             log.severe(e.getMessage());
             e.printStackTrace();
+        } finally {
+            this.built = true;
+            this.changes = null;
         }
     }
     
@@ -79,6 +135,45 @@ abstract class AbstractPublicationBuilder implements PublicationBuilder {
         return project().templateDirectory();
     }
     
+    /**
+     * Returns the sink to which the outputs are written.
+     * 
+     * @return the sink of the outputs, never be {@code null}.
+     */
+    protected PublicationSink sink() {
+        return (sink != null) ? sink : defaultSink;
+    }
+    
+    /**
+     * Checks if the outputs of the previous build are deleted before the build.
+     * 
+     * @return {@code true} if the build is clean.
+     * @see PublicationBuilder#CLEAN
+     */
+    protected boolean isClean() {
+        return clean;
+    }
+    
+    /**
+     * Returns the files changed since the last build 
+     * if the current build regenerates only the outputs affected by them.
+     * 
+     * @return the absolute paths of the files changed, 
+     *         or {@code null} if the current build is a full build.
+     */
+    protected Set<Path> changes() {
+        return changes;
+    }
+    
+    /**
+     * Turns the current build into a full build, 
+     * for the changes which may affect all the outputs.
+     * This method must be called while initializing the build.
+     */
+    protected void requireFullBuild() {
+        this.changes = null;
+    }
+    
     protected Path resolveSource(Path path) {
         return sourceDirectory.resolve(path);
     }
@@ -90,9 +185,47 @@ abstract class AbstractPublicationBuilder implements PublicationBuilder {
     protected Path resolveTarget(Path path) {
         return targetDirectory.resolve(path);
     }
+    
+    /**
+     * Returns the manifest of the outputs.
+     * 
+     * @return the manifest of the outputs, never be {@code null}.
+     */
+    BuildManifest manifest() {
+        return manifest;
+    }
+    
+    /**
+     * Converts the path relative to the target directory 
+     * to the name of the output in the manifest.
+     * 
+     * @param path the path relative to the target directory.
+     * @return the name of the output.
+     */
+    static String outputName(Path path) {
+        return path.toString().replace('\\', '/');
+    }
 
     protected void initialize() throws Exception {
-        Files.createDirectories(targetDirectory());
+        if (!this.built || this.clean || !this.incremental || containsDirectory(this.changes)) {
+            requireFullBuild();
+        }
+        Path directory = sink().directory();
+        if (directory == null) {
+            // The sink retains the outputs of the previous build in memory.
+            if (this.clean) {
+                cleanOutputs(this.manifest.next());
+            } else {
+                this.manifest = this.incremental ? this.manifest.next() : BuildManifest.empty();
+            }
+            return;
+        }
+        Files.createDirectories(directory);
+        if (this.clean) {
+            cleanOutputs(BuildManifest.load(directory));
+        } else if (this.incremental) {
+            this.manifest = BuildManifest.load(directory);
+        }
     }
     
     protected void processResources() throws Exception {
@@ -100,4 +233,66 @@ abstract class AbstractPublicationBuilder implements PublicationBuilder {
 
     protected void compile() throws Exception {
     }
+    
+    /**
+     * Deletes all the outputs recorded by the previous build,
+     * and starts a full build with an empty manifest.
+     * 
+     * @param previous the manifest of the previous build.
+     * @throws IOException if an I/O error occurred.
+     */
+    private void cleanOutputs(BuildManifest previous) throws IOException {
+        int count = previous.clean(sink());
+        if (count > 0) {
+            log.fine("Deleted " + count + " file(s) of the previous build.");
+        }
+        this.manifest = BuildManifest.empty();
+    }
+    
+    private void pruneOutputs() throws IOException {
+        int count = this.manifest.prune(sink());
+        if (count > 0) {
+            log.fine("Deleted " + count + " orphaned file(s).");
+        }
+    }
+    
+    /**
+     * Checks if any of the changes is an existing directory,
+     * which is reported when a directory was created or moved in,
+     * or when the events of the files in it were lost.
+     * The files beneath such a directory are unknown to a partial build.
+     * 
+     * @param changes the files changed, may be {@code null}.
+     * @return {@code true} if any of the changes is a directory.
+     */
+    private static boolean containsDirectory(Set<Path> changes) {
+        if (changes != null) {
+            for (Path path: changes) {
+                if (Files.isDirectory(path)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Converts the changed files to the names of the sources in the manifest.
+     * 
+     * @param changes the absolute paths of the files changed.
+     * @return the names of the changed sources.
+     */
+    private Set<String> changedSources(Set<Path> changes) {
+        Path base = sourceDirectory.toAbsolutePath().normalize();
+        Set<String> sources = new HashSet<>();
+        for (Path path: changes) {
+            sources.add(outputName(base.relativize(path)));
+        }
+        return sources;
+    }
+    
+    private static boolean toBoolean(Object value) {
+        return (value instanceof Boolean) ? 
+                (Boolean)value : Boolean.parseBoolean(String.valueOf(value));
+    }
 }
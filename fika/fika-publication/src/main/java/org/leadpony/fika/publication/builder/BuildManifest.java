@@ -0,0 +1,324 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.publication.builder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Manifest of the outputs generated by the previous build.
+ * 
+ * <p>
+ * The manifest is stored in the target directory, or kept in memory
+ * by {@link #next()} if the outputs are not stored in the file system, and records,
+ * for each output file, the hash of its content source,
+ * the hash of the templates applied, and the set of the source files it depends on.
+ * An output is regenerated only when any of these has changed
+ * since the last build, or when the output file itself is missing.
+ * </p>
+ * 
+ * <p>
+ * Outputs recorded by the previous build but not by the current one
+ * are considered to be orphaned and deleted by {@link #prune(PublicationSink)}.
+ * If the build did not complete and the outputs were not pruned,
+ * the orphaned outputs are carried over to the saved manifest
+ * so that the next build can delete them.
+ * </p>
+ * 
+ * @author leadpony
+ */
+class BuildManifest {
+    
+    private static final Logger log = Logger.getLogger(BuildManifest.class.getName());
+    
+    /**
+     * The name of the manifest file in the target directory.
+     */
+    static final String FILE_NAME = ".fika-manifest";
+    
+    private final Map<String, Entry> previous;
+    private final Map<String, Entry> current = new ConcurrentHashMap<>();
+    
+    private BuildManifest(Map<String, Entry> previous) {
+        this.previous = previous;
+    }
+    
+    /**
+     * Creates an empty manifest, which forces a full build.
+     * 
+     * @return newly created manifest.
+     */
+    static BuildManifest empty() {
+        return new BuildManifest(new HashMap<>());
+    }
+    
+    /**
+     * Loads the manifest from the target directory.
+     * 
+     * @param targetDirectory the target directory of the build.
+     * @return the manifest loaded, or empty manifest if not found or unreadable.
+     */
+    static BuildManifest load(Path targetDirectory) {
+        Path path = targetDirectory.resolve(FILE_NAME);
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(path)) {
+            properties.load(in);
+        } catch (NoSuchFileException e) {
+            return empty();
+        } catch (IOException e) {
+            log.warning("Failed to load the build manifest: " + e.getMessage());
+            return empty();
+        }
+        Map<String, Entry> entries = new HashMap<>();
+        for (String output: properties.stringPropertyNames()) {
+            Entry entry = Entry.parse(properties.getProperty(output));
+            if (entry != null) {
+                entries.put(output, entry);
+            }
+        }
+        return new BuildManifest(entries);
+    }
+    
+    /**
+     * Creates the manifest for the next build
+     * from the entries recorded by the current build.
+     * 
+     * @return newly created manifest.
+     */
+    BuildManifest next() {
+        Map<String, Entry> entries = new HashMap<>();
+        for (String output: previous.keySet()) {
+            entries.put(output, Entry.INVALID);
+        }
+        entries.putAll(current);
+        return new BuildManifest(entries);
+    }
+    
+    /**
+     * Checks if the output is up to date.
+     * 
+     * @param output the path of the output relative to the target directory.
+     * @param entry the entry of the output in the current build.
+     * @param sink the sink of the outputs.
+     * @return {@code true} if the output need not be regenerated.
+     */
+    boolean isUpToDate(String output, Entry entry, PublicationSink sink) {
+        return entry.equals(previous.get(output)) && sink.exists(output);
+    }
+    
+    /**
+     * Carries the outputs of the previous build over to the current build,
+     * except the ones depending on any of the changed sources.
+     * This method is called before a partial build,
+     * which regenerates only the outputs depending on the changed sources.
+     * 
+     * @param changes the names of the changed sources or deleted directories,
+     *                relative to the source directory.
+     */
+    void retainUnaffected(Set<String> changes) {
+        for (Map.Entry<String, Entry> entry: previous.entrySet()) {
+            if (!entry.getValue().dependsOnAny(changes)) {
+                current.put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+    
+    /**
+     * Records the output generated or retained by the current build.
+     * This method can be called by multiple threads,
+     * including the ones writing the content deferred by the sink.
+     * An output recorded after {@link #next()} was called 
+     * remains invalid and will be regenerated by the next build.
+     * 
+     * @param output the path of the output relative to the target directory.
+     * @param entry the entry of the output.
+     */
+    void record(String output, Entry entry) {
+        current.put(output, entry);
+    }
+    
+    /**
+     * Records the output failed to generate in the current build.
+     * The existing output is retained but will be regenerated by the next build.
+     * 
+     * @param output the path of the output relative to the target directory.
+     */
+    void invalidate(String output) {
+        current.put(output, Entry.INVALID);
+    }
+    
+    /**
+     * Deletes the outputs which are not generated by the current build any longer.
+     * 
+     * @param sink the sink of the outputs.
+     * @return the number of the outputs deleted.
+     * @throws IOException if an I/O error occurred.
+     */
+    int prune(PublicationSink sink) throws IOException {
+        int count = 0;
+        for (String output: previous.keySet()) {
+            if (!current.containsKey(output)) {
+                if (sink.delete(output)) {
+                    log.fine("Deleted orphaned output: " + output);
+                    ++count;
+                }
+            }
+        }
+        previous.clear();
+        return count;
+    }
+    
+    /**
+     * Deletes all the outputs recorded by the previous build.
+     * 
+     * @param sink the sink of the outputs.
+     * @return the number of the outputs deleted.
+     * @throws IOException if an I/O error occurred.
+     */
+    int clean(PublicationSink sink) throws IOException {
+        int count = 0;
+        for (String output: previous.keySet()) {
+            if (sink.delete(output)) {
+                ++count;
+            }
+        }
+        previous.clear();
+        return count;
+    }
+    
+    /**
+     * Saves the entries recorded by the current build.
+     * 
+     * @param targetDirectory the target directory of the build.
+     * @throws IOException if an I/O error occurred.
+     */
+    void save(Path targetDirectory) throws IOException {
+        Properties properties = new Properties();
+        for (Map.Entry<String, Entry> entry: previous.entrySet()) {
+            properties.setProperty(entry.getKey(), Entry.INVALID.toString());
+        }
+        for (Map.Entry<String, Entry> entry: current.entrySet()) {
+            properties.setProperty(entry.getKey(), entry.getValue().toString());
+        }
+        try (OutputStream out = Files.newOutputStream(targetDirectory.resolve(FILE_NAME))) {
+            properties.store(out, "Generated by Fika. Do not edit.");
+        }
+    }
+    
+    /**
+     * Entry of the manifest for an output.
+     * 
+     * @author leadpony
+     */
+    static final class Entry {
+        
+        private static final char SEPARATOR = ';';
+        private static final String DEPENDENCY_SEPARATOR = ",";
+        
+        static final Entry INVALID = new Entry("", "", Collections.emptySet());
+        
+        private final String contentHash;
+        private final String templateHash;
+        private final Set<String> dependencies;
+        
+        /**
+         * Constructs an entry.
+         * 
+         * @param contentHash the hash of the content source.
+         * @param templateHash the hash of the templates, or empty string if no templates applied.
+         * @param dependencies the paths of the source files which the output depends on.
+         */
+        Entry(String contentHash, String templateHash, Set<String> dependencies) {
+            this.contentHash = contentHash;
+            this.templateHash = templateHash;
+            this.dependencies = Collections.unmodifiableSet(new LinkedHashSet<>(dependencies));
+        }
+        
+        Set<String> dependencies() {
+            return dependencies;
+        }
+        
+        /**
+         * Checks if this entry depends on any of the sources
+         * or on any source in the directories.
+         * 
+         * @param sources the names of the sources or directories.
+         * @return {@code true} if this entry depends on any of them.
+         */
+        boolean dependsOnAny(Set<String> sources) {
+            for (String dependency: dependencies) {
+                if (sources.contains(dependency)) {
+                    return true;
+                }
+                for (String source: sources) {
+                    if (dependency.startsWith(source + "/")) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (!(obj instanceof Entry)) {
+                return false;
+            }
+            Entry other = (Entry)obj;
+            return !contentHash.isEmpty()
+                    && contentHash.equals(other.contentHash) 
+                    && templateHash.equals(other.templateHash)
+                    && dependencies.equals(other.dependencies);
+        }
+        
+        @Override
+        public int hashCode() {
+            return contentHash.hashCode();
+        }
+        
+        @Override
+        public String toString() {
+            return contentHash + SEPARATOR + templateHash + SEPARATOR 
+                    + String.join(DEPENDENCY_SEPARATOR, dependencies);
+        }
+        
+        private static Entry parse(String value) {
+            String[] fields = value.split(String.valueOf(SEPARATOR), -1);
+            if (fields.length != 3) {
+                return null;
+            }
+            Set<String> dependencies = fields[2].isEmpty() 
+                    ? Collections.emptySet() 
+                    : new LinkedHashSet<>(Arrays.asList(fields[2].split(DEPENDENCY_SEPARATOR)));
+            return new Entry(fields[0], fields[1], dependencies);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.publication.builder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.logging.Logger;
+
+/**
+ * Calculator of content hashes used by incremental builds.
+ * 
+ * @author leadpony
+ */
+final class ContentHash {
+    
+    private static final Logger log = Logger.getLogger(ContentHash.class.getName());
+    
+    private static final String ALGORITHM = "SHA-256";
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    
+    private final MessageDigest digest;
+    
+    ContentHash() {
+        try {
+            this.digest = MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    /**
+     * Calculates the hash of the given bytes.
+     * 
+     * @param content the bytes to digest.
+     * @return the hash as a hexadecimal string.
+     */
+    static String of(byte[] content) {
+        return new ContentHash().update(content).toString();
+    }
+    
+    /**
+     * Calculates the hash of the given file.
+     * 
+     * @param path the path to the file.
+     * @return the hash as a hexadecimal string.
+     * @throws IOException if an I/O error occurred while reading the file.
+     */
+    static String of(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return new ContentHash().update(in).toString();
+        }
+    }
+    
+    /**
+     * Returns the hash identifying the version of this library,
+     * which provides the built-in templates and the renderer of the pages.
+     * The hash is calculated from the Maven properties of this library, 
+     * or from nothing if the properties are not available.
+     * 
+     * @return the hash as a hexadecimal string.
+     */
+    static String ofLibrary() {
+        return LibraryHolder.HASH;
+    }
+    
+    ContentHash update(byte[] content) {
+        digest.update(content);
+        return this;
+    }
+    
+    ContentHash update(String value) {
+        return update(value.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    ContentHash update(InputStream in) throws IOException {
+        byte[] buffer = new byte[8192];
+        int length;
+        while ((length = in.read(buffer)) >= 0) {
+            digest.update(buffer, 0, length);
+        }
+        return this;
+    }
+    
+    /**
+     * Completes the calculation and returns the hash.
+     * 
+     * @return the hash as a hexadecimal string.
+     */
+    @Override
+    public String toString() {
+        byte[] hash = digest.digest();
+        char[] chars = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            chars[i * 2] = HEX_DIGITS[(hash[i] >> 4) & 0xf];
+            chars[i * 2 + 1] = HEX_DIGITS[hash[i] & 0xf];
+        }
+        return new String(chars);
+    }
+    
+    /**
+     * Holder of the hash of this library, calculated on first use.
+     * 
+     * @author leadpony
+     */
+    private static final class LibraryHolder {
+        
+        private static final String PROPERTIES = 
+                "/META-INF/maven/org.leadpony.fika/fika-publication/pom.properties";
+        
+        static final String HASH = calculate();
+        
+        private static String calculate() {
+            ContentHash hash = new ContentHash();
+            try (InputStream in = ContentHash.class.getResourceAsStream(PROPERTIES)) {
+                if (in != null) {
+                    hash.update(in);
+                }
+            } catch (IOException e) {
+                log.warning("Failed to read the properties of the library: " + e.getMessage());
+            }
+            return hash.toString();
+        }
+    }
+}
@@ -15,10 +15,12 @@
  */
 package org.leadpony.fika.publication.builder;
 
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
 
 import org.leadpony.fika.publication.view.PageContext;
+import org.leadpony.fika.publication.view.PageLink;
 
 import org.leadpony.fika.core.model.Document;
 import org.leadpony.fika.core.renderer.HtmlRenderer;
@@ -30,13 +32,41 @@ import org.leadpony.fika.core.renderer.HtmlRenderer;
  */
 public class DefaultPageContext implements PageContext {
     
+    /**
+     * The options of the renderer of the page contents,
+     * which are a part of the keys of the parse cache.
+     */
+    static final List<HtmlRenderer.Option> RENDERER_OPTIONS = 
+            Collections.singletonList(HtmlRenderer.Option.HTML_FRAGMENT);
+    
     private final String url;
-    private final Document document;
+    private final String directory;
+    private final SiteModel site;
+    private final Supplier<Document> document;
+    private final ParseCache cache;
+    private final String key;
     private String content;
     
     public DefaultPageContext(Document document, String url) {
+        this(() -> document, url, SiteModel.empty(), ParseCache.disabled(), "");
+    }
+    
+    /**
+     * Constructs this context whose content is rendered through the cache.
+     * 
+     * @param document the supplier of the document, which is called only if the content is not cached.
+     * @param url the URL of the page.
+     * @param site the model of the site containing the page.
+     * @param cache the cache of the parsed sources.
+     * @param key the key of the source in the cache.
+     */
+    DefaultPageContext(Supplier<Document> document, String url, SiteModel site, ParseCache cache, String key) {
         this.document = document;
-        this.url = url;
+        this.url = site.intern(url);
+        this.directory = SiteModel.directoryOf(url);
+        this.site = site;
+        this.cache = cache;
+        this.key = key;
     }
     
     @Override
@@ -47,31 +77,27 @@ public class DefaultPageContext implements PageContext {
     @Override
     public String getContent() {
         if (content == null) {
-            content = renderContent();
+            content = cache.getContent(key, this::renderContent);
         }
         return content;
     }
     
     @Override
-    public String relativizeUrl(String other) {
-        Path basePath = Paths.get(url);
-        Path parentPath = basePath.getParent();
-        if (parentPath == null) {
-            return other;
-        }
-        Path otherPath = Paths.get(other);
-        Path relative = parentPath.relativize(otherPath);
-        return pathToUrl(relative);
+    public PageLink getLink() {
+        return site.findPage(url);
     }
     
-    private static String pathToUrl(Path path) {
-        return path.toString().replace("\\", "/");
+    @Override
+    public String relativizeUrl(String other) {
+        return site.relativize(directory, other);
     }
     
     private String renderContent() {
         HtmlRenderer.Builder builder = HtmlRenderer.builder();
-        builder.withOption(HtmlRenderer.Option.HTML_FRAGMENT);
+        for (HtmlRenderer.Option option : RENDERER_OPTIONS) {
+            builder.withOption(option);
+        }
         HtmlRenderer renderer = builder.build();
-        return renderer.render(this.document);
+        return renderer.render(this.document.get());
     }
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.publication.builder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sink holding the outputs in memory.
+ * 
+ * <p>
+ * The content given to this sink is not written until the output
+ * is requested for the first time by {@link #read(String)}. 
+ * The bytes written are kept until the output is written again 
+ * or deleted by the next build.
+ * This class is thread-safe and the outputs can be read 
+ * while the builder is writing other outputs.
+ * </p>
+ * 
+ * <p>
+ * When the sink is passed from a builder to another, 
+ * the outputs left by the former can be removed by calling {@link #mark()} 
+ * before the first build of the latter, and {@link #sweep()} after it.
+ * </p>
+ * 
+ * @author leadpony
+ */
+public final class MemorySink implements PublicationSink {
+    
+    private final Map<String, Output> outputs = new ConcurrentHashMap<>();
+    // incremented by every mark.
+    private volatile int generation;
+
+    @Override
+    public Path directory() {
+        return null;
+    }
+
+    @Override
+    public boolean exists(String name) {
+        return outputs.containsKey(name);
+    }
+
+    @Override
+    public void write(String name, Content content) {
+        outputs.put(name, new Output(content, generation));
+    }
+
+    @Override
+    public boolean delete(String name) {
+        return outputs.remove(name) != null;
+    }
+    
+    /**
+     * Marks all the outputs held currently as stale.
+     */
+    public synchronized void mark() {
+        generation++;
+    }
+    
+    /**
+     * Deletes the outputs marked as stale, which were not written again since the last mark.
+     * 
+     * @return the number of the outputs deleted.
+     */
+    public synchronized int sweep() {
+        final int current = this.generation;
+        int count = 0;
+        Iterator<Output> it = outputs.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().generation != current) {
+                it.remove();
+                ++count;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Returns the bytes of the output, writing its content if not written yet.
+     * 
+     * @param name the name of the output.
+     * @return the bytes of the output, or {@code null} if the output does not exist.
+     * @throws IOException if an I/O error occurred while writing the content.
+     */
+    public byte[] read(String name) throws IOException {
+        Output output = outputs.get(name);
+        if (output == null) {
+            return null;
+        }
+        return output.bytes();
+    }
+    
+    /**
+     * Output held in memory.
+     * 
+     * @author leadpony
+     */
+    private static final class Output {
+        
+        private final int generation;
+        private Content content;
+        private volatile byte[] bytes;
+        
+        Output(Content content, int generation) {
+            this.content = content;
+            this.generation = generation;
+        }
+        
+        byte[] bytes() throws IOException {
+            byte[] bytes = this.bytes;
+            if (bytes == null) {
+                synchronized (this) {
+                    bytes = this.bytes;
+                    if (bytes == null) {
+                        ByteArrayOutputStream out = new ByteArrayOutputStream();
+                        content.writeTo(out);
+                        bytes = out.toByteArray();
+                        this.bytes = bytes;
+                        // The content is no longer needed.
+                        this.content = null;
+                    }
+                }
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.publication.builder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+import org.leadpony.fika.core.model.Document;
+
+/**
+ * Cache of the parsed sources.
+ * 
+ * <p>
+ * Each entry is keyed by the hash of the source content
+ * together with the media type and the features of the parser,
+ * and holds the parsed document and the HTML content rendered from it.
+ * The most recently used entries are held in memory
+ * up to the specified number, and the least recently used one is evicted
+ * when the number is exceeded.
+ * </p>
+ * 
+ * <p>
+ * If the cache directory is specified, the rendered contents
+ * are also stored in the directory, so that the next build
+ * can reuse them without parsing the sources again.
+ * The stored contents not used by the current build are deleted 
+ * by {@link #prune()}, and all of them by {@link #clear()}.
+ * </p>
+ * 
+ * <p>
+ * The documents returned by this cache are shared by the callers
+ * and must not be modified.
+ * </p>
+ * 
+ * @author leadpony
+ */
+final class ParseCache {
+    
+    private static final Logger log = Logger.getLogger(ParseCache.class.getName());
+    
+    /**
+     * The name of the cache directory in the target directory.
+     */
+    static final String DIRECTORY_NAME = ".fika-cache";
+    
+    private static final String CONTENT_SUFFIX = ".html";
+    
+    private final int maxEntries;
+    private final Path directory;
+    private final Map<String, CacheEntry> entries;
+    private final Set<String> keysUsed = ConcurrentHashMap.newKeySet();
+    
+    /**
+     * Constructs a cache.
+     * 
+     * @param maxEntries the maximum number of the entries held in memory, may be 0.
+     * @param directory the directory storing the rendered contents, may be {@code null}.
+     */
+    @SuppressWarnings("serial")
+    ParseCache(int maxEntries, Path directory) {
+        this.maxEntries = maxEntries;
+        this.directory = directory;
+        this.entries = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                return size() > ParseCache.this.maxEntries;
+            }
+        };
+    }
+    
+    /**
+     * Creates a cache which does not cache anything.
+     * 
+     * @return newly created cache.
+     */
+    static ParseCache disabled() {
+        return new ParseCache(0, null);
+    }
+    
+    /**
+     * Calculates the key of the source.
+     * 
+     * @param content the content of the source.
+     * @param features the media type and the features of the parser.
+     * @return the key of the source.
+     */
+    static String keyOf(byte[] content, String features) {
+        return new ContentHash().update(features).update(content).toString();
+    }
+    
+    /**
+     * Returns the document parsed from the source,
+     * parsing it only if not cached.
+     * 
+     * @param key the key of the source.
+     * @param parser the supplier of the document parsed.
+     * @return the document, never be {@code null}.
+     */
+    Document getDocument(String key, Supplier<Document> parser) {
+        CacheEntry entry = getEntry(key);
+        if (entry.document == null) {
+            entry.document = parser.get();
+        }
+        return entry.document;
+    }
+    
+    /**
+     * Returns the HTML content rendered from the source,
+     * rendering it only if not cached either in memory or in the directory.
+     * 
+     * @param key the key of the source.
+     * @param renderer the supplier of the content rendered.
+     * @return the content, never be {@code null}.
+     */
+    String getContent(String key, Supplier<String> renderer) {
+        CacheEntry entry = getEntry(key);
+        if (entry.content == null) {
+            String content = loadContent(key);
+            if (content == null) {
+                content = renderer.get();
+                storeContent(key, content);
+            }
+            entry.content = content;
+        }
+        return entry.content;
+    }
+    
+    /**
+     * Marks the source as used by the current build
+     * without retrieving anything from this cache.
+     * 
+     * @param key the key of the source.
+     */
+    void retain(String key) {
+        if (directory != null) {
+            keysUsed.add(key);
+        }
+    }
+    
+    /**
+     * Deletes the contents in the directory which were not used 
+     * since the last call of this method.
+     * 
+     * @return the number of the contents deleted.
+     * @throws IOException if an I/O error occurred.
+     */
+    int prune() throws IOException {
+        int count = 0;
+        if (directory != null && Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + CONTENT_SUFFIX)) {
+                for (Path path: stream) {
+                    String name = path.getFileName().toString();
+                    String key = name.substring(0, name.length() - CONTENT_SUFFIX.length());
+                    if (!keysUsed.contains(key) && Files.deleteIfExists(path)) {
+                        ++count;
+                    }
+                }
+            }
+        }
+        keysUsed.clear();
+        return count;
+    }
+    
+    /**
+     * Deletes all the entries held in memory and the contents stored in the directory.
+     * 
+     * @return the number of the stored contents deleted.
+     * @throws IOException if an I/O error occurred.
+     */
+    int clear() throws IOException {
+        synchronized (entries) {
+            entries.clear();
+        }
+        keysUsed.clear();
+        int count = 0;
+        if (directory != null && Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+                for (Path path: stream) {
+                    if (Files.deleteIfExists(path)) {
+                        ++count;
+                    }
+                }
+            }
+            Files.deleteIfExists(directory);
+        }
+        return count;
+    }
+    
+    private CacheEntry getEntry(String key) {
+        retain(key);
+        if (maxEntries == 0) {
+            return new CacheEntry();
+        }
+        synchronized (entries) {
+            return entries.computeIfAbsent(key, k -> new CacheEntry());
+        }
+    }
+    
+    private String loadContent(String key) {
+        if (directory == null) {
+            return null;
+        }
+        try {
+            byte[] bytes = Files.readAllBytes(directory.resolve(key + CONTENT_SUFFIX));
+            return new String(bytes, StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warning("Failed to load the cached content: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    private void storeContent(String key, String content) {
+        if (directory == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, key, ".tmp");
+            Files.write(temp, content.getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, directory.resolve(key + CONTENT_SUFFIX), 
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warning("Failed to store the cached content: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Entry of this cache.
+     * The fields are volatile because the entry is shared by multiple workers.
+     * 
+     * @author leadpony
+     */
+    private static final class CacheEntry {
+        volatile Document document;
+        volatile String content;
+    }
+}
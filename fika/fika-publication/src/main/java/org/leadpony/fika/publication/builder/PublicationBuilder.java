@@ -16,6 +16,7 @@
 package org.leadpony.fika.publication.builder;
 
 import java.nio.file.Path;
+import java.util.Set;
 
 import org.leadpony.fika.publication.project.Project;
 import org.leadpony.fika.publication.project.ResourceSet;
@@ -26,6 +27,23 @@ import org.leadpony.fika.publication.project.ResourceSet;
  * @author leadpony
  */
 public interface PublicationBuilder {
+    
+    /**
+     * The name of the property specifying whether the build is incremental or not.
+     * The incremental build skips the outputs whose sources, templates and dependencies 
+     * are unchanged since the last build, and deletes the outputs whose sources were removed.
+     * The value must be a boolean, and the default is {@code true}.
+     */
+    String INCREMENTAL = "incremental";
+    
+    /**
+     * The name of the property specifying whether the outputs of the previous build
+     * are deleted before the build. A clean build is never incremental.
+     * Only the outputs recorded by the previous build are deleted,
+     * the other files in the target directory are left untouched.
+     * The value must be a boolean, and the default is {@code false}.
+     */
+    String CLEAN = "clean";
 
     /**
      * Returns the name of this builder.
@@ -51,7 +69,34 @@ public interface PublicationBuilder {
 
     void setTargetDirectory(Path path);
     
+    /**
+     * Assigns the sink to which the outputs are written.
+     * The outputs are written to the target directory if no sink is assigned.
+     * 
+     * @param sink the sink of the outputs, or {@code null} to use the target directory.
+     */
+    void setSink(PublicationSink sink);
+    
     void setProperty(String name, Object value);
     
     void build();
+    
+    /**
+     * Builds the publication again after the specified files were modified,
+     * created or deleted since the last build by this builder.
+     * Only the outputs affected by the files are regenerated,
+     * unless the changes require a full build, 
+     * for example when the templates were modified 
+     * or when any of the changes is a directory.
+     * The default implementation always performs a full build.
+     * 
+     * @param changes the absolute paths of the files changed.
+     * @throws NullPointerException if given {@code changes} is {@code null}.
+     */
+    default void rebuild(Set<Path> changes) {
+        if (changes == null) {
+            throw new NullPointerException("changes must not be null.");
+        }
+        build();
+    }
 }
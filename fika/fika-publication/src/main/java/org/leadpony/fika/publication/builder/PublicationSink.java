@@ -0,0 +1,103 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.publication.builder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+/**
+ * Destination of the outputs generated by a publication builder.
+ * 
+ * <p>
+ * Each output is identified by its name, which is the path 
+ * relative to the root of the publication, separated by slashes.
+ * The content of an output is given as a {@link Content},
+ * which the sink may write immediately or defer until the output is requested.
+ * The content must therefore not depend on any state
+ * changed by the builder after the content was given.
+ * </p>
+ * 
+ * @author leadpony
+ */
+public interface PublicationSink {
+    
+    /**
+     * Returns the directory in which this sink stores the outputs.
+     * 
+     * @return the directory of the outputs, 
+     *         or {@code null} if the outputs are not stored in the file system.
+     */
+    Path directory();
+    
+    /**
+     * Checks if the output exists in this sink.
+     * 
+     * @param name the name of the output.
+     * @return {@code true} if the output exists.
+     */
+    boolean exists(String name);
+    
+    /**
+     * Writes an output, replacing the existing one.
+     * 
+     * @param name the name of the output.
+     * @param content the content of the output.
+     * @throws IOException if an I/O error occurred.
+     */
+    void write(String name, Content content) throws IOException;
+    
+    /**
+     * Deletes an output if it exists.
+     * 
+     * @param name the name of the output.
+     * @return {@code true} if the output was deleted.
+     * @throws IOException if an I/O error occurred.
+     */
+    boolean delete(String name) throws IOException;
+    
+    /**
+     * Creates a sink storing the outputs as files in the specified directory.
+     * 
+     * @param directory the directory of the outputs.
+     * @return newly created sink.
+     * @throws NullPointerException if given {@code directory} is {@code null}.
+     */
+    static PublicationSink of(Path directory) {
+        if (directory == null) {
+            throw new NullPointerException("directory must not be null.");
+        }
+        return new DirectorySink(directory);
+    }
+    
+    /**
+     * Content of an output.
+     * 
+     * @author leadpony
+     */
+    @FunctionalInterface
+    interface Content {
+        
+        /**
+         * Writes this content to the stream.
+         * 
+         * @param out the stream to which this content is written. 
+         *            The stream will be closed by the caller.
+         * @throws IOException if an I/O error occurred.
+         */
+        void writeTo(OutputStream out) throws IOException;
+    }
+}
@@ -15,16 +15,30 @@
  */
 package org.leadpony.fika.publication.builder;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.Reader;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
 import java.io.Writer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.leadpony.fika.publication.project.PageSource;
@@ -44,12 +58,52 @@ import org.leadpony.fika.core.parser.ParserFactoryBuilder;
  */
 public class SiteBuilder extends AbstractHtmlBuilder {
     
+    /**
+     * The name of the property specifying the number of the worker threads
+     * compiling the pages. The value must be a positive integer.
+     * The pages are compiled sequentially if the number is 1,
+     * which is the default.
+     */
+    public static final String WORKERS = "workers";
+    
+    /**
+     * The name of the property specifying the maximum number of the parsed 
+     * sources held in memory, which are reused while the builder is alive.
+     * The value must be a non-negative integer.
+     * The parsed sources are not cached if the number is 0, which is the default.
+     */
+    public static final String PARSE_CACHE = "parseCache";
+    
+    /**
+     * The name of the property specifying whether the HTML contents 
+     * rendered from the sources are stored in the target directory,
+     * so that the next build need not parse the sources again 
+     * when only the templates have changed.
+     * The value must be a boolean, and the default is {@code false}.
+     */
+    public static final String PERSISTENT_PARSE_CACHE = "persistentParseCache";
+    
     private static final Logger log = Logger.getLogger(SiteBuilder.class.getName());
     
-    private final Map<String, ParserFactory> parserFactories = new HashMap<>();
+    /*
+     * Features enabled for all parsers.
+     */
+    private static final List<BasicFeature> FEATURES = Arrays.asList(
+            BasicFeature.ADMONITION, BasicFeature.DEFINITION_LIST);
+    
+    /*
+     * Parser factories shared by all workers.
+     * The factories are thread-safe.
+     */
+    private final Map<String, ParserFactory> parserFactories = new ConcurrentHashMap<>();
     private Charset charset = StandardCharsets.UTF_8;
+    private int workers = 1;
+    private int parseCacheSize = 0;
+    private boolean persistentParseCache = false;
+    private ParseCache parseCache;
 
     private View pageView;
+    private SiteModel siteModel;
    
     public SiteBuilder(Project project) {
         super(project);
@@ -60,53 +114,214 @@ public class SiteBuilder extends AbstractHtmlBuilder {
         return "site";
     }
     
+    @Override
+    public void setProperty(String name, Object value) {
+        if (WORKERS.equals(name)) {
+            setWorkers(value);
+        } else if (PARSE_CACHE.equals(name)) {
+            setParseCacheSize(value);
+        } else if (PERSISTENT_PARSE_CACHE.equals(name)) {
+            this.persistentParseCache = (value instanceof Boolean) ? 
+                    (Boolean)value : Boolean.parseBoolean(String.valueOf(value));
+            this.parseCache = null;
+        } else {
+            super.setProperty(name, value);
+        }
+    }
+    
     @Override
     protected void initialize() throws Exception {
         super.initialize();
         this.pageView = viewResolver().resolveView("page.ftlh");
+        this.siteModel = new SiteModel(project().navigationList(), 
+                source -> mapToUrl(mapSourceToHtml(source.path())));
+        if (this.parseCache == null) {
+            this.parseCache = createParseCache();
+        }
+        if (isClean()) {
+            int count = this.parseCache.clear();
+            if (count > 0) {
+                log.fine("Deleted " + count + " cached content(s).");
+            }
+        }
     }
     
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * A partial build compiles only the changed sources. 
+     * The pages of the deleted sources are not compiled, and will be pruned.
+     * </p>
+     */
     @Override
-    protected void compile() throws IOException {
-        int count = 0;
-        for (PageSource source: project().sources()) {
-            compileSource(source);
-            ++count;
+    protected void compile() throws Exception {
+        List<PageSource> sources = project().sources();
+        Set<Path> changes = changes();
+        if (changes != null) {
+            sources = findChangedSources(sources, changes);
+        }
+        int failures;
+        if (this.workers > 1 && sources.size() > 1) {
+            failures = compileInParallel(sources);
+        } else {
+            failures = compileSequentially(sources);
+        }
+        log.fine("Compiled " + (sources.size() - failures) + " source file(s).");
+        logViewStatistics();
+        if (failures > 0) {
+            throw new BuildException("Failed to compile " + failures + " source file(s).");
+        }
+        if (changes == null) {
+            // Only a full build knows all the sources used.
+            this.parseCache.prune();
         }
-        log.fine("Compiled " + count + " source file(s).");
     }
     
-    private void compileSource(PageSource source) throws IOException {
-        Document doc = parseSource(source);
-        if (doc != null) {
-            renderHtml(source, doc);
+    private List<PageSource> findChangedSources(List<PageSource> sources, Set<Path> changes) {
+        List<PageSource> found = new ArrayList<>();
+        for (PageSource source: sources) {
+            Path path = resolveSource(source.path()).toAbsolutePath().normalize();
+            if (changes.contains(path) && Files.exists(path)) {
+                found.add(source);
+            }
+        }
+        return found;
+    }
+    
+    private int compileSequentially(List<PageSource> sources) {
+        int failures = 0;
+        for (PageSource source: sources) {
+            if (!tryCompileSource(source)) {
+                ++failures;
+            }
+        }
+        return failures;
+    }
+    
+    /**
+     * Compiles the sources by multiple workers.
+     * Each page is written to its own file and the errors are reported
+     * in the order of the sources, so the result does not depend on the scheduling.
+     * 
+     * @param sources the sources to compile.
+     * @return the number of the sources failed.
+     * @throws InterruptedException if interrupted while waiting for the workers.
+     */
+    private int compileInParallel(List<PageSource> sources) throws InterruptedException {
+        ExecutorService executor = new ForkJoinPool(this.workers);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>(sources.size());
+            for (PageSource source: sources) {
+                results.add(executor.submit(() -> tryCompileSource(source)));
+            }
+            int failures = 0;
+            for (Future<Boolean> result: results) {
+                if (!waitForResult(result)) {
+                    ++failures;
+                }
+            }
+            return failures;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    private static boolean waitForResult(Future<Boolean> result) throws InterruptedException {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            log.log(Level.SEVERE, e.getCause().getMessage(), e.getCause());
+            return false;
+        }
+    }
+    
+    /**
+     * Compiles a source, reporting the error if occurred.
+     * 
+     * @param source the source to compile.
+     * @return {@code true} if the source was compiled successfully.
+     */
+    private boolean tryCompileSource(PageSource source) {
+        String output = outputName(mapSourceToHtml(source.path()));
+        try {
+            compileSource(source);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            manifest().invalidate(output);
+            log.log(Level.SEVERE, "Failed to compile source: " + source.path() + ": " + e.getMessage(), e);
+            return false;
         }
     }
     
-    private Document parseSource(PageSource source) throws IOException {
+    /**
+     * Compiles a source unless the page generated from it is up to date.
+     * 
+     * @param source the source to compile.
+     * @throws IOException if an I/O error occurred.
+     */
+    private void compileSource(PageSource source) throws IOException {
         Path path = source.path();
         String mediaType = source.mediaType();
-        log.fine("Compiling source: " + path + " [" + mediaType + "]");
         ParserFactory factory = findParserFactory(mediaType);
         if (factory == null) {
-            return null;
+            return;
         }
-        try (Reader reader = Files.newBufferedReader(resolveSource(path))) {
-            Parser parser = factory.newParser(reader);
-            return parser.parse();
+        byte[] content = Files.readAllBytes(resolveSource(path));
+        Path htmlPath = mapSourceToHtml(path);
+        String output = outputName(htmlPath);
+        BuildManifest.Entry entry = new BuildManifest.Entry(
+                ContentHash.of(content), templateHash(), Collections.singleton(outputName(path)));
+        String key = ParseCache.keyOf(content, featuresOf(mediaType));
+        if (manifest().isUpToDate(output, entry, sink())) {
+            log.fine("Skipping unchanged source: " + path);
+            manifest().record(output, entry);
+            this.parseCache.retain(key);
+            return;
         }
+        log.fine("Compiling source: " + path + " [" + mediaType + "]");
+        Supplier<Document> doc = () -> parseSource(factory, key, content);
+        // The page is kept by the build but not up to date until rendered.
+        manifest().invalidate(output);
+        renderHtml(htmlPath, doc, key, entry);
+    }
+    
+    private Document parseSource(ParserFactory factory, String key, byte[] content) {
+        return this.parseCache.getDocument(key, () -> parseSource(factory, new String(content, this.charset)));
+    }
+    
+    private static Document parseSource(ParserFactory factory, String content) {
+        // The reader holds nothing to release, so it need not be closed.
+        Parser parser = factory.newParser(new StringReader(content));
+        return parser.parse();
     }
 
-    private void renderHtml(PageSource source, Document doc) throws IOException {
-        Path path = mapSourceToHtml(source.path());
-        Path fullPath = resolveTarget(path);
-        Path parent = fullPath.getParent();
-        if (parent != null) {
-            Files.createDirectories(parent);
-        }
-        try (Writer writer = Files.newBufferedWriter(fullPath, this.charset)) {
-            this.pageView.render(createViewContext(doc, path), writer);
-        }
+    /**
+     * Renders the page to the sink.
+     * The sink may defer the rendering until the page is requested,
+     * hence the document is parsed only when the page is actually rendered.
+     * The entry of the page is recorded in the manifest
+     * only after the page was rendered successfully.
+     * 
+     * @param path the path of the page relative to the target directory.
+     * @param doc the supplier of the document parsed.
+     * @param key the key of the source in the parse cache.
+     * @param entry the entry of the page in the manifest.
+     * @throws IOException if an I/O error occurred.
+     */
+    private void renderHtml(Path path, Supplier<Document> doc, String key, BuildManifest.Entry entry) 
+            throws IOException {
+        View view = this.pageView;
+        Charset charset = this.charset;
+        BuildManifest manifest = manifest();
+        String output = outputName(path);
+        Map<String, Object> context = createViewContext(doc, path, key);
+        sink().write(output, out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, charset));
+            view.render(context, writer);
+            writer.flush();
+            manifest.record(output, entry);
+        });
     }
     
     private Path mapSourceToHtml(Path path) {
@@ -121,11 +336,12 @@ public class SiteBuilder extends AbstractHtmlBuilder {
         return newPath;
     }
     
-    private Map<String, Object> createViewContext(Document doc, Path path) {
+    private Map<String, Object> createViewContext(Supplier<Document> doc, Path path, String key) {
         Map<String, Object> context = new HashMap<>();
-        String url = mapToUrl(path);
+        String url = this.siteModel.intern(mapToUrl(path));
         context.put("url", url);
-        context.put("page", new DefaultPageContext(doc, url));
+        context.put("site", this.siteModel);
+        context.put("page", new DefaultPageContext(doc, url, this.siteModel, this.parseCache, key));
         return context;
     }
     
@@ -134,23 +350,80 @@ public class SiteBuilder extends AbstractHtmlBuilder {
     }
     
     private ParserFactory findParserFactory(String mediaType) {
-        ParserFactory factory = parserFactories.get(mediaType);
-        if (factory == null) {
-            factory = buildParserFactory(mediaType);
-            if (factory != null) {
-                parserFactories.put(mediaType, factory);
-            }
-        }
-        return factory;
+        return parserFactories.computeIfAbsent(mediaType, SiteBuilder::buildParserFactory);
     }
     
-    private ParserFactory buildParserFactory(String mediaType) {
+    private static ParserFactory buildParserFactory(String mediaType) {
         ParserFactoryBuilder builder = ParserFactory.builder(mediaType, "");
         if (builder == null) {
             return null;
         }
-        builder.withFeature(BasicFeature.ADMONITION);
-        builder.withFeature(BasicFeature.DEFINITION_LIST);
+        for (BasicFeature feature: FEATURES) {
+            builder.withFeature(feature);
+        }
         return builder.build();
     }
+    
+    /**
+     * Returns the string identifying the parser for the media type 
+     * and the renderer of the contents, which is a part of the keys of the parse cache.
+     * The version of this library is included, 
+     * as the contents stored by another version may be rendered differently.
+     * 
+     * @param mediaType the media type of the source.
+     * @return the string identifying the parser and the renderer.
+     */
+    private static String featuresOf(String mediaType) {
+        return mediaType + FEATURES + DefaultPageContext.RENDERER_OPTIONS + ContentHash.ofLibrary();
+    }
+    
+    private ParseCache createParseCache() {
+        Path directory = null;
+        if (this.persistentParseCache && sink().directory() != null) {
+            directory = sink().directory().resolve(ParseCache.DIRECTORY_NAME);
+        }
+        if (this.parseCacheSize == 0 && directory == null) {
+            return ParseCache.disabled();
+        }
+        return new ParseCache(this.parseCacheSize, directory);
+    }
+    
+    private void setParseCacheSize(Object value) {
+        this.parseCacheSize = toInt("size of parse cache", value, 0);
+        this.parseCache = null;
+    }
+    
+    private void setWorkers(Object value) {
+        this.workers = toInt("number of workers", value, 1);
+    }
+    
+    /**
+     * Converts the value of a property to an integer.
+     *
+     * @param name    the description of the property, used in error messages.
+     * @param value   the value of the property, a number or a string.
+     * @param minimum the minimum value allowed.
+     * @return the converted integer.
+     * @throws IllegalArgumentException if the value is not an integer,
+     *                                  or is less than the minimum.
+     */
+    private static int toInt(String name, Object value, int minimum) {
+        int result;
+        if (value instanceof Number) {
+            result = ((Number)value).intValue();
+        } else if (value instanceof String) {
+            try {
+                result = Integer.parseInt((String)value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + name + ": " + value);
+            }
+        } else {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+        if (result < minimum) {
+            throw new IllegalArgumentException(
+                    "The " + name + " must be at least " + minimum + ": " + value);
+        }
+        return result;
+    }
 }
@@ -0,0 +1,284 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.publication.builder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.leadpony.fika.publication.project.NavigationItem;
+import org.leadpony.fika.publication.project.PageSource;
+import org.leadpony.fika.publication.view.PageLink;
+import org.leadpony.fika.publication.view.SiteContext;
+
+/**
+ * Model of the site built once for each build from the navigation of the project.
+ * 
+ * <p>
+ * The model holds the links between the pages and resolves the URLs 
+ * relative to the pages without parsing them as paths. 
+ * The relative path from a directory to another is computed only once 
+ * for each pair of the directories and cached, 
+ * so relativizing the URL of a page costs a couple of hash lookups.
+ * This class is thread-safe.
+ * </p>
+ * 
+ * @author leadpony
+ */
+final class SiteModel implements SiteContext {
+    
+    private final List<PageLink> navigation;
+    private final List<PageLink> pages;
+    private final Map<String, Link> pagesByUrl;
+    private final Map<String, Map<String, String>> prefixes = new ConcurrentHashMap<>();
+    
+    /**
+     * Constructs this model.
+     * 
+     * @param items the top-level items of the navigation.
+     * @param urlMapper the function mapping the source to the URL of the page.
+     */
+    SiteModel(List<NavigationItem> items, Function<PageSource, String> urlMapper) {
+        List<Link> pages = new ArrayList<>();
+        this.pagesByUrl = new HashMap<>();
+        this.navigation = buildLinks(items, null, urlMapper, pages);
+        Link previous = null;
+        for (Link page : pages) {
+            page.previous = previous;
+            if (previous != null) {
+                previous.next = page;
+            }
+            previous = page;
+        }
+        this.pages = Collections.unmodifiableList(new ArrayList<PageLink>(pages));
+    }
+    
+    /**
+     * Creates a model without any pages.
+     * 
+     * @return newly created model.
+     */
+    static SiteModel empty() {
+        return new SiteModel(Collections.emptyList(), source -> null);
+    }
+    
+    @Override
+    public List<PageLink> getNavigation() {
+        return navigation;
+    }
+
+    @Override
+    public List<PageLink> getPages() {
+        return pages;
+    }
+    
+    @Override
+    public PageLink findPage(String url) {
+        return pagesByUrl.get(url);
+    }
+    
+    /**
+     * Returns the URL of the page shared by this model.
+     * 
+     * @param url the URL of the page.
+     * @return the same URL held by this model, or given URL if not found.
+     */
+    String intern(String url) {
+        Link link = pagesByUrl.get(url);
+        return (link != null) ? link.url : url;
+    }
+    
+    /**
+     * Returns the directory part of the URL.
+     * 
+     * @param url the URL relative to the context root.
+     * @return the directory part ending with a slash, or empty string for the context root.
+     */
+    static String directoryOf(String url) {
+        int index = url.lastIndexOf('/');
+        return (index >= 0) ? url.substring(0, index + 1) : "";
+    }
+    
+    /**
+     * Converts the URL relative to the context root 
+     * to the URL relative to the directory.
+     * 
+     * @param directory the directory returned by {@link #directoryOf(String)}.
+     * @param url the URL relative to the context root.
+     * @return the URL relative to the directory.
+     */
+    String relativize(String directory, String url) {
+        if (isAbsolute(url)) {
+            return url;
+        }
+        String targetDirectory;
+        String fileName;
+        Link link = pagesByUrl.get(url);
+        if (link != null) {
+            targetDirectory = link.directory;
+            fileName = link.fileName;
+        } else {
+            int index = url.lastIndexOf('/');
+            targetDirectory = url.substring(0, index + 1);
+            fileName = url.substring(index + 1);
+        }
+        if (directory.equals(targetDirectory)) {
+            return fileName;
+        }
+        return prefix(directory, targetDirectory) + fileName;
+    }
+    
+    private String prefix(String from, String to) {
+        Map<String, String> map = prefixes.computeIfAbsent(from, k -> new ConcurrentHashMap<>());
+        String prefix = map.get(to);
+        if (prefix == null) {
+            prefix = computePrefix(from, to);
+            map.put(to, prefix);
+        }
+        return prefix;
+    }
+    
+    /**
+     * Computes the relative path from a directory to another.
+     * 
+     * @param from the directory from which the path starts.
+     * @param to the directory to which the path leads.
+     * @return the relative path ending with a slash, or empty string.
+     */
+    static String computePrefix(String from, String to) {
+        int common = 0;
+        int length = Math.min(from.length(), to.length());
+        for (int i = 0; i < length; i++) {
+            char c = from.charAt(i);
+            if (c != to.charAt(i)) {
+                break;
+            } else if (c == '/') {
+                common = i + 1;
+            }
+        }
+        StringBuilder builder = new StringBuilder();
+        for (int i = common; i < from.length(); i++) {
+            if (from.charAt(i) == '/') {
+                builder.append("../");
+            }
+        }
+        return builder.append(to, common, to.length()).toString();
+    }
+    
+    private static boolean isAbsolute(String url) {
+        if (url.isEmpty() || url.charAt(0) == '/' || url.charAt(0) == '#') {
+            return true;
+        }
+        for (int i = 0; i < url.length(); i++) {
+            char c = url.charAt(i);
+            if (c == ':') {
+                return true;
+            } else if (c == '/' || c == '?' || c == '#') {
+                break;
+            }
+        }
+        return false;
+    }
+    
+    private List<PageLink> buildLinks(List<NavigationItem> items, Link parent, 
+            Function<PageSource, String> urlMapper, List<Link> pages) {
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<PageLink> links = new ArrayList<>(items.size());
+        for (NavigationItem item : items) {
+            String url = item.pageSource().map(urlMapper).orElse(null);
+            Link link = new Link(item.label().orElse(null), url, parent);
+            if (url != null && !pagesByUrl.containsKey(url)) {
+                pagesByUrl.put(url, link);
+                pages.add(link);
+            }
+            link.children = buildLinks(item.children(), link, urlMapper, pages);
+            links.add(link);
+        }
+        return Collections.unmodifiableList(links);
+    }
+    
+    /**
+     * Link in the site model.
+     * The fields are assigned only while the model is constructed.
+     * 
+     * @author leadpony
+     */
+    private static final class Link implements PageLink {
+        
+        private final String label;
+        private final String url;
+        private final String directory;
+        private final String fileName;
+        private final Link parent;
+        private List<PageLink> children;
+        private Link previous;
+        private Link next;
+        
+        Link(String label, String url, Link parent) {
+            this.label = label;
+            this.url = url;
+            this.parent = parent;
+            if (url != null) {
+                this.directory = directoryOf(url);
+                this.fileName = url.substring(this.directory.length());
+            } else {
+                this.directory = null;
+                this.fileName = null;
+            }
+        }
+
+        @Override
+        public String getLabel() {
+            return label;
+        }
+
+        @Override
+        public String getUrl() {
+            return url;
+        }
+
+        @Override
+        public PageLink getParent() {
+            return parent;
+        }
+
+        @Override
+        public List<PageLink> getChildren() {
+            return children;
+        }
+
+        @Override
+        public PageLink getPrevious() {
+            return previous;
+        }
+
+        @Override
+        public PageLink getNext() {
+            return next;
+        }
+        
+        @Override
+        public String toString() {
+            return (url != null) ? url : String.valueOf(label);
+        }
+    }
+}
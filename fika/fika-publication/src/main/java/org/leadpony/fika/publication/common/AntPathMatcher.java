@@ -0,0 +1,228 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.publication.common;
+
+/**
+ * Matcher of the paths compiled from an Ant-style path pattern.
+ * 
+ * <p>
+ * The pattern is split into segments by slashes. 
+ * A segment {@code **} matches zero or more directories,
+ * and the other segments match exactly one name in the path,
+ * in which {@code *} matches zero or more characters 
+ * and {@code ?} matches exactly one character.
+ * A pattern ending with a slash is treated as if {@code **} were appended.
+ * A leading slash is ignored, as the paths are relative.
+ * </p>
+ * <p>
+ * The compiled pattern is an automaton whose states are the positions 
+ * between the segments, which is run over the names in the path. 
+ * Matching a path takes linear time and allocates nothing.
+ * Instances of this class are immutable and thread-safe.
+ * </p>
+ * 
+ * @author leadpony
+ */
+public final class AntPathMatcher {
+    
+    private static final String ANY_DIRECTORIES = "**";
+    private static final int MAX_SEGMENTS = 63;
+    
+    private final String pattern;
+    private final String[] segments;
+    /*
+     * Bit i is set if the segment i is "**".
+     */
+    private final long anyDirectories;
+    /*
+     * Bit i is set if all the segments from i are "**".
+     */
+    private final long trailingAnyDirectories;
+    private final long finalState;
+    private final long initialStates;
+    
+    private AntPathMatcher(String pattern, String[] segments) {
+        this.pattern = pattern;
+        this.segments = segments;
+        long any = 0;
+        for (int i = 0; i < segments.length; i++) {
+            if (segments[i].equals(ANY_DIRECTORIES)) {
+                any |= 1L << i;
+            }
+        }
+        this.anyDirectories = any;
+        long trailing = 1L << segments.length;
+        for (int i = segments.length - 1; i >= 0 && (any & (1L << i)) != 0; i--) {
+            trailing |= 1L << i;
+        }
+        this.trailingAnyDirectories = trailing;
+        this.finalState = 1L << segments.length;
+        this.initialStates = closure(1L);
+    }
+    
+    /**
+     * Compiles the Ant-style path pattern.
+     * 
+     * @param pattern the pattern to compile.
+     * @return the compiled matcher.
+     * @throws NullPointerException if given {@code pattern} is {@code null}.
+     * @throws IllegalArgumentException if the pattern has too many segments.
+     */
+    public static AntPathMatcher compile(String pattern) {
+        if (pattern == null) {
+            throw new NullPointerException("pattern must not be null.");
+        }
+        String normalized = pattern.endsWith("/") ? pattern + ANY_DIRECTORIES : pattern;
+        String[] segments = normalized.split("/+");
+        int start = (segments.length > 0 && segments[0].isEmpty()) ? 1 : 0;
+        if (segments.length - start > MAX_SEGMENTS) {
+            throw new IllegalArgumentException("Too many segments in pattern: " + pattern);
+        }
+        String[] trimmed = new String[segments.length - start];
+        System.arraycopy(segments, start, trimmed, 0, trimmed.length);
+        return new AntPathMatcher(pattern, trimmed);
+    }
+    
+    /**
+     * Checks if the path matches this pattern.
+     * 
+     * @param path the path separated by slashes.
+     * @return {@code true} if the path matches.
+     */
+    public boolean matches(CharSequence path) {
+        return (run(path) & finalState) != 0;
+    }
+    
+    /**
+     * Checks if any path under the directory can match this pattern.
+     * If this method returns {@code false}, the directory need not be visited.
+     * 
+     * @param directory the path of the directory separated by slashes.
+     * @return {@code true} if a path under the directory may match.
+     */
+    public boolean matchesAnyUnder(CharSequence directory) {
+        return (run(directory) & (finalState - 1)) != 0;
+    }
+    
+    /**
+     * Checks if every path under the directory matches this pattern.
+     * 
+     * @param directory the path of the directory separated by slashes.
+     * @return {@code true} if all paths under the directory match.
+     */
+    public boolean matchesAllUnder(CharSequence directory) {
+        return (run(directory) & trailingAnyDirectories & (finalState - 1)) != 0;
+    }
+    
+    @Override
+    public String toString() {
+        return pattern;
+    }
+    
+    /**
+     * Runs the automaton over the names in the path.
+     * 
+     * @param path the path separated by slashes.
+     * @return the set of the states reached.
+     */
+    private long run(CharSequence path) {
+        long states = initialStates;
+        int length = path.length();
+        int start = 0;
+        while (start < length && states != 0) {
+            int end = start;
+            while (end < length && path.charAt(end) != '/') {
+                end++;
+            }
+            if (end > start) {
+                states = step(states, path, start, end);
+            }
+            start = end + 1;
+        }
+        return states;
+    }
+    
+    private long step(long states, CharSequence path, int start, int end) {
+        long next = 0;
+        for (long pending = states & (finalState - 1); pending != 0; pending &= pending - 1) {
+            int i = Long.numberOfTrailingZeros(pending);
+            long bit = 1L << i;
+            if ((anyDirectories & bit) != 0) {
+                next |= bit;
+            } else if (matchesName(segments[i], path, start, end)) {
+                next |= bit << 1;
+            }
+        }
+        return closure(next);
+    }
+    
+    /**
+     * Adds the states reachable by matching "**" with no directories.
+     * 
+     * @param states the set of the states.
+     * @return the set of the states including the reachable ones.
+     */
+    private long closure(long states) {
+        long result = states;
+        for (long pending = states & anyDirectories; pending != 0; pending &= pending - 1) {
+            long next = Long.lowestOneBit(pending) << 1;
+            if ((result & next) == 0) {
+                result |= next;
+                pending |= next & anyDirectories;
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Matches a name in the path against a segment of the pattern.
+     * 
+     * @param glob the segment of the pattern.
+     * @param path the path containing the name.
+     * @param start the index of the first character of the name.
+     * @param end the index following the last character of the name.
+     * @return {@code true} if the name matches.
+     */
+    private static boolean matchesName(String glob, CharSequence path, int start, int end) {
+        int g = 0;
+        int p = start;
+        int starIndex = -1;
+        int starMatch = 0;
+        while (p < end) {
+            if (g < glob.length()) {
+                char c = glob.charAt(g);
+                if (c == '*') {
+                    starIndex = g++;
+                    starMatch = p;
+                    continue;
+                } else if (c == '?' || c == path.charAt(p)) {
+                    g++;
+                    p++;
+                    continue;
+                }
+            }
+            if (starIndex < 0) {
+                return false;
+            }
+            g = starIndex + 1;
+            p = ++starMatch;
+        }
+        while (g < glob.length() && glob.charAt(g) == '*') {
+            g++;
+        }
+        return g == glob.length();
+    }
+}
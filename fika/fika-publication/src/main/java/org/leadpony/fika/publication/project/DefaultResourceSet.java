@@ -18,25 +18,27 @@ package org.leadpony.fika.publication.project;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
-import org.leadpony.fika.publication.common.AntPathPattern;
+import org.leadpony.fika.publication.common.AntPathMatcher;
 
 /**
+ * Default implementation of {@link ResourceSet}.
+ * 
+ * <p>
+ * The patterns are compiled into {@link AntPathMatcher}s,
+ * which match the paths without allocating any objects.
+ * </p>
+ * 
  * @author leadpony
  */
 class DefaultResourceSet implements ResourceSet {
     
-    private final List<Pattern> includes = new ArrayList<>();
-    private final List<Pattern> excludes = new ArrayList<>();
+    private final List<AntPathMatcher> includes = new ArrayList<>();
+    private final List<AntPathMatcher> excludes = new ArrayList<>();
 
     @Override
     public boolean contains(Path path) {
-        List<Path> names = new ArrayList<>();
-        path.forEach(names::add);
-        String joined = names.stream().map(Path::toString).collect(Collectors.joining("/"));
-        return contains(joined);
+        return contains(toSlashSeparated(path));
     }
     
     @Override
@@ -44,13 +46,19 @@ class DefaultResourceSet implements ResourceSet {
         return includes(path) && !excludes(path);
     }
     
+    @Override
+    public boolean mayContainUnder(Path directory) {
+        String path = toSlashSeparated(directory);
+        return includesAnyUnder(path) && !excludesAllUnder(path);
+    }
+    
     DefaultResourceSet include(String pattern) {
-        this.includes.add(AntPathPattern.compile(pattern));
+        this.includes.add(AntPathMatcher.compile(pattern));
         return this;
     }
 
     DefaultResourceSet exclude(String pattern) {
-        this.excludes.add(AntPathPattern.compile(pattern));
+        this.excludes.add(AntPathMatcher.compile(pattern));
         return this;
     }
     
@@ -58,8 +66,8 @@ class DefaultResourceSet implements ResourceSet {
         if (this.includes.isEmpty()) {
             return true;
         }
-        for (Pattern pattern: this.includes) {
-            if (pattern.matcher(path).matches()) {
+        for (AntPathMatcher matcher: this.includes) {
+            if (matcher.matches(path)) {
                 return true;
             }
         }
@@ -73,11 +81,41 @@ class DefaultResourceSet implements ResourceSet {
      * @return {@code true} if the path should be excluded.
      */
     private boolean excludes(String path) {
-        for (Pattern pattern: this.excludes) {
-            if (pattern.matcher(path).matches()) {
+        for (AntPathMatcher matcher: this.excludes) {
+            if (matcher.matches(path)) {
                 return true;
             }
         }
         return false;
     }
+    
+    private boolean includesAnyUnder(String directory) {
+        if (this.includes.isEmpty()) {
+            return true;
+        }
+        for (AntPathMatcher matcher: this.includes) {
+            if (matcher.matchesAnyUnder(directory)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private boolean excludesAllUnder(String directory) {
+        for (AntPathMatcher matcher: this.excludes) {
+            if (matcher.matchesAllUnder(directory)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static String toSlashSeparated(Path path) {
+        String value = path.toString();
+        String separator = path.getFileSystem().getSeparator();
+        if (separator.equals("/")) {
+            return value;
+        }
+        return value.replace(separator, "/");
+    }
 }
@@ -25,4 +25,15 @@ public interface ResourceSet {
     boolean contains(Path path);
 
     boolean contains(String path);
+    
+    /**
+     * Checks if this set may contain any path under the directory.
+     * The directory whose paths are never contained need not be visited.
+     * 
+     * @param directory the path of the directory.
+     * @return {@code true} if this set may contain a path under the directory.
+     */
+    default boolean mayContainUnder(Path directory) {
+        return true;
+    }
 }
@@ -28,6 +28,7 @@ public abstract class AbstractViewResolverBuilder implements ViewResolver.Builde
 
     protected final Map<String, Object> sharedValues = new HashMap<>();
     protected Path templateDirectory;
+    protected ViewResolver.CachePolicy cachePolicy = ViewResolver.CachePolicy.STRONG;
     
     @Override
     public Builder withSharedValue(String name, Object value) {
@@ -40,4 +41,13 @@ public abstract class AbstractViewResolverBuilder implements ViewResolver.Builde
         this.templateDirectory = path;
         return this;
     }
+
+    @Override
+    public Builder withCachePolicy(ViewResolver.CachePolicy policy) {
+        if (policy == null) {
+            throw new NullPointerException("policy must not be null.");
+        }
+        this.cachePolicy = policy;
+        return this;
+    }
 }
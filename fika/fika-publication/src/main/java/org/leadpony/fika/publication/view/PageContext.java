@@ -31,5 +31,20 @@ public interface PageContext {
     
     String getContent();
     
+    /**
+     * Returns the link to the current page in the navigation.
+     * 
+     * @return the link to the current page, or {@code null} if the page is not in the navigation.
+     */
+    PageLink getLink();
+    
+    /**
+     * Converts the URL relative to the context root 
+     * to the URL relative to the current page.
+     * The absolute URLs and the fragments are returned as they are.
+     * 
+     * @param other the URL relative to the context root.
+     * @return the URL relative to the current page.
+     */
     String relativizeUrl(String other);
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.publication.view;
+
+import java.util.List;
+
+/**
+ * Link to a page or a group of pages in the navigation of the site.
+ * 
+ * <p>
+ * The links are immutable and can be shared by the views rendering concurrently.
+ * </p>
+ * 
+ * @author leadpony
+ */
+public interface PageLink {
+    
+    /**
+     * Returns the label of this link.
+     * 
+     * @return the label of this link, or {@code null} if not specified.
+     */
+    String getLabel();
+    
+    /**
+     * Returns the URL of the page.
+     * 
+     * @return the URL relative to the context root, 
+     *         or {@code null} if this link is a group of pages.
+     */
+    String getUrl();
+    
+    /**
+     * Returns the parent of this link.
+     * 
+     * @return the parent of this link, or {@code null} if this link is at the top level.
+     */
+    PageLink getParent();
+    
+    /**
+     * Returns the children of this link.
+     * 
+     * @return the list of the children, never be {@code null}.
+     */
+    List<PageLink> getChildren();
+    
+    /**
+     * Returns the link to the previous page in the navigation order.
+     * 
+     * @return the link to the previous page, or {@code null} if this is the first page.
+     */
+    PageLink getPrevious();
+    
+    /**
+     * Returns the link to the next page in the navigation order.
+     * 
+     * @return the link to the next page, or {@code null} if this is the last page.
+     */
+    PageLink getNext();
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.publication.view;
+
+import java.util.List;
+
+/**
+ * Site context referred by Views.
+ * 
+ * <p>
+ * The context is built once for each build and shared by all pages,
+ * hence it is immutable and can be referred by the views rendering concurrently.
+ * </p>
+ * 
+ * @author leadpony
+ */
+public interface SiteContext {
+    
+    /**
+     * Returns the links at the top level of the navigation.
+     * 
+     * @return the list of the links, never be {@code null}.
+     */
+    List<PageLink> getNavigation();
+    
+    /**
+     * Returns the links to all pages in the navigation order.
+     * 
+     * @return the list of the links, never be {@code null}.
+     */
+    List<PageLink> getPages();
+    
+    /**
+     * Finds the link to the page.
+     * 
+     * @param url the URL of the page relative to the context root.
+     * @return the link found, or {@code null} if the page is not in the navigation.
+     */
+    PageLink findPage(String url);
+}
@@ -16,6 +16,8 @@
 package org.leadpony.fika.publication.view;
 
 import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
 
 /**
  * @author leadpony
@@ -24,12 +26,48 @@ public interface ViewResolver {
 
     View resolveView(String templateName);
     
+    /**
+     * Discards the cached templates if any of the template files
+     * was modified since the last call of this method.
+     * This method does nothing if the cache policy is {@link CachePolicy#STRONG}.
+     */
+    default void refresh() {
+    }
+    
+    /**
+     * Returns the statistics of the views resolved by this resolver.
+     * 
+     * @return the map of the statistics keyed by the template name, never be {@code null}.
+     */
+    default Map<String, ViewStatistics> statistics() {
+        return Collections.emptyMap();
+    }
+    
+    /**
+     * Policy of caching the templates.
+     * 
+     * @author leadpony
+     */
+    enum CachePolicy {
+        /**
+         * The templates are never reloaded once loaded.
+         */
+        STRONG,
+        /**
+         * The templates are reloaded by {@link ViewResolver#refresh()}
+         * when the last modified times of the template files have changed.
+         */
+        VALIDATED
+    }
+    
     interface Builder {
         
         Builder withSharedValue(String name, Object value);
 
         Builder withTemplateDirectory(Path path);
         
+        Builder withCachePolicy(CachePolicy policy);
+        
         ViewResolver build();
     }
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.fika.publication.view;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of the rendering by a view.
+ * 
+ * <p>
+ * This class is thread-safe and the views rendered by multiple threads
+ * can record their times without contention.
+ * </p>
+ * 
+ * @author leadpony
+ */
+public final class ViewStatistics {
+    
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    
+    /**
+     * Records a rendering.
+     * 
+     * @param nanos the time spent on the rendering in nanoseconds.
+     */
+    public void record(long nanos) {
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+    
+    /**
+     * Returns the number of the renderings.
+     * 
+     * @return the number of the renderings.
+     */
+    public long count() {
+        return count.sum();
+    }
+    
+    /**
+     * Returns the total time spent on the renderings.
+     * 
+     * @return the total time in nanoseconds.
+     */
+    public long totalNanos() {
+        return totalNanos.sum();
+    }
+    
+    /**
+     * Returns the longest time spent on a rendering.
+     * 
+     * @return the longest time in nanoseconds.
+     */
+    public long maxNanos() {
+        return maxNanos.get();
+    }
+    
+    @Override
+    public String toString() {
+        long count = count();
+        long total = totalNanos() / 1000000;
+        long max = maxNanos() / 1000000;
+        return "rendered " + count + " time(s) in " + total + " ms (max " + max + " ms)";
+    }
+}
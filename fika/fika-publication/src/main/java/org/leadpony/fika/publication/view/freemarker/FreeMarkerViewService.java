@@ -17,17 +17,27 @@ package org.leadpony.fika.publication.view.freemarker;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 import org.leadpony.fika.publication.view.AbstractViewResolverBuilder;
 import org.leadpony.fika.publication.view.View;
 import org.leadpony.fika.publication.view.ViewException;
 import org.leadpony.fika.publication.view.ViewResolver;
 import org.leadpony.fika.publication.view.ViewService;
+import org.leadpony.fika.publication.view.ViewStatistics;
 
 import freemarker.cache.ClassTemplateLoader;
 import freemarker.cache.FileTemplateLoader;
 import freemarker.cache.MultiTemplateLoader;
+import freemarker.cache.StrongCacheStorage;
 import freemarker.cache.TemplateLoader;
 import freemarker.core.HTMLOutputFormat;
 import freemarker.template.Configuration;
@@ -54,12 +64,35 @@ public class FreeMarkerViewService implements ViewService {
         return new FreeMarkerViewResolverBuilder();
     }
     
+    /**
+     * View resolver using FreeMarker.
+     * 
+     * <p>
+     * The configuration is never modified after the resolver was built,
+     * and shared by all views rendering concurrently.
+     * The loaded templates are never checked for the updates on lookup,
+     * which would access the file system for every page rendered.
+     * Instead the template directory is checked once by {@link #refresh()}
+     * if the cache policy is {@link ViewResolver.CachePolicy#VALIDATED}.
+     * </p>
+     * 
+     * @author leadpony
+     */
     private static class FreeMarkerViewResolver implements ViewResolver {
         
         private final Configuration configuration;
+        private final Path templateDirectory;
+        private final CachePolicy cachePolicy;
+        private final Map<String, ViewStatistics> statistics = new ConcurrentHashMap<>();
+        private Map<Path, FileTime> lastModifiedTimes;
         
-        private FreeMarkerViewResolver(Configuration configuration) {
+        private FreeMarkerViewResolver(Configuration configuration, Path templateDirectory, CachePolicy cachePolicy) {
             this.configuration = configuration;
+            this.templateDirectory = templateDirectory;
+            this.cachePolicy = cachePolicy;
+            if (cachePolicy == CachePolicy.VALIDATED) {
+                this.lastModifiedTimes = scanTemplateDirectory();
+            }
         }
 
         @Override
@@ -69,12 +102,47 @@ public class FreeMarkerViewService implements ViewService {
             }
             Template template = lookUpTemplate(templateName);
             if (template != null) {
-                return new FreeMarkerView(template);
+                ViewStatistics stats = this.statistics.computeIfAbsent(templateName, k -> new ViewStatistics());
+                return new FreeMarkerView(template, stats);
             } else {
                 return null;
             }
         }
         
+        @Override
+        public synchronized void refresh() {
+            if (this.cachePolicy != CachePolicy.VALIDATED) {
+                return;
+            }
+            Map<Path, FileTime> times = scanTemplateDirectory();
+            if (!times.equals(this.lastModifiedTimes)) {
+                this.configuration.clearTemplateCache();
+                this.lastModifiedTimes = times;
+            }
+        }
+        
+        @Override
+        public Map<String, ViewStatistics> statistics() {
+            return Collections.unmodifiableMap(this.statistics);
+        }
+        
+        private Map<Path, FileTime> scanTemplateDirectory() {
+            Map<Path, FileTime> times = new HashMap<>();
+            if (this.templateDirectory == null || !Files.isDirectory(this.templateDirectory)) {
+                return times;
+            }
+            try (Stream<Path> stream = Files.walk(this.templateDirectory)) {
+                Iterator<Path> it = stream.filter(Files::isRegularFile).iterator();
+                while (it.hasNext()) {
+                    Path path = it.next();
+                    times.put(path, Files.getLastModifiedTime(path));
+                }
+            } catch (IOException e) {
+                throw new ViewException(e);
+            }
+            return times;
+        }
+        
         private Template lookUpTemplate(String name) {
             try {
                 return this.configuration.getTemplate(name);
@@ -88,7 +156,7 @@ public class FreeMarkerViewService implements ViewService {
 
         @Override
         public ViewResolver build() {
-            return new FreeMarkerViewResolver(configure());
+            return new FreeMarkerViewResolver(configure(), this.templateDirectory, this.cachePolicy);
         }
         
         private Configuration configure() {
@@ -102,6 +170,8 @@ public class FreeMarkerViewService implements ViewService {
         private Configuration buildConfiguration() throws IOException, TemplateModelException {
             Configuration cfg = new Configuration(Configuration.VERSION_2_3_27);
             cfg.setTemplateLoader(createLoader());
+            cfg.setCacheStorage(new StrongCacheStorage());
+            cfg.setTemplateUpdateDelayMilliseconds(Long.MAX_VALUE);
             cfg.setOutputFormat(HTMLOutputFormat.INSTANCE);
             cfg.setDefaultEncoding("UTF-8");
             cfg.setSharedVaribles(this.sharedValues);
@@ -130,17 +200,22 @@ public class FreeMarkerViewService implements ViewService {
     private static class FreeMarkerView implements View {
         
         private final Template template;
+        private final ViewStatistics statistics;
         
-        private FreeMarkerView(Template template) {
+        private FreeMarkerView(Template template, ViewStatistics statistics) {
             this.template = template;
+            this.statistics = statistics;
         }
 
         @Override
         public void render(Map<String, Object> context, Writer writer) {
+            long start = System.nanoTime();
             try {
                 this.template.process(context, writer);
             } catch (TemplateException | IOException e) {
                 throw new ViewException(e);
+            } finally {
+                this.statistics.record(System.nanoTime() - start);
             }
         }
     }
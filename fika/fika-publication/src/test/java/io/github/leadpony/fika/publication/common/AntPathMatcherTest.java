@@ -0,0 +1,119 @@
+/*
+ * Copyright 2017-2019 the Fika authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.leadpony.fika.publication.common;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.leadpony.fika.publication.common.AntPathMatcher;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * @author leadpony
+ */
+public class AntPathMatcherTest {
+    
+    public static Stream<Arguments> matchesArguments() {
+        return Stream.of(
+            Arguments.of("*.png", "foo.png", true),
+            Arguments.of("*.png", "foo/bar.png", false),
+            Arguments.of("*.png", "foo_png", false),
+            Arguments.of("**/*.png", "foo.png", true),
+            Arguments.of("**/*.png", "foo/bar.png", true),
+            Arguments.of("**/*.png", "foo/bar/baz.png", true),
+            Arguments.of("**/*.png", "foo.gif", false),
+            Arguments.of("images/*.png", "images/foo.png", true),
+            Arguments.of("images/*.png", "foo.png", false),
+            Arguments.of("images/*.png", "foo/bar.png", false),
+            Arguments.of("?.png", "a.png", true),
+            Arguments.of("?.png", ".png", false),
+            Arguments.of("a/**/b", "a/b", true),
+            Arguments.of("a/**/b", "a/x/y/b", true),
+            Arguments.of("a/**/b", "a/x/y/c", false),
+            Arguments.of("build/", "build/foo/bar.css", true),
+            // "**" alone matches every path.
+            Arguments.of("**", "foo.png", true),
+            Arguments.of("**", "foo/bar/baz.png", true),
+            // A pattern ending with a slash is treated as if "**" were appended.
+            Arguments.of("build/", "build/foo.css", true),
+            Arguments.of("build/", "build", true),
+            Arguments.of("build/", "foo/build/bar.css", false),
+            // "a/**" matches the directory itself and any depth under it.
+            Arguments.of("a/**", "a", true),
+            Arguments.of("a/**", "a/x", true),
+            Arguments.of("a/**", "a/x/y", true),
+            Arguments.of("a/**", "b/x", false),
+            // A leading slash is ignored.
+            Arguments.of("/a/*.png", "a/x.png", true),
+            Arguments.of("/a/*.png", "b/x.png", false),
+            // "?" matches exactly one character.
+            Arguments.of("?.png", "ab.png", false),
+            Arguments.of("a?c", "ac", false),
+            Arguments.of("a?c", "abc", true),
+            // Regular expression metacharacters are literal.
+            Arguments.of("*.png", "foo.png.bak", false),
+            Arguments.of("a.b", "axb", false),
+            Arguments.of("a+b", "aab", false),
+            Arguments.of("a+b", "a+b", true),
+            Arguments.of("(a)", "(a)", true),
+            Arguments.of("[ab].txt", "a.txt", false),
+            Arguments.of("[ab].txt", "[ab].txt", true)
+        );
+    }
+    
+    @ParameterizedTest(name="[{index}] {0}: {1}")
+    @MethodSource("matchesArguments")
+    public void matchesShouldReturnExpectedResult(String pattern, String path, boolean expected) {
+        boolean result = AntPathMatcher.compile(pattern).matches(path);
+        assertThat(result).isEqualTo(expected);
+    }
+
+    public static Stream<Arguments> matchesAnyUnderArguments() {
+        return Stream.of(
+            Arguments.of("**/*.png", "foo/bar", true),
+            Arguments.of("images/*.png", "images", true),
+            Arguments.of("images/*.png", "images/foo", false),
+            Arguments.of("images/*.png", "foo", false)
+        );
+    }
+    
+    @ParameterizedTest(name="[{index}] {0}: {1}")
+    @MethodSource("matchesAnyUnderArguments")
+    public void matchesAnyUnderShouldReturnExpectedResult(String pattern, String directory, boolean expected) {
+        boolean result = AntPathMatcher.compile(pattern).matchesAnyUnder(directory);
+        assertThat(result).isEqualTo(expected);
+    }
+
+    public static Stream<Arguments> matchesAllUnderArguments() {
+        return Stream.of(
+            Arguments.of("build/**", "build", true),
+            Arguments.of("build/**", "build/foo", true),
+            Arguments.of("build/**", "foo", false),
+            Arguments.of("**/node_modules/", "foo/node_modules", true),
+            Arguments.of("**/*.png", "foo", false)
+        );
+    }
+    
+    @ParameterizedTest(name="[{index}] {0}: {1}")
+    @MethodSource("matchesAllUnderArguments")
+    public void matchesAllUnderShouldReturnExpectedResult(String pattern, String directory, boolean expected) {
+        boolean result = AntPathMatcher.compile(pattern).matchesAllUnder(directory);
+        assertThat(result).isEqualTo(expected);
+    }
+}